@@ -0,0 +1,313 @@
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/** A dictionary whose keys are airport codes. A key of three capital letters, as IATA codes are,
+ * is packed into a 15-bit number that indexes an array directly, so looking it up needs no hashing
+ * and no string comparison. Any other key is kept in a HashedDictionary.
+ * @param <V> The type of the values
+ */
+public class AirportCodeDictionary<V> implements DictionaryInterface<String, V> {
+
+	private static final int BITS_PER_LETTER = 5;
+	private static final int CODE_LENGTH = 3;
+	private static final int TABLE_SIZE = 1 << (BITS_PER_LETTER * CODE_LENGTH);
+
+	private final Object[] packedTable;	// Value of each packed code, or null
+	private int packedCount;	// Number of non-null entries in packedTable
+	private DictionaryInterface<String, V> otherKeys;	// Keys that cannot be packed; created when first needed
+	private int otherCount;
+
+	public AirportCodeDictionary() {
+		packedTable = new Object[TABLE_SIZE];
+		packedCount = 0;
+		otherKeys = null;
+		otherCount = 0;
+	}
+
+	/**
+	 * Packs a three-letter code into a number.
+	 *
+	 * @param code A key.
+	 * @return A number from 0 to 32767 that is different for every code of three capital letters,
+	 *         or -1 if the key is not such a code.
+	 */
+	public static int pack(String code) {
+		if (code.length() != CODE_LENGTH) {
+			return -1;
+		}
+
+		int result = 0;
+		for (int index = 0; index < CODE_LENGTH; index++) {
+			int letter = code.charAt(index) - 'A';
+			if ((letter < 0) || (letter >= 26)) {
+				return -1;
+			}
+			result = (result << BITS_PER_LETTER) | letter;
+		}
+
+		return result;
+	}	// end pack
+
+	/**
+	 * Packs a three-letter code held as bytes, such as a field of a mapped file, without decoding it.
+	 *
+	 * @param text The bytes holding the code.
+	 * @param start The position of the code's first byte.
+	 * @param end The position just past the code's last byte.
+	 * @return The number pack would return for the code, or -1 if the bytes are not three capital
+	 *         letters.
+	 */
+	public static int pack(ByteBuffer text, int start, int end) {
+		if (end - start != CODE_LENGTH) {
+			return -1;
+		}
+
+		int result = 0;
+		for (int index = start; index < end; index++) {
+			int letter = text.get(index) - 'A';
+			if ((letter < 0) || (letter >= 26)) {
+				return -1;
+			}
+			result = (result << BITS_PER_LETTER) | letter;
+		}
+
+		return result;
+	}	// end pack
+
+	/**
+	 * Recovers the code a number was packed from.
+	 *
+	 * @param packedCode A number returned by pack.
+	 * @return The three-letter code.
+	 */
+	public static String unpack(int packedCode) {
+		char[] letters = new char[CODE_LENGTH];
+		for (int index = CODE_LENGTH - 1; index >= 0; index--) {
+			letters[index] = (char) ('A' + (packedCode & ((1 << BITS_PER_LETTER) - 1)));
+			packedCode >>>= BITS_PER_LETTER;
+		}
+
+		return new String(letters);
+	}	// end unpack
+
+	/**
+	 * Retrieves the value associated with a given key.
+	 *
+	 * @param key The key to search for.
+	 * @return The value associated with the key,
+	 *         or null if the key is not in the dictionary.
+	 */
+	@Override
+	public V getValue(String key) {
+		if (key == null) {
+			throw new IllegalArgumentException("Cannot get value for null key");
+		}
+
+		int packedCode = pack(key);
+		if (packedCode >= 0) {
+			return valueAt(packedCode);
+		}
+
+		return (otherKeys == null) ? null : otherKeys.getValue(key);
+	}	// end getValue
+
+	/**
+	 * Adds a new entry to this dictionary. If the given key already exists,
+	 * replaces the corresponding value and returns the original value.
+	 *
+	 * @param key   The key of the entry to be added.
+	 * @param value The value associated with the key.
+	 * @return The value that was associated with the key before the new value
+	 *         was added, or null if the key was not in the dictionary.
+	 */
+	@Override
+	public V add(String key, V value) {
+		if ((key == null) || (value == null)) {
+			throw new IllegalArgumentException("'key' or 'value' is null. Not allowed!'");
+		}
+
+		int packedCode = pack(key);
+		if (packedCode >= 0) {
+			V oldValue = valueAt(packedCode);
+			packedTable[packedCode] = value;
+			if (oldValue == null) {
+				packedCount++;
+			}
+			return oldValue;
+		}
+
+		if (otherKeys == null) {
+			otherKeys = new HashedDictionary<>();
+		}
+		V oldValue = otherKeys.add(key, value);
+		if (oldValue == null) {
+			otherCount++;
+		}
+		return oldValue;
+	}	// end add
+
+	/**
+	 * Removes a specific entry from this dictionary.
+	 *
+	 * @param key The key of the entry to be removed.
+	 * @return The value that was associated with the key,
+	 *         or null if the key was not in the dictionary.
+	 */
+	@Override
+	public V remove(String key) {
+		if (key == null) {
+			throw new IllegalArgumentException("Cannot remove null key");
+		}
+
+		int packedCode = pack(key);
+		if (packedCode >= 0) {
+			V oldValue = valueAt(packedCode);
+			if (oldValue != null) {
+				packedTable[packedCode] = null;
+				packedCount--;
+			}
+			return oldValue;
+		}
+
+		if ((otherKeys == null) || (otherKeys.getValue(key) == null)) {
+			return null;
+		}
+		V oldValue = otherKeys.remove(key);
+		otherCount--;
+		return oldValue;
+	}	// end remove
+
+	/**
+	 * Determines whether a given key is in this dictionary.
+	 *
+	 * @param key The key to search for.
+	 * @return True if the key is in the dictionary, false otherwise.
+	 */
+	@Override
+	public boolean contains(String key) {
+		return getValue(key) != null;
+	}
+
+	/**
+	 * Creates an iterator that traverses all keys in this dictionary.
+	 *
+	 * @return An iterator that provides sequential access to the keys in the dictionary.
+	 */
+	@Override
+	public Iterator<String> getKeyIterator() {
+		return new KeyIterator();
+	}
+
+	/**
+	 * Creates an iterator that traverses all values in this dictionary.
+	 *
+	 * @return An iterator that provides sequential access to the values in the dictionary.
+	 */
+	@Override
+	public Iterator<V> getValueIterator() {
+		return new ValueIterator();
+	}
+
+	/**
+	 * Determines whether this dictionary is empty.
+	 *
+	 * @return True if the dictionary is empty, false otherwise.
+	 */
+	@Override
+	public boolean isEmpty() {
+		return getSize() == 0;
+	}
+
+	/**
+	 * Gets the number of entries in this dictionary.
+	 *
+	 * @return The number of entries in the dictionary.
+	 */
+	@Override
+	public int getSize() {
+		return packedCount + otherCount;
+	}
+
+	/**
+	 * Removes all entries from this dictionary.
+	 */
+	@Override
+	public void clear() {
+		for (int index = 0; index < TABLE_SIZE; index++) {
+			packedTable[index] = null;
+		}
+		packedCount = 0;
+		otherKeys = null;
+		otherCount = 0;
+	}	// end clear
+
+	private V valueAt(int packedCode) {
+		@SuppressWarnings("unchecked")
+		V result = (V) packedTable[packedCode];	// Only values of type V are stored
+		return result;
+	}
+
+	/** Visits the packed codes in order, then the other keys. */
+	private abstract class EntryIterator<E> implements Iterator<E> {
+		private int nextIndex;	// Next occupied slot of packedTable, or TABLE_SIZE
+		private final Iterator<String> otherIterator;
+
+		private EntryIterator() {
+			nextIndex = findOccupied(0);
+			otherIterator = (otherKeys == null) ? null : otherKeys.getKeyIterator();
+		}
+
+		private int findOccupied(int index) {
+			while ((index < TABLE_SIZE) && (packedTable[index] == null)) {
+				index++;
+			}
+			return index;
+		}
+
+		public boolean hasNext() {
+			return (nextIndex < TABLE_SIZE) || ((otherIterator != null) && otherIterator.hasNext());
+		}
+
+		public E next() {
+			if (nextIndex < TABLE_SIZE) {
+				int packedCode = nextIndex;
+				nextIndex = findOccupied(nextIndex + 1);
+				return packedEntry(packedCode);
+			} else if ((otherIterator != null) && otherIterator.hasNext()) {
+				return otherEntry(otherIterator.next());
+			} else {
+				throw new NoSuchElementException();
+			}
+		}
+
+		public void remove() {
+			throw new UnsupportedOperationException("remove is not supported by this iterator");
+		}
+
+		protected abstract E packedEntry(int packedCode);
+
+		protected abstract E otherEntry(String key);
+	}
+
+	private class KeyIterator extends EntryIterator<String> {
+		protected String packedEntry(int packedCode) {
+			return unpack(packedCode);
+		}
+
+		protected String otherEntry(String key) {
+			return key;
+		}
+	}
+
+	private class ValueIterator extends EntryIterator<V> {
+		protected V packedEntry(int packedCode) {
+			return valueAt(packedCode);
+		}
+
+		protected V otherEntry(String key) {
+			return otherKeys.getValue(key);
+		}
+	}
+
+}	// end AirportCodeDictionary
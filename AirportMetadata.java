@@ -0,0 +1,185 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/** Information about airports read from a file of comma-separated lines, the airport code first.
+ * Fields may be quoted, so a name can hold commas. The file is memory-mapped and kept as one block
+ * of bytes; only the position of every field is stored, by airport id, so a field becomes a String
+ * only when it is asked for, and a number is read without becoming one at all.
+ * Airports are numbered from 0 in the order of their lines.
+ */
+public final class AirportMetadata {
+
+	public static final int CODE = 0;
+	public static final int NAME = 1;
+	public static final int LATITUDE = 2;
+	public static final int LONGITUDE = 3;
+
+	private static final int CODE_TABLE_SIZE = 1 << 15;	// One slot for every code AirportCodeDictionary.pack can return
+	private static final int DEFAULT_CAPACITY = 64;
+
+	private final ByteBuffer text;	// The whole file
+	private final int airportCount;
+	private final int[] rowOffsets;	// Row id's field bounds start at fieldBounds[rowOffsets[id]]
+	private final int[] fieldBounds;	// Start of each field of a row, counting any quote, then the row's end plus one
+	private final int[] idByCode;	// Id of each packed code, or -1
+	private final DictionaryInterface<String, Integer> otherCodes;	// Ids of codes that cannot be packed, or null
+
+	private AirportMetadata(ByteBuffer text) {
+		this.text = text;
+		int[] rows = new int[DEFAULT_CAPACITY + 1];
+		int[] bounds = new int[DEFAULT_CAPACITY * 3];
+		int[] byCode = new int[CODE_TABLE_SIZE];
+		Arrays.fill(byCode, -1);
+		DictionaryInterface<String, Integer> others = null;
+
+		int rowCount = 0;
+		int boundCount = 0;
+		CsvReader records = new CsvReader(text);
+		while (records.nextRecord()) {
+			int fieldCount = records.getNumberOfFields();
+			if (rowCount + 1 == rows.length) {
+				rows = Arrays.copyOf(rows, 2 * rows.length);
+			}
+			if (boundCount + fieldCount + 1 > bounds.length) {
+				bounds = Arrays.copyOf(bounds, Math.max(2 * bounds.length, boundCount + fieldCount + 1));
+			}
+			rows[rowCount] = boundCount;
+			for (int field = 0; field < fieldCount; field++) {	// Each field ends at the comma before the next
+				bounds[boundCount++] = records.getFieldStart(field);
+			}
+			bounds[boundCount++] = records.getFieldEnd(fieldCount - 1) + 1;	// Every field ends one byte before the next bound
+
+			int packedCode = AirportCodeDictionary.pack(text, bounds[rows[rowCount]], bounds[rows[rowCount] + 1] - 1);
+			if (packedCode >= 0) {
+				byCode[packedCode] = rowCount;
+			} else {
+				if (others == null) {
+					others = new HashedDictionary<>();
+				}
+				others.add(records.getString(CODE), rowCount);
+			}
+			rowCount++;
+		}	// end while
+
+		rows[rowCount] = boundCount;
+		this.airportCount = rowCount;
+		this.rowOffsets = Arrays.copyOf(rows, rowCount + 1);
+		this.fieldBounds = Arrays.copyOf(bounds, boundCount);
+		this.idByCode = byCode;
+		this.otherCodes = others;
+	}	// end constructor
+
+	/** Maps a file of airport information into memory and finds the position of every field.
+	 * @param fileName The name of a file with one airport per line: its code, then its name, then any
+	 * further fields.
+	 * @return The information in the file.
+	 * @throws IOException if the file cannot be read, or is 2 GB or larger. */
+	public static AirportMetadata open(String fileName) throws IOException {
+		return new AirportMetadata(CsvReader.map(fileName));
+	}
+
+	/** Creates an empty store, for when no file could be read.
+	 * @return A store with no airports. */
+	public static AirportMetadata empty() {
+		return new AirportMetadata(ByteBuffer.allocate(0));
+	}
+
+	/** Gets the number of airports.
+	 * @return The number of airports. */
+	public int getNumberOfAirports() {
+		return airportCount;
+	}
+
+	/** Gets the id of an airport without decoding any of the file.
+	 * @param code An airport code.
+	 * @return The id of the airport, or -1 if the code is unknown. If a code is given on more
+	 * than one line, the last of them. */
+	public int getId(String code) {
+		int packedCode = AirportCodeDictionary.pack(code);
+		if (packedCode >= 0) {
+			return idByCode[packedCode];
+		}
+
+		Integer id = (otherCodes == null) ? null : otherCodes.getValue(code);
+		return (id == null) ? -1 : id;
+	}	// end getId
+
+	/** Gets the id of an airport from its packed code.
+	 * @param packedCode A number returned by AirportCodeDictionary.pack.
+	 * @return The id of the airport, or -1 if the code is unknown. */
+	int getId(int packedCode) {
+		return idByCode[packedCode];
+	}
+
+	/** Gets the id of the airport named by a field of a record, without decoding the field when it
+	 * is a code of three capital letters.
+	 * @param record A reader positioned at a record.
+	 * @param field The position of the airport code in the record.
+	 * @return The id of the airport, or -1 if the code is unknown. */
+	public int getId(CsvReader record, int field) {
+		int packedCode = AirportCodeDictionary.pack(record.getText(), record.getFieldStart(field), record.getFieldEnd(field));
+		return (packedCode >= 0) ? idByCode[packedCode] : getId(record.getString(field));
+	}
+
+	/** Sees whether an airport is known.
+	 * @param code An airport code.
+	 * @return True if the code is in the file. */
+	public boolean contains(String code) {
+		return getId(code) >= 0;
+	}
+
+	/** Gets the number of fields on an airport's line.
+	 * @param id The id of an airport.
+	 * @return The number of fields, counting the code. */
+	public int getNumberOfFields(int id) {
+		return rowOffsets[id + 1] - rowOffsets[id] - 1;
+	}
+
+	/** Decodes one field of an airport's line.
+	 * @param id The id of an airport.
+	 * @param field The position of the field on the line, such as NAME.
+	 * @return The text of the field, or null if the line has fewer fields. */
+	public String getField(int id, int field) {
+		if ((field < 0) || (field >= getNumberOfFields(id))) {
+			return null;
+		}
+
+		int bound = rowOffsets[id] + field;
+		return decode(fieldBounds[bound], fieldBounds[bound + 1] - 1);
+	}	// end getField
+
+	/** Reads one field of an airport's line as a number, without decoding it to a String.
+	 * @param id The id of an airport.
+	 * @param field The position of the field on the line, such as LATITUDE.
+	 * @return The value of the field.
+	 * @throws NumberFormatException if the line has fewer fields, or the field is not a number. */
+	public double getDouble(int id, int field) {
+		if ((field < 0) || (field >= getNumberOfFields(id))) {
+			throw new NumberFormatException("Airport " + id + " has no field " + field + ".");
+		}
+
+		int bound = rowOffsets[id] + field;
+		return CsvReader.parseDouble(text, fieldBounds[bound], fieldBounds[bound + 1] - 1);
+	}	// end getDouble
+
+	/** Decodes the code of an airport.
+	 * @param id The id of an airport.
+	 * @return The airport code. */
+	public String getCode(int id) {
+		return getField(id, CODE);
+	}
+
+	/** Decodes the name of an airport.
+	 * @param code An airport code.
+	 * @return The name of the airport, or null if the code is unknown or the line gives no name. */
+	public String getName(String code) {
+		int id = getId(code);
+		return (id < 0) ? null : getField(id, NAME);
+	}
+
+	private String decode(int start, int end) {
+		return CsvReader.decode(text, start, end);
+	}
+
+}	// end AirportMetadata
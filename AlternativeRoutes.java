@@ -0,0 +1,208 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/** The cheapest few loopless paths between two vertices, in order of increasing cost, found with
+ * Yen's algorithm. Each new path leaves an earlier one at some spur vertex; the spur searches run
+ * in parallel over the shared graph with the root path's vertices and the edges already taken
+ * from the spur vertex masked out, so the graph is never copied.
+ * @param <T> The type of the vertex labels
+ */
+public final class AlternativeRoutes<T> {
+
+	private final CompressedGraph<T> graph;	// The snapshot that was searched
+	private final int[][] routes;	// Vertex indices along each path, origin first
+	private final double[] costs;	// Cost of each path
+
+	private AlternativeRoutes(CompressedGraph<T> graph, int[][] routes, double[] costs) {
+		this.graph = graph;
+		this.routes = routes;
+		this.costs = costs;
+	}	// end constructor
+
+	/** Finds the cheapest loopless paths between two vertices given by index.
+	 * @param graph The graph to search.
+	 * @param begin The index of the paths' origin vertex, or -1 if it is not in the graph.
+	 * @param end The index of the paths' destination vertex, or -1 if it is not in the graph.
+	 * @param pathCount The largest number of paths wanted.
+	 * @return Up to pathCount paths, cheapest first; fewer if the graph has fewer loopless paths. */
+	static <T> AlternativeRoutes<T> find(CompressedGraph<T> graph, int begin, int end, int pathCount) {
+		if (pathCount < 1) {
+			throw new IllegalArgumentException("At least one path must be asked for.");
+		}
+
+		List<Candidate> found = new ArrayList<>();
+		if ((begin >= 0) && (end >= 0)) {
+			Candidate first = searchSpur(graph, null, 0, begin, end, graph.getMask());
+			if (first != null) {
+				found.add(first);
+			}
+		}
+
+		// Candidates cheapest first; only as many are kept as could still be chosen
+		List<Candidate> candidates = new ArrayList<>();
+		while ((found.size() > 0) && (found.size() < pathCount)) {
+			Candidate previous = found.get(found.size() - 1);
+			List<Candidate> spurs = IntStream.range(0, previous.route.length - 1).parallel()
+				.mapToObj(spur -> spurPath(graph, found, previous, spur, end))
+				.collect(Collectors.toList());	// Kept in spur order, so ties are broken the same way every time
+
+			int keep = pathCount - found.size();
+			for (Candidate next : spurs) {
+				if ((next != null) && !contains(found, next) && !contains(candidates, next)) {
+					insert(candidates, next, keep);
+				}
+			}
+
+			if (candidates.isEmpty()) {
+				break;
+			}
+			found.add(candidates.remove(0));
+		}	// end while
+
+		int[][] routes = new int[found.size()][];
+		double[] costs = new double[found.size()];
+		for (int index = 0; index < routes.length; index++) {
+			routes[index] = found.get(index).route;
+			costs[index] = found.get(index).cost;
+		}
+
+		return new AlternativeRoutes<>(graph, routes, costs);
+	}	// end find
+
+	/** Finds the cheapest path that follows a previous path up to a spur vertex and then leaves it
+	 * by an edge that no path found so far with the same root has taken. */
+	private static Candidate spurPath(CompressedGraph<?> graph, List<Candidate> found, Candidate previous, int spur, int end) {
+		int[] root = previous.route;
+		int spurVertex = root[spur];
+		SearchMask mask = graph.getMask();	// Each worker thread has its own
+		for (int position = 0; position < spur; position++) {
+			mask.excludeVertex(root[position]);	// Keeps the path loopless
+		}
+		for (Candidate path : found) {
+			if ((path.route.length > spur + 1) && sharesRoot(path.route, root, spur)) {
+				excludeEdge(graph, mask, spurVertex, path.route[spur + 1]);
+			}
+		}
+
+		return searchSpur(graph, previous, spur, spurVertex, end, mask);
+	}	// end spurPath
+
+	/** Searches from the spur vertex of a previous path and joins the part of that path before the
+	 * spur vertex to the result. With no previous path, the search starts at the origin.
+	 * @return The joined path, or null if the search does not reach the destination. */
+	private static Candidate searchSpur(CompressedGraph<?> graph, Candidate previous, int spur, int spurVertex, int end, SearchMask mask) {
+		SearchContext context = graph.getContext();
+		graph.searchExcluding(spurVertex, end, mask, context);
+		if (!context.isSettled(end)) {
+			return null;
+		}
+
+		int spurLength = 0;
+		for (int vertex = end; vertex >= 0; vertex = context.getPredecessor(vertex)) {
+			spurLength++;
+		}
+		int[] route = new int[spur + spurLength];
+		double[] reachCosts = new double[route.length];
+		double rootCost = 0;
+		if (previous != null) {
+			System.arraycopy(previous.route, 0, route, 0, spur);
+			System.arraycopy(previous.reachCosts, 0, reachCosts, 0, spur);
+			rootCost = previous.reachCosts[spur];
+		}
+
+		int position = route.length - 1;
+		for (int vertex = end; vertex >= 0; vertex = context.getPredecessor(vertex)) {
+			route[position] = vertex;
+			reachCosts[position] = rootCost + context.getCost(vertex);
+			position--;
+		}
+
+		return new Candidate(route, reachCosts);
+	}	// end searchSpur
+
+	private static boolean sharesRoot(int[] route, int[] root, int spur) {
+		for (int position = 0; position <= spur; position++) {
+			if (route[position] != root[position]) {
+				return false;
+			}
+		}
+
+		return true;
+	}	// end sharesRoot
+
+	private static void excludeEdge(CompressedGraph<?> graph, SearchMask mask, int from, int to) {
+		for (int edge = graph.getEdgeOffset(from); edge < graph.getEdgeOffset(from + 1); edge++) {
+			if (graph.getEdgeTarget(edge) == to) {
+				mask.excludeEdge(edge);
+			}
+		}
+	}	// end excludeEdge
+
+	private static boolean contains(List<Candidate> paths, Candidate path) {
+		for (Candidate next : paths) {
+			if (Arrays.equals(next.route, path.route)) {
+				return true;
+			}
+		}
+
+		return false;
+	}	// end contains
+
+	/** Adds a candidate in order of cost, then drops the most expensive ones beyond a limit. */
+	private static void insert(List<Candidate> candidates, Candidate path, int limit) {
+		int position = candidates.size();
+		while ((position > 0) && (candidates.get(position - 1).cost > path.cost)) {
+			position--;
+		}
+		if (position < limit) {
+			candidates.add(position, path);
+			while (candidates.size() > limit) {
+				candidates.remove(candidates.size() - 1);
+			}
+		}
+	}	// end insert
+
+	/** Gets the number of paths found.
+	 * @return The number of paths, at most the number asked for. */
+	public int getNumberOfRoutes() {
+		return routes.length;
+	}
+
+	/** Gets the cost of a path.
+	 * @param route The position of the path, 0 for the cheapest.
+	 * @return The cost of the path. */
+	public double getCost(int route) {
+		return costs[route];
+	}
+
+	/** Gets the vertices along a path.
+	 * @param route The position of the path, 0 for the cheapest.
+	 * @param path A stack of labels that is empty initially; at the completion of the method, this stack contains the labels of the vertices along
+	 * the path; the label of the origin vertex is at the top, and the label of the destination vertex is at the bottom.
+	 * @return The cost of the path. */
+	public double getPath(int route, StackInterface<T> path) {
+		int[] vertices = routes[route];
+		for (int index = vertices.length - 1; index >= 0; index--) {
+			path.push(graph.getLabel(vertices[index]));
+		}
+
+		return costs[route];
+	}	// end getPath
+
+	/** A path found by a search, with the cost of reaching each vertex along it. */
+	private static final class Candidate {
+		private final int[] route;	// Vertex indices, origin first
+		private final double[] reachCosts;	// Cost from the origin to each vertex of the route
+		private final double cost;
+
+		private Candidate(int[] route, double[] reachCosts) {
+			this.route = route;
+			this.reachCosts = reachCosts;
+			this.cost = reachCosts[reachCosts.length - 1];
+		}
+	}	// end Candidate
+
+}	// end AlternativeRoutes
@@ -0,0 +1,159 @@
+import java.util.Arrays;
+
+/** A circular-array implementation of the ADT queue. The array doubles in size when it is full,
+ * and no node is allocated per entry.
+ * @param <T> The type of elements stored in this queue
+ */
+public final class ArrayQueue<T> implements QueueInterface<T> {
+
+	private T[] queue;	// Circular array of queue entries and one unused location
+	private int frontIndex;	// Index of front entry
+	private int backIndex;	// Index of back entry
+	private boolean integrityOK;
+	private static final int DEFAULT_CAPACITY = 50;
+	private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;	// Largest array most virtual machines allow
+
+	/**
+	 * Creates an empty queue with the default capacity.
+	 */
+	public ArrayQueue() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/** Creates an empty queue with a given capacity.
+	 * @param initialCapacity The inital capacity of the queue
+	 */
+	public ArrayQueue(int initialCapacity) {
+		integrityOK = false;
+		checkCapacity(initialCapacity + 1L);
+
+		// The cast is safe because the new array contains null entries
+		@SuppressWarnings("unchecked")
+		T[] tempQueue = (T[]) new Object[Math.max(initialCapacity, 1) + 1];
+		queue = tempQueue;
+		frontIndex = 0;
+		backIndex = queue.length - 1;
+		integrityOK = true;
+	}
+
+	/**
+	 * Adds a new entry to the back of this queue.
+	 * @param newEntry An object to be added
+	 */
+	@Override
+	public void enqueue(T newEntry) {
+		checkIntegrity();
+		ensureCapacity();
+		backIndex = (backIndex + 1) % queue.length;
+		queue[backIndex] = newEntry;
+	}
+
+	/**
+	 * Removes and returns the entry at the front of this queue.
+	 * @return The object at the front of the queue
+	 * @throws EmptyQueueException if the queue is empty
+	 */
+	@Override
+	public T dequeue() {
+		checkIntegrity();
+		if (isEmpty()) {
+			throw new EmptyQueueException("Queue is empty!");
+		}
+
+		T front = queue[frontIndex];
+		queue[frontIndex] = null;
+		frontIndex = (frontIndex + 1) % queue.length;
+		return front;
+	}
+
+	/**
+	 * Retrieves the entry at the front of this queue.
+	 * @return The object at the front of the queue
+	 * @throws EmptyQueueException if the queue is empty
+	 */
+	@Override
+	public T getFront() {
+		checkIntegrity();
+		if (isEmpty()) {
+			throw new EmptyQueueException("Queue is empty!");
+		}
+
+		return queue[frontIndex];
+	}
+
+	/**
+	 * Detects whether this queue is empty.
+	 * @return True if the queue is empty
+	 */
+	@Override
+	public boolean isEmpty() {
+		return frontIndex == ((backIndex + 1) % queue.length);
+	}
+
+	/**
+	 * Gets the number of entries in this queue.
+	 * @return The number of entries
+	 */
+	public int getSize() {
+		return (backIndex + 1 - frontIndex + queue.length) % queue.length;
+	}
+
+	/**
+	 * Removes all entries from this queue.
+	 */
+	@Override
+	public void clear() {
+		checkIntegrity();
+
+		// Remove references to the objects in the queue but not to deallocate the whole array
+		while (!isEmpty()) {
+			queue[frontIndex] = null;
+			frontIndex = (frontIndex + 1) % queue.length;
+		}
+		frontIndex = 0;
+		backIndex = queue.length - 1;
+	}
+
+	/**
+	 * Doubles the size of the array if it is full, moving the entries to the start of the new array.
+	 */
+	private void ensureCapacity() {
+		if (frontIndex == ((backIndex + 2) % queue.length)) {	// One location is always left unused
+			long newLength = 2L * queue.length;	// Multiplies the space available in the queue by a factor of two.
+			if ((newLength > MAX_CAPACITY) && (queue.length < MAX_CAPACITY)) {
+				newLength = MAX_CAPACITY;	// Grow as far as allowed before refusing
+			}
+			checkCapacity(newLength);
+
+			int size = queue.length - 1;
+			@SuppressWarnings("unchecked")
+			T[] tempQueue = (T[]) new Object[(int) newLength];
+			int headLength = Math.min(size, queue.length - frontIndex);
+			System.arraycopy(queue, frontIndex, tempQueue, 0, headLength);
+			System.arraycopy(queue, 0, tempQueue, headLength, size - headLength);
+			queue = tempQueue;
+			frontIndex = 0;
+			backIndex = size - 1;
+		}
+	}
+
+	/**
+	 * Throws an exception if this object is not initalized.
+	 */
+	private void checkIntegrity() {
+		if (!integrityOK) {
+			throw new SecurityException("ArrayQueue object is corrupt.");
+		}
+	}
+
+	/**
+	 * Throws an exception if the client request a capacity that is too large.
+	 * @param capacity The requested length of the array
+	 */
+	private void checkCapacity(long capacity) {
+		if (capacity > MAX_CAPACITY) {
+			throw new IllegalStateException("Attempt to create a queue whose capacity exceeds allowed maximum capacity of " + (MAX_CAPACITY - 1));
+		}
+	}
+
+}
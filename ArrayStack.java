@@ -9,7 +9,7 @@ public final class ArrayStack<T> implements StackInterface<T> {
 	private int topIndex;	// Index of top entry
 	private boolean integrityOK;
 	private static final int DEFAULT_CAPACITY = 50;
-	private static final int MAX_CAPACITY = 10000;
+	private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;	// Largest array most virtual machines allow
 
 	/**
 	 * Creates an empty stack with different capacity.
@@ -106,9 +106,12 @@ public final class ArrayStack<T> implements StackInterface<T> {
 	 */
 	private void ensureCapacity() {
 		if (topIndex == stack.length-1) {
-			int newLength = 2 * stack.length;	// Multiplies the space available in the stack by a factor of two.
+			long newLength = Math.max(2L * stack.length, 1);	// Multiplies the space available in the stack by a factor of two.
+			if ((newLength > MAX_CAPACITY) && (stack.length < MAX_CAPACITY)) {
+				newLength = MAX_CAPACITY;	// Grow as far as allowed before refusing
+			}
 			checkCapacity(newLength);	// Check if the new capacity is greater than the MAX_CAPACITY given.
-			stack = Arrays.copyOf(stack, newLength);
+			stack = Arrays.copyOf(stack, (int) newLength);
 		}
 	}
 
@@ -125,7 +128,7 @@ public final class ArrayStack<T> implements StackInterface<T> {
 	 * Throws an exception if the client request a capacity that is too large.
 	 * @param capacity The requested capacity
 	 */
-	private void checkCapacity(int initialCapacity) {
+	private void checkCapacity(long initialCapacity) {
 		if (initialCapacity > MAX_CAPACITY) {
 			throw new IllegalStateException("Attemp to create a stack whoses capacity exceeds allowed maximum capacity of " + MAX_CAPACITY);
 		}
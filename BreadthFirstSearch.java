@@ -0,0 +1,141 @@
+import java.util.Arrays;
+
+/** Working storage for breadth-first searches over a CompressedGraph, which find paths with the
+ * fewest edges. Visited vertices are kept in a bitset. Each level is expanded either top-down,
+ * following the edges out of the frontier, or bottom-up, checking whether each unvisited vertex has
+ * an edge in from the frontier; bottom-up is cheaper once the frontier holds many of the edges not
+ * yet explored. Each thread keeps its own instance.
+ */
+final class BreadthFirstSearch {
+
+	private static final int TOP_DOWN_FACTOR = 14;	// Go bottom-up when frontier edges exceed unexplored edges / this
+	private static final int BOTTOM_UP_FACTOR = 24;	// Go back top-down when the frontier holds fewer than n / this vertices
+
+	private final int vertexCount;
+	private final int[] offsets;	// Forward edges of the graph
+	private final int[] targets;
+	private final int[] reverseOffsets;	// Backward edges of the graph
+	private final int[] sources;
+	private final long[] visited;	// One bit per vertex
+	private final long[] inFrontier;	// One bit per vertex of the current frontier, for bottom-up steps
+	private final int[] parent;	// Previous vertex on the path to each visited vertex
+	private int[] frontier;
+	private int[] next;
+
+	BreadthFirstSearch(int[] offsets, int[] targets, int[] reverseOffsets, int[] sources) {
+		this.vertexCount = offsets.length - 1;
+		this.offsets = offsets;
+		this.targets = targets;
+		this.reverseOffsets = reverseOffsets;
+		this.sources = sources;
+		int words = (vertexCount + 63) >>> 6;
+		visited = new long[words];
+		inFrontier = new long[words];
+		parent = new int[vertexCount];
+		frontier = new int[vertexCount];
+		next = new int[vertexCount];
+	}	// end constructor
+
+	/** Searches level by level from a given vertex until a target vertex is visited.
+	 * @param begin The index of the origin vertex.
+	 * @param end The index of the target vertex.
+	 * @return The number of edges on the shortest path to end, or -1 if there is no such path. */
+	int search(int begin, int end) {
+		Arrays.fill(visited, 0);
+		visit(begin, -1);
+		if (begin == end) {
+			return 0;
+		}
+
+		frontier[0] = begin;
+		int frontierSize = 1;
+		long unexploredEdges = targets.length;
+		boolean bottomUp = false;
+		int level = 0;
+
+		while (frontierSize > 0) {
+			level++;
+			long frontierEdges = 0;
+			for (int index = 0; index < frontierSize; index++) {
+				frontierEdges += offsets[frontier[index] + 1] - offsets[frontier[index]];
+			}
+			unexploredEdges -= frontierEdges;
+
+			if (!bottomUp && (frontierEdges > unexploredEdges / TOP_DOWN_FACTOR)) {
+				bottomUp = true;
+			} else if (bottomUp && (frontierSize < vertexCount / BOTTOM_UP_FACTOR)) {
+				bottomUp = false;
+			}
+
+			int nextSize = bottomUp ? stepBottomUp(frontierSize) : stepTopDown(frontierSize);
+			if (isVisited(end)) {
+				return level;
+			}
+
+			int[] temp = frontier;
+			frontier = next;
+			next = temp;
+			frontierSize = nextSize;
+		}	// end while
+
+		return -1;
+	}	// end search
+
+	/** Visits every unvisited vertex at the end of an edge leaving the frontier. */
+	private int stepTopDown(int frontierSize) {
+		int nextSize = 0;
+		for (int index = 0; index < frontierSize; index++) {
+			int vertex = frontier[index];
+			for (int edge = offsets[vertex]; edge < offsets[vertex + 1]; edge++) {
+				int neighbor = targets[edge];
+				if (!isVisited(neighbor)) {
+					visit(neighbor, vertex);
+					next[nextSize++] = neighbor;
+				}
+			}
+		}	// end for
+
+		return nextSize;
+	}	// end stepTopDown
+
+	/** Visits every unvisited vertex that has an edge coming in from the frontier. */
+	private int stepBottomUp(int frontierSize) {
+		Arrays.fill(inFrontier, 0);
+		for (int index = 0; index < frontierSize; index++) {
+			inFrontier[frontier[index] >>> 6] |= 1L << frontier[index];
+		}
+
+		int nextSize = 0;
+		for (int vertex = 0; vertex < vertexCount; vertex++) {
+			if (!isVisited(vertex)) {
+				for (int edge = reverseOffsets[vertex]; edge < reverseOffsets[vertex + 1]; edge++) {
+					int neighbor = sources[edge];
+					if ((inFrontier[neighbor >>> 6] & (1L << neighbor)) != 0) {
+						visit(vertex, neighbor);
+						next[nextSize++] = vertex;
+						break;	// One parent is enough
+					}
+				}
+			}
+		}	// end for
+
+		return nextSize;
+	}	// end stepBottomUp
+
+	private boolean isVisited(int vertex) {
+		return (visited[vertex >>> 6] & (1L << vertex)) != 0;
+	}
+
+	private void visit(int vertex, int previous) {
+		visited[vertex >>> 6] |= 1L << vertex;
+		parent[vertex] = previous;
+	}
+
+	/** Gets the previous vertex on the path the last search found to a visited vertex.
+	 * @param vertex The index of a visited vertex.
+	 * @return The index of the previous vertex, or -1 for the origin. */
+	int getParent(int vertex) {
+		return parent[vertex];
+	}
+
+}	// end BreadthFirstSearch
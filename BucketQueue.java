@@ -0,0 +1,241 @@
+import java.util.Arrays;
+
+/** Dial's bucket queue of integer ids from 0 to capacity - 1, each with a priority that is a whole
+ * number. Like RadixHeap it relies on no priority added being smaller than the last one removed.
+ * There is one bucket for each priority in a window as wide as the largest edge weight, so while the
+ * entries fit in the window, adding, lowering and removing take constant time, and finding the next
+ * entry only moves forward through the buckets. Priorities past the window wait in an overflow list
+ * until the window is empty and moves to the smallest of them. Priorities too large for a long key,
+ * such as the infinite bound a goal-directed search gives a vertex that cannot reach its goal, wait in
+ * a last list and leave, smallest first, only once every other entry has.
+ * Fractional priorities are rounded down, so this queue suits graphs whose weights are whole numbers.
+ */
+public final class BucketQueue implements VertexPriorityQueue {
+
+	public static final int MAX_WINDOW = 1 << 16;	// Widest window allowed, in priorities
+
+	private final int window;	// Number of buckets, a power of 2
+	private final int overflow;	// Index of the overflow list among the buckets
+	private final int saturated;	// Index of the list of keys too large to move the window to
+	private final long[] key;	// Rounded priority of each id in the queue
+	private final double[] priority;	// Priority of each id in the queue
+	private final int[] bucket;	// Bucket of each id, or -1 if the id is absent
+	private final int[] next;	// Next id in the same bucket, or -1
+	private final int[] previous;	// Previous id in the same bucket, or -1
+	private final int[] head;	// First id in each bucket, then the overflow list, then the saturated list, or -1
+	private final int[] members;	// Ids in the queue, in no order, so clear need not visit every bucket
+	private final int[] memberIndex;	// Position of each id in members
+	private long base;	// Smallest key the queue can hold; no key in the queue is smaller
+	private long limit;	// Keys from base to limit - 1 are in buckets, larger ones in the overflow list
+	private int size;
+
+	/** Creates an empty queue for ids from 0 to capacity - 1.
+	 * @param capacity The number of distinct ids the queue can hold.
+	 * @param maxWeight The largest edge weight of the graph to be searched, from 0 to MAX_WINDOW - 1.
+	 */
+	public BucketQueue(int capacity, int maxWeight) {
+		if (capacity < 0) {
+			throw new IllegalArgumentException("Queue capacity cannot be negative.");
+		}
+		if ((maxWeight < 0) || (maxWeight >= MAX_WINDOW)) {
+			throw new IllegalArgumentException("A bucket queue supports edge weights from 0 to " + (MAX_WINDOW - 1) + ".");
+		}
+
+		window = Integer.highestOneBit(Math.max(maxWeight, 1)) << 1;	// Wider than any single edge
+		overflow = window;
+		saturated = window + 1;
+		key = new long[capacity];
+		priority = new double[capacity];
+		bucket = new int[capacity];
+		next = new int[capacity];
+		previous = new int[capacity];
+		head = new int[window + 2];
+		members = new int[capacity];
+		memberIndex = new int[capacity];
+		Arrays.fill(bucket, -1);
+		Arrays.fill(head, -1);
+		base = 0;
+		limit = window;
+		size = 0;
+	}	// end constructor
+
+	/** Adds an id that is not already in this queue.
+	 * @param id The id to add.
+	 * @param newPriority The id's priority, which must not be negative; smaller values leave the queue first.
+	 */
+	@Override
+	public void add(int id, double newPriority) {
+		if (bucket[id] >= 0) {
+			throw new IllegalArgumentException("Id " + id + " is already in the queue.");
+		}
+
+		setPriority(id, newPriority);
+		members[size] = id;
+		memberIndex[id] = size;
+		size++;
+	}	// end add
+
+	/** Lowers the priority of an id that is in this queue.
+	 * @param id The id whose priority changes.
+	 * @param newPriority The new priority, which must not exceed the current one.
+	 */
+	@Override
+	public void decreaseKey(int id, double newPriority) {
+		if (bucket[id] < 0) {
+			throw new IllegalArgumentException("Id " + id + " is not in the queue.");
+		}
+		if (newPriority > priority[id]) {
+			throw new IllegalArgumentException("New priority is larger than the current priority of id " + id + ".");
+		}
+
+		unlink(id);
+		setPriority(id, newPriority);
+	}	// end decreaseKey
+
+	/** Removes and returns the id with the smallest priority.
+	 * @return Either the id with the smallest priority or, if the queue is empty, -1. */
+	@Override
+	public int removeMin() {
+		int root = getMin();
+
+		if (root >= 0) {
+			unlink(root);
+			bucket[root] = -1;
+			size--;
+			int moved = members[size];	// Fill the gap in members with the last of them
+			members[memberIndex[root]] = moved;
+			memberIndex[moved] = memberIndex[root];
+		}
+
+		return root;
+	}	// end removeMin
+
+	/** Retrieves the id with the smallest priority, moving base forward to its key.
+	 * @return Either the id with the smallest priority or, if the queue is empty, -1. */
+	@Override
+	public int getMin() {
+		if (isEmpty()) {
+			return -1;
+		}
+
+		while (true) {
+			for (; base < limit; base++) {
+				int index = (int) base & (window - 1);
+				if (head[index] >= 0) {
+					return head[index];
+				}
+			}
+
+			if (head[overflow] < 0) {	// Only saturated keys are left; they are few, so look for the smallest priority
+				int smallestId = head[saturated];
+				for (int id = next[smallestId]; id >= 0; id = next[id]) {
+					if (priority[id] < priority[smallestId]) {
+						smallestId = id;
+					}
+				}
+				return smallestId;
+			}
+
+			// The window is empty, so move it to the smallest key waiting in the overflow list
+			long smallest = Long.MAX_VALUE;
+			for (int id = head[overflow]; id >= 0; id = next[id]) {
+				smallest = Math.min(smallest, key[id]);
+			}
+			base = smallest;
+			limit = (smallest <= Long.MAX_VALUE - window) ? smallest + window : Long.MAX_VALUE;
+
+			int id = head[overflow];
+			head[overflow] = -1;
+			while (id >= 0) {
+				int following = next[id];
+				link(id);
+				id = following;
+			}
+		}	// end while
+	}	// end getMin
+
+	/** Gets the current priority of an id in this queue.
+	 * @param id An id in the queue.
+	 * @return The id's priority. */
+	@Override
+	public double getPriority(int id) {
+		return priority[id];
+	}
+
+	/** Sees whether an id is in this queue.
+	 * @param id The id to look for.
+	 * @return True if the id is in the queue. */
+	@Override
+	public boolean contains(int id) {
+		return bucket[id] >= 0;
+	}
+
+	/** Detects whether this queue is empty.
+	 * @return True if the queue is empty, or false otherwise. */
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/** Gets the size of this queue.
+	 * @return The number of ids currently in the queue. */
+	@Override
+	public int getSize() {
+		return size;
+	}
+
+	/** Removes all ids from this queue, so that any priority may be added again. */
+	@Override
+	public void clear() {
+		for (int index = 0; index < size; index++) {
+			int id = members[index];
+			head[bucket[id]] = -1;
+			bucket[id] = -1;
+		}
+		size = 0;
+		base = 0;
+		limit = window;
+	}	// end clear
+
+	private void setPriority(int id, double newPriority) {
+		if (!(newPriority >= 0.0)) {
+			throw new IllegalArgumentException("A bucket queue cannot hold the priority " + newPriority + ".");
+		}
+
+		priority[id] = newPriority;
+		key[id] = Math.max((long) newPriority, base);	// A key below base can only come from rounding; infinity gives Long.MAX_VALUE
+		link(id);
+	}	// end setPriority
+
+	/** Puts an id in the bucket for its key, in the overflow list if the key is past the window, or in
+	 * the saturated list if the key is too large for any window. */
+	private void link(int id) {
+		int index;
+		if (key[id] == Long.MAX_VALUE) {
+			index = saturated;
+		} else if (key[id] < limit) {
+			index = (int) key[id] & (window - 1);
+		} else {
+			index = overflow;
+		}
+		bucket[id] = index;
+		previous[id] = -1;
+		next[id] = head[index];
+		if (head[index] >= 0) {
+			previous[head[index]] = id;
+		}
+		head[index] = id;
+	}	// end link
+
+	private void unlink(int id) {
+		if (previous[id] >= 0) {
+			next[previous[id]] = next[id];
+		} else {
+			head[bucket[id]] = next[id];
+		}
+		if (next[id] >= 0) {
+			previous[next[id]] = previous[id];
+		}
+	}	// end unlink
+
+}	// end BucketQueue
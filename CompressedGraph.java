@@ -0,0 +1,760 @@
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntFunction;
+
+/** An immutable, array-based copy of a directed graph. Vertices are numbered from 0 to
+ * getNumberOfVertices() - 1, and the edges leaving vertex i are stored in positions
+ * offsets[i] through offsets[i + 1] - 1 of the targets and weights arrays.
+ * Searches keep their working state in a per-thread SearchContext, so any number of
+ * threads may query the same snapshot at once.
+ * @param <T> The type of the vertex labels
+ */
+public final class CompressedGraph<T> {
+
+	private static final double MAX_INTEGRAL_WEIGHT = 1L << 40;	// Paths of up to 4096 smaller whole-number weights still add up exactly
+	private static final int CODE_TABLE_SIZE = 1 << 15;	// One slot for every code AirportCodeDictionary.pack can return
+
+	private final T[] labels;	// Vertex labels by index
+	private final int[] indexByCode;	// Vertex index of each packed airport code, or -1; null unless the labels are airport codes
+	private final DictionaryInterface<T, Integer> indices;	// Vertex indices of the labels not in indexByCode
+	private final int[] offsets;	// Start of each vertex's edges; offsets[n] is the edge count
+	private final int[] targets;	// Index of the vertex at the end of each edge
+	private final double[] weights;	// Weight of each edge
+	private final int[] reverseOffsets;	// Start of each vertex's incoming edges
+	private final int[] sources;	// Index of the vertex at the start of each incoming edge
+	private final double[] reverseWeights;	// Weight of each incoming edge
+	private final double[] latitudes;	// Latitude of each vertex in degrees, or NaN if unknown
+	private final double[] longitudes;	// Longitude of each vertex in degrees, or NaN if unknown
+	private final boolean located;	// True if every vertex has a location
+	private final boolean integral;	// True if every weight is a whole number that is not negative
+	private final double maxWeight;	// Largest edge weight, or 0 if there are no edges
+	private volatile DistanceEstimator greatCircle;	// Built on the first goal-directed search
+	private final IntFunction<? extends VertexPriorityQueue> queueFactory;	// Makes the queue of each search context
+	private final IntFunction<? extends VertexPriorityQueue> unboundedQueueFactory;	// Makes queues for steps heavier than any edge
+	private final ThreadLocal<SearchContext> contexts;	// Search state reused by each querying thread
+	private final ThreadLocal<SearchContext> estimatedContexts;	// Search state for goal-directed queries
+	private final ThreadLocal<SearchContext> backwardContexts;	// Second search state for bidirectional queries
+	private final ThreadLocal<SearchMask> masks;	// Exclusions reused by each thread's restricted searches
+	private final ThreadLocal<BreadthFirstSearch> breadthFirstSearches;	// Search state for fewest-edge queries
+	private final ThreadLocal<PathResult<T>> stackResults;	// Paths found for the methods that fill a stack
+
+	/** Creates a snapshot from arrays that are not shared with any other object.
+	 * @param labels The vertex labels by index.
+	 * @param offsets The start of each vertex's edges, followed by the number of edges.
+	 * @param targets The end vertex of each edge.
+	 * @param weights The weight of each edge.
+	 * @param latitudes The latitude of each vertex in degrees, or NaN if unknown.
+	 * @param longitudes The longitude of each vertex in degrees, or NaN if unknown.
+	 * @param queueFactory Makes an empty priority queue for a given number of vertices, or null to choose
+	 * one suited to the weights.
+	 * @param airportCodes True if the labels are Strings, most of them airport codes, which are then
+	 * found by their packed code in an array rather than by hashing.
+	 */
+	CompressedGraph(T[] labels, int[] offsets, int[] targets, double[] weights, double[] latitudes, double[] longitudes,
+			IntFunction<? extends VertexPriorityQueue> queueFactory, boolean airportCodes) {
+		this.labels = labels;
+		this.offsets = offsets;
+		this.targets = targets;
+		this.weights = weights;
+		this.latitudes = latitudes;
+		this.longitudes = longitudes;
+
+		boolean allLocated = true;
+		for (int index = 0; allLocated && (index < labels.length); index++) {
+			allLocated = !Double.isNaN(latitudes[index]) && !Double.isNaN(longitudes[index]);
+		}
+		located = allLocated;
+
+		boolean allIntegral = true;
+		double largest = 0.0;
+		for (int edge = 0; edge < weights.length; edge++) {
+			allIntegral = allIntegral && (weights[edge] >= 0.0) && (weights[edge] == Math.rint(weights[edge])) && (weights[edge] < MAX_INTEGRAL_WEIGHT);
+			largest = Math.max(largest, weights[edge]);
+		}
+		integral = allIntegral;
+		maxWeight = largest;
+		this.queueFactory = (queueFactory != null) ? queueFactory : chooseQueue();
+		unboundedQueueFactory = ((queueFactory == null) && integral) ? RadixHeap::new : this.queueFactory;
+
+		indexByCode = airportCodes ? new int[CODE_TABLE_SIZE] : null;
+		if (indexByCode != null) {
+			Arrays.fill(indexByCode, -1);
+		}
+		indices = new HashedDictionary<>();
+		for (int index = 0; index < labels.length; index++) {
+			int packedCode = (indexByCode != null) ? AirportCodeDictionary.pack((String) labels[index]) : -1;
+			if (packedCode >= 0) {
+				indexByCode[packedCode] = index;
+			} else {
+				indices.add(labels[index], index);
+			}
+		}	// end for
+
+		// Group the edges by end vertex with a counting sort to get the reverse adjacency
+		int vertexCount = labels.length;
+		reverseOffsets = new int[vertexCount + 1];
+		sources = new int[targets.length];
+		reverseWeights = new double[targets.length];
+		for (int edge = 0; edge < targets.length; edge++) {
+			reverseOffsets[targets[edge] + 1]++;
+		}
+		for (int index = 0; index < vertexCount; index++) {
+			reverseOffsets[index + 1] += reverseOffsets[index];
+		}
+
+		int[] nextSlot = Arrays.copyOf(reverseOffsets, vertexCount);
+		for (int index = 0; index < vertexCount; index++) {
+			for (int edge = offsets[index]; edge < offsets[index + 1]; edge++) {
+				int slot = nextSlot[targets[edge]]++;
+				sources[slot] = index;
+				reverseWeights[slot] = weights[edge];
+			}
+		}	// end for
+
+		contexts = ThreadLocal.withInitial(this::newContext);
+		estimatedContexts = ThreadLocal.withInitial(this::newUnboundedContext);
+		backwardContexts = ThreadLocal.withInitial(this::newContext);
+		masks = ThreadLocal.withInitial(() -> new SearchMask(vertexCount, targets.length));
+		breadthFirstSearches = ThreadLocal.withInitial(() -> new BreadthFirstSearch(offsets, targets, reverseOffsets, sources));
+		stackResults = ThreadLocal.withInitial(PathResult::new);
+	}	// end constructor
+
+	/** Gets the number of vertices in this graph.
+	 * @return The number of vertices in the graph.
+	 */
+	public int getNumberOfVertices() {
+		return labels.length;
+	}
+
+	/** Gets the number of edges in this graph.
+	 * @return The number of edges in the graph.
+	 */
+	public int getNumberOfEdges() {
+		return targets.length;
+	}
+
+	/** Gets the index of the vertex with a given label.
+	 * @param vertexLabel An object that labels a vertex.
+	 * @return The vertex's index, or -1 if no vertex has that label.
+	 */
+	public int getIndex(T vertexLabel) {
+		if ((indexByCode != null) && (vertexLabel != null)) {
+			int packedCode = AirportCodeDictionary.pack((String) vertexLabel);
+			if (packedCode >= 0) {
+				return indexByCode[packedCode];
+			}
+		}
+
+		Integer index = indices.getValue(vertexLabel);
+		return (index == null) ? -1 : index;
+	}	// end getIndex
+
+	/** Sees whether getIndex finds airport codes by their packed code rather than by hashing.
+	 * @return True if the snapshot was made from a graph whose vertices are in an AirportCodeDictionary. */
+	boolean isIndexedByCode() {
+		return indexByCode != null;
+	}
+
+	/** Gets the label of the vertex with a given index.
+	 * @param index The index of a vertex.
+	 * @return The object that labels the vertex.
+	 */
+	public T getLabel(int index) {
+		return labels[index];
+	}
+
+	/** Finds the least-cost path between two given vertices in this graph.
+	 * @param begin An object that labels the path's origin vertex.
+	 * @param end An object that labels the path's destination vertex.
+	 * @param path A stack of labels that is empty initially; at the completion of the method, this stack contains the labels of the vertices along
+	 * the cheapest path; the label of the origin vertex is at the top, and the label of the destination vertex is at the bottom.
+	 * @return The cost of the cheapest path, or -1 if there is no such path. */
+	public double getCheapestPath(T begin, T end, StackInterface<T> path) {
+		int beginIndex = getIndex(begin);
+		int endIndex = getIndex(end);
+		if ((beginIndex < 0) || (endIndex < 0)) {
+			return -1;
+		}
+
+		PathResult<T> result = stackResults.get();
+		getCheapestPath(beginIndex, endIndex, null, result);
+		result.pushLabels(path);
+		return result.getCost();
+	}	// end getCheapestPath
+
+	/** Finds a path between two given vertices in this graph that has the fewest edges.
+	 * @param begin An object that labels the path's origin vertex.
+	 * @param end An object that labels the path's destination vertex.
+	 * @param path A stack of labels that is empty initially; at the completion of the method, this stack contains the labels of the vertices along
+	 * the shortest path; the label of the origin vertex is at the top, and the label of the destination vertex is at the bottom.
+	 * @return The number of edges on the shortest path, or -1 if there is no such path. */
+	public int getShortestPath(T begin, T end, StackInterface<T> path) {
+		int beginIndex = getIndex(begin);
+		int endIndex = getIndex(end);
+		if ((beginIndex < 0) || (endIndex < 0)) {
+			return -1;
+		}
+
+		PathResult<T> result = stackResults.get();
+		int edgeCount = getShortestPath(beginIndex, endIndex, result);
+		result.pushLabels(path);
+		return edgeCount;
+	}	// end getShortestPath
+
+	/** Finds a path with the fewest edges between two vertices given by index.
+	 * @param result Receives the path, or is cleared if there is none.
+	 * @return The number of edges on the path, or -1 if there is no such path. */
+	int getShortestPath(int begin, int end, PathResult<T> result) {
+		BreadthFirstSearch search = breadthFirstSearches.get();
+		int edgeCount = search.search(begin, end);
+		if (edgeCount < 0) {
+			result.clear();
+			return -1;
+		}
+
+		int[] route = result.reserve(this, edgeCount + 1);
+		int position = edgeCount;
+		for (int vertex = end; vertex >= 0; vertex = search.getParent(vertex)) {
+			route[position--] = vertex;
+		}
+		result.finish();
+
+		return edgeCount;
+	}	// end getShortestPath
+
+	/** Lists the vertices reachable from a given vertex in breadth-first order.
+	 * @param origin The index of the origin vertex.
+	 * @return A queue of labels of the vertices in the traversal, with the label of the origin vertex at the queue's front. */
+	QueueInterface<T> getBreadthFirstTraversal(int origin) {
+		ArrayQueue<T> traversalOrder = new ArrayQueue<>();
+		SearchContext context = contexts.get();	// Its reached stamps serve as visited marks
+		context.reset();
+		int[] vertexQueue = new int[labels.length];	// Each vertex is added at most once, so the array never wraps
+		int front = 0;
+		int back = 0;
+
+		context.reach(origin, 0.0, -1);
+		vertexQueue[back++] = origin;
+		while (front < back) {
+			int frontVertex = vertexQueue[front++];
+			traversalOrder.enqueue(labels[frontVertex]);
+			for (int edge = offsets[frontVertex]; edge < offsets[frontVertex + 1]; edge++) {
+				int nextNeighbor = targets[edge];
+				if (!context.isReached(nextNeighbor)) {
+					context.reach(nextNeighbor, 0.0, frontVertex);
+					vertexQueue[back++] = nextNeighbor;
+				}
+			}
+		}	// end while
+
+		return traversalOrder;
+	}	// end getBreadthFirstTraversal
+
+	/** Lists the vertices reachable from a given vertex in depth-first order. The traversal keeps
+	 * an explicit stack of vertices and the next edge to try from each, so it never recurses.
+	 * @param origin The index of the origin vertex.
+	 * @return A queue of labels of the vertices in the traversal, with the label of the origin vertex at the queue's front. */
+	QueueInterface<T> getDepthFirstTraversal(int origin) {
+		ArrayQueue<T> traversalOrder = new ArrayQueue<>();
+		SearchContext context = contexts.get();	// Its reached stamps serve as visited marks
+		context.reset();
+		int[] vertexStack = new int[labels.length];	// Each vertex is pushed at most once
+		int[] nextEdge = new int[labels.length];	// Next edge to try from each vertex on the stack
+		int top = -1;
+
+		context.reach(origin, 0.0, -1);
+		traversalOrder.enqueue(labels[origin]);
+		vertexStack[++top] = origin;
+		nextEdge[top] = offsets[origin];
+		while (top >= 0) {
+			int topVertex = vertexStack[top];
+			int edge = nextEdge[top];
+			while ((edge < offsets[topVertex + 1]) && context.isReached(targets[edge])) {
+				edge++;
+			}
+
+			if (edge < offsets[topVertex + 1]) {
+				nextEdge[top] = edge + 1;
+				int nextNeighbor = targets[edge];
+				context.reach(nextNeighbor, 0.0, topVertex);
+				traversalOrder.enqueue(labels[nextNeighbor]);
+				vertexStack[++top] = nextNeighbor;
+				nextEdge[top] = offsets[nextNeighbor];
+			} else {
+				top--;	// Every neighbor has been visited
+			}
+		}	// end while
+
+		return traversalOrder;
+	}	// end getDepthFirstTraversal
+
+	/** Sees whether every edge weight is a whole number that is not negative, such as a number of miles,
+	 * so searches can use a monotone integer priority queue.
+	 * @return True if the weights are integral.
+	 */
+	public boolean hasIntegralWeights() {
+		return integral;
+	}
+
+	/** Chooses the priority queue for searches when none is given. With whole-number weights, priorities
+	 * never go down during a search, so a queue that makes no comparisons can be used: a bucket queue when
+	 * the weights are small and no great-circle estimates, which are fractions, will be added to them, and
+	 * otherwise a radix heap. Other weights use a 4-ary heap.
+	 * @return A factory for the queues of this graph's search contexts. */
+	private IntFunction<? extends VertexPriorityQueue> chooseQueue() {
+		if (!integral) {
+			return IndexedMinHeap::new;
+		} else if (!located && (maxWeight < BucketQueue.MAX_WINDOW)) {
+			int window = (int) maxWeight;
+			return vertexCount -> new BucketQueue(vertexCount, window);
+		} else {
+			return RadixHeap::new;
+		}
+	}	// end chooseQueue
+
+	/** Sees whether every vertex in this graph has a geographic location.
+	 * @return True if goal-directed searches can use great-circle distances.
+	 */
+	public boolean hasLocations() {
+		return located;
+	}
+
+	/** Finds the least-cost path between two given vertices with an A* search that is steered toward
+	 * the destination by the great-circle distance between vertex locations. Edge weights are taken
+	 * to be miles. If some vertex has no location, this is the same as getCheapestPath.
+	 * @param begin An object that labels the path's origin vertex.
+	 * @param end An object that labels the path's destination vertex.
+	 * @param path A stack of labels that is empty initially; at the completion of the method, this stack contains the labels of the vertices along
+	 * the cheapest path; the label of the origin vertex is at the top, and the label of the destination vertex is at the bottom.
+	 * @return The cost of the cheapest path, or -1 if there is no such path. */
+	public double getCheapestPathAStar(T begin, T end, StackInterface<T> path) {
+		int beginIndex = getIndex(begin);
+		int endIndex = getIndex(end);
+		if ((beginIndex < 0) || (endIndex < 0)) {
+			return -1;
+		}
+
+		PathResult<T> result = stackResults.get();
+		getCheapestPath(beginIndex, endIndex, getGreatCircleEstimator(), result);
+		result.pushLabels(path);
+		return result.getCost();
+	}	// end getCheapestPathAStar
+
+	/** Finds the least-cost path between two vertices given by index with an A* search.
+	 * @param estimator The lower bound that steers the search, or null for Dijkstra's algorithm.
+	 * @param result Receives the path, or is cleared if there is none.
+	 * @return The cost of the cheapest path, or -1 if there is no such path. */
+	double getCheapestPath(int begin, int end, DistanceEstimator estimator, PathResult<T> result) {
+		SearchContext context = (estimator != null) ? estimatedContexts.get() : contexts.get();	// An estimate can add more than an edge's weight
+		search(begin, end, estimator, context);
+		if (!context.isSettled(end)) {
+			result.clear();
+			return -1;
+		}
+
+		setPath(end, context, result);
+		result.finish(context.getCost(end));
+		return context.getCost(end);
+	}	// end getCheapestPath
+
+	/** Finds the least-cost paths from one vertex to several others with a single Dijkstra search
+	 * that stops as soon as every destination is settled.
+	 * @param begin An object that labels the paths' origin vertex.
+	 * @param ends A list of labels of the destination vertices.
+	 * @return The cost of and the predecessor on the cheapest path to each destination. */
+	public OneToManyResult<T> getCheapestPaths(T begin, List<T> ends) {
+		int[] endIndices = new int[ends.size()];
+		for (int index = 0; index < endIndices.length; index++) {
+			endIndices[index] = getIndex(ends.get(index));
+		}
+
+		return getCheapestPaths(getIndex(begin), endIndices, ends);
+	}	// end getCheapestPaths
+
+	/** Finds the least-cost paths from one vertex to several others given by index.
+	 * @param begin The index of the origin vertex, or -1 if it is not in this graph.
+	 * @param ends The indices of the destination vertices; -1 stands for one not in this graph.
+	 * @param destinations The labels of the destinations, in the same order as their indices.
+	 * @return The cost of and the predecessor on the cheapest path to each destination. */
+	OneToManyResult<T> getCheapestPaths(int begin, int[] ends, List<T> destinations) {
+		double[] costs = new double[ends.length];
+		int[] pathOffsets = new int[ends.length + 1];	// Destination i's path is at pathOffsets[i] to pathOffsets[i + 1] - 1
+		Arrays.fill(costs, -1);
+
+		SearchContext context = null;
+		if (begin >= 0) {
+			context = contexts.get();
+			search(begin, ends, context);
+			for (int index = 0; index < ends.length; index++) {	// Measure each path found, walking only its own vertices
+				int length = 0;
+				if ((ends[index] >= 0) && context.isSettled(ends[index])) {
+					costs[index] = context.getCost(ends[index]);
+					for (int vertex = ends[index]; vertex >= 0; vertex = context.getPredecessor(vertex)) {
+						length++;
+					}
+				}
+				pathOffsets[index + 1] = pathOffsets[index] + length;
+			}	// end for
+		}	// end if
+
+		int[] pathVertices = new int[pathOffsets[ends.length]];
+		for (int index = 0; index < ends.length; index++) {	// Fill each path from its destination back to the origin
+			int position = pathOffsets[index + 1];
+			if (position > pathOffsets[index]) {
+				for (int vertex = ends[index]; vertex >= 0; vertex = context.getPredecessor(vertex)) {
+					pathVertices[--position] = vertex;
+				}
+			}
+		}
+
+		return new OneToManyResult<>(this, destinations, costs, pathOffsets, pathVertices);
+	}	// end getCheapestPaths
+
+	/** Gets the great-circle estimator for this graph, creating it on first use.
+	 * @return The estimator, or null if some vertex has no location. */
+	DistanceEstimator getGreatCircleEstimator() {
+		DistanceEstimator result = greatCircle;
+		if ((result == null) && located) {
+			result = new GreatCircleEstimator(latitudes, longitudes, offsets, targets, weights);
+			greatCircle = result;	// Racing threads build equal estimators, so either may win
+		}
+
+		return result;
+	}	// end getGreatCircleEstimator
+
+	/** Finds the least-cost path between two given vertices by searching forward from the origin
+	 * and backward from the destination at the same time. The searches stop once the smallest
+	 * costs left in their queues add up to at least the cheapest path found where they meet.
+	 * @param begin An object that labels the path's origin vertex.
+	 * @param end An object that labels the path's destination vertex.
+	 * @param path A stack of labels that is empty initially; at the completion of the method, this stack contains the labels of the vertices along
+	 * the cheapest path; the label of the origin vertex is at the top, and the label of the destination vertex is at the bottom.
+	 * @return The cost of the cheapest path, or -1 if there is no such path. */
+	public double getCheapestPathBidirectional(T begin, T end, StackInterface<T> path) {
+		int beginIndex = getIndex(begin);
+		int endIndex = getIndex(end);
+		if ((beginIndex < 0) || (endIndex < 0)) {
+			return -1;
+		}
+
+		PathResult<T> result = stackResults.get();
+		getCheapestPathBidirectional(beginIndex, endIndex, result);
+		result.pushLabels(path);
+		return result.getCost();
+	}	// end getCheapestPathBidirectional
+
+	/** Finds the least-cost path between two vertices given by index with a bidirectional search.
+	 * @param result Receives the path, or is cleared if there is none.
+	 * @return The cost of the cheapest path, or -1 if there is no such path. */
+	double getCheapestPathBidirectional(int begin, int end, PathResult<T> result) {
+		SearchContext forward = contexts.get();
+		SearchContext backward = backwardContexts.get();
+		forward.reset();
+		backward.reset();
+		VertexPriorityQueue forwardQueue = forward.getQueue();
+		VertexPriorityQueue backwardQueue = backward.getQueue();
+
+		forward.reach(begin, 0.0, -1);
+		forwardQueue.add(begin, 0.0);
+		backward.reach(end, 0.0, -1);
+		backwardQueue.add(end, 0.0);
+
+		double bestCost = (begin == end) ? 0.0 : Double.POSITIVE_INFINITY;
+		int meetingVertex = (begin == end) ? begin : -1;
+
+		while (!forwardQueue.isEmpty() && !backwardQueue.isEmpty()) {
+			double forwardMin = forwardQueue.getPriority(forwardQueue.getMin());
+			double backwardMin = backwardQueue.getPriority(backwardQueue.getMin());
+			if (forwardMin + backwardMin >= bestCost) {
+				break;	// No path through an unsettled vertex can be cheaper
+			}
+
+			int meeting;
+			if (forwardQueue.getSize() <= backwardQueue.getSize()) {
+				meeting = expand(forward, backward, offsets, targets, weights);
+			} else {
+				meeting = expand(backward, forward, reverseOffsets, sources, reverseWeights);
+			}
+
+			if (meeting >= 0) {
+				double meetingCost = forward.getCost(meeting) + backward.getCost(meeting);
+				if (meetingCost < bestCost) {
+					bestCost = meetingCost;
+					meetingVertex = meeting;
+				}
+			}
+		}	// end while
+
+		if (meetingVertex < 0) {
+			result.clear();
+			return -1;
+		}
+
+		// The forward predecessors lead back to the origin, and the backward ones on to the destination
+		int headCount = 0;
+		for (int vertex = meetingVertex; vertex >= 0; vertex = forward.getPredecessor(vertex)) {
+			headCount++;
+		}
+		int tailCount = 0;
+		for (int vertex = backward.getPredecessor(meetingVertex); vertex >= 0; vertex = backward.getPredecessor(vertex)) {
+			tailCount++;
+		}
+		int[] route = result.reserve(this, headCount + tailCount);
+		int position = headCount - 1;
+		for (int vertex = meetingVertex; vertex >= 0; vertex = forward.getPredecessor(vertex)) {
+			route[position--] = vertex;
+		}
+		position = headCount;
+		for (int vertex = backward.getPredecessor(meetingVertex); vertex >= 0; vertex = backward.getPredecessor(vertex)) {
+			route[position++] = vertex;
+		}
+		result.finish(bestCost);
+
+		return bestCost;
+	}	// end getCheapestPathBidirectional
+
+	/** Settles the front vertex of one side of a bidirectional search and relaxes its edges.
+	 * @return The vertex reached by both sides whose combined cost is smallest after this step, or -1 if none. */
+	static int expand(SearchContext side, SearchContext otherSide, int[] edgeOffsets, int[] edgeEnds, double[] edgeWeights) {
+		VertexPriorityQueue vertexQueue = side.getQueue();
+		int frontVertex = vertexQueue.removeMin();
+		side.settle(frontVertex);
+
+		int meeting = -1;
+		double meetingCost = Double.POSITIVE_INFINITY;
+		if (otherSide.isReached(frontVertex)) {
+			meeting = frontVertex;
+			meetingCost = side.getCost(frontVertex) + otherSide.getCost(frontVertex);
+		}
+
+		double frontCost = side.getCost(frontVertex);
+		for (int edge = edgeOffsets[frontVertex]; edge < edgeOffsets[frontVertex + 1]; edge++) {
+			int nextNeighbor = edgeEnds[edge];
+			double nextCost = frontCost + edgeWeights[edge];
+
+			if (!side.isReached(nextNeighbor)) {
+				side.reach(nextNeighbor, nextCost, frontVertex);
+				vertexQueue.add(nextNeighbor, nextCost);
+			} else if (!side.isSettled(nextNeighbor) && (nextCost < side.getCost(nextNeighbor))) {
+				side.reach(nextNeighbor, nextCost, frontVertex);
+				vertexQueue.decreaseKey(nextNeighbor, nextCost);
+			}
+
+			if (otherSide.isReached(nextNeighbor)) {
+				double throughCost = side.getCost(nextNeighbor) + otherSide.getCost(nextNeighbor);
+				if (throughCost < meetingCost) {
+					meeting = nextNeighbor;
+					meetingCost = throughCost;
+				}
+			}
+		}	// end for
+
+		return meeting;
+	}	// end expand
+
+	/** Runs Dijkstra's algorithm from a given vertex until a target vertex is settled
+	 * or every reachable vertex is settled.
+	 * @param begin The index of the origin vertex.
+	 * @param end The index of the vertex at which to stop, or -1 to settle every reachable vertex.
+	 * @param context The search state to fill in. */
+	void search(int begin, int end, SearchContext context) {
+		search(begin, end, null, context);
+	}
+
+	/** Runs an A* search from a given vertex, ordering the queue by path cost plus the estimated
+	 * cost to the target. With no estimator this is Dijkstra's algorithm.
+	 * @param begin The index of the origin vertex.
+	 * @param end The index of the vertex at which to stop, or -1 to settle every reachable vertex.
+	 * @param estimator A consistent lower bound on the cost to end, or null.
+	 * @param context The search state to fill in. */
+	void search(int begin, int end, DistanceEstimator estimator, SearchContext context) {
+		context.reset();
+		search(begin, end, 0, estimator, null, context, offsets, targets, weights);
+	}
+
+	/** Runs Dijkstra's algorithm from a given vertex until a target vertex is settled, without
+	 * entering the vertices or following the edges that a mask excludes.
+	 * @param begin The index of the origin vertex.
+	 * @param end The index of the vertex at which to stop, or -1 to settle every reachable vertex.
+	 * @param mask The vertices and edges to leave out of the search.
+	 * @param context The search state to fill in. */
+	void searchExcluding(int begin, int end, SearchMask mask, SearchContext context) {
+		context.reset();
+		search(begin, end, 0, null, mask, context, offsets, targets, weights);
+	}
+
+	/** Runs Dijkstra's algorithm from a given vertex until every one of several target vertices
+	 * is settled or every reachable vertex is settled.
+	 * @param begin The index of the origin vertex.
+	 * @param ends The indices of the target vertices; negative entries are ignored.
+	 * @param context The search state to fill in; the targets are left marked. */
+	void search(int begin, int[] ends, SearchContext context) {
+		context.reset();
+		int targetCount = 0;
+		for (int end : ends) {
+			if ((end >= 0) && !context.isMarked(end)) {
+				context.mark(end);
+				targetCount++;
+			}
+		}
+
+		if (targetCount > 0) {
+			search(begin, -1, targetCount, null, null, context, offsets, targets, weights);
+		}
+	}	// end search
+
+	/** Runs Dijkstra's algorithm backward along the edges into a given vertex, so that the cost
+	 * recorded for each settled vertex is the cost of its cheapest path to that vertex.
+	 * @param end The index of the vertex the paths lead to.
+	 * @param context The search state to fill in; predecessors point toward end. */
+	void searchBackward(int end, SearchContext context) {
+		context.reset();
+		search(end, -1, 0, null, null, context, reverseOffsets, sources, reverseWeights);
+	}
+
+	/** Runs Dijkstra's algorithm over given edge arrays, settling every vertex reachable from a given vertex.
+	 * @param begin The index of the origin vertex.
+	 * @param context The search state to fill in.
+	 * @param edgeOffsets The start of each vertex's edges in the other two arrays.
+	 * @param edgeEnds The index of the vertex at the end of each edge.
+	 * @param edgeWeights The weight of each edge. */
+	static void searchAll(int begin, SearchContext context, int[] edgeOffsets, int[] edgeEnds, double[] edgeWeights) {
+		context.reset();
+		search(begin, -1, 0, null, null, context, edgeOffsets, edgeEnds, edgeWeights);
+	}
+
+	/** Searches from a given vertex with a context that has just been reset, stopping once end is
+	 * settled or once markedCount marked vertices are settled. A mask, if given, is indexed by
+	 * positions in the edge arrays passed in. */
+	private static void search(int begin, int end, int markedCount, DistanceEstimator estimator, SearchMask mask, SearchContext context,
+			int[] edgeOffsets, int[] edgeEnds, double[] edgeWeights) {
+		VertexPriorityQueue vertexQueue = context.getQueue();
+		boolean directed = (estimator != null) && (end >= 0);
+
+		context.reach(begin, 0.0, -1);
+		vertexQueue.add(begin, directed ? estimator.estimate(begin, end) : 0.0);
+		while (!vertexQueue.isEmpty()) {
+			int frontVertex = vertexQueue.removeMin();
+			context.settle(frontVertex);
+			if (frontVertex == end) {
+				break;
+			}
+			if (context.isMarked(frontVertex) && (--markedCount == 0)) {
+				break;	// Every marked target is settled
+			}
+
+			double frontCost = context.getCost(frontVertex);
+			for (int edge = edgeOffsets[frontVertex]; edge < edgeOffsets[frontVertex + 1]; edge++) {
+				int nextNeighbor = edgeEnds[edge];
+				if ((mask != null) && (mask.isEdgeExcluded(edge) || mask.isVertexExcluded(nextNeighbor))) {
+					continue;
+				}
+				double nextCost = frontCost + edgeWeights[edge];
+
+				if (!context.isReached(nextNeighbor)) {
+					context.reach(nextNeighbor, nextCost, frontVertex);
+					vertexQueue.add(nextNeighbor, directed ? nextCost + estimator.estimate(nextNeighbor, end) : nextCost);
+				} else if (!context.isSettled(nextNeighbor) && (nextCost < context.getCost(nextNeighbor))) {
+					context.reach(nextNeighbor, nextCost, frontVertex);
+					vertexQueue.decreaseKey(nextNeighbor, directed ? nextCost + estimator.estimate(nextNeighbor, end) : nextCost);
+				}
+			}	// end for
+		}	// end while
+	}	// end search
+
+	/** Gets the position of a vertex's first outgoing edge; its edges end where the next vertex's begin.
+	 * @param vertex The index of a vertex, or the number of vertices for the end of the last vertex's edges.
+	 * @return The position of the edge in the edge arrays. */
+	int getEdgeOffset(int vertex) {
+		return offsets[vertex];
+	}
+
+	int getEdgeTarget(int edge) {
+		return targets[edge];
+	}
+
+	double getEdgeWeight(int edge) {
+		return weights[edge];
+	}
+
+	/** Gets the weight of the cheapest edge from one vertex to another.
+	 * @param from The index of the edge's origin vertex.
+	 * @param to The index of the edge's end vertex.
+	 * @return The smallest weight of such an edge, or positive infinity if there is none. */
+	double getCheapestEdgeWeight(int from, int to) {
+		double result = Double.POSITIVE_INFINITY;
+		for (int edge = offsets[from]; edge < offsets[from + 1]; edge++) {
+			if ((targets[edge] == to) && (weights[edge] < result)) {
+				result = weights[edge];
+			}
+		}
+
+		return result;
+	}	// end getCheapestEdgeWeight
+
+	/** Gets the search state belonging to the calling thread.
+	 * @return A context sized for this graph that no other thread uses. */
+	SearchContext getContext() {
+		return contexts.get();
+	}
+
+	/** Creates search state for this graph, with a priority queue of the kind the graph was made with.
+	 * @return A new context sized for this graph. */
+	SearchContext newContext() {
+		int vertexCount = labels.length;
+		return new SearchContext(vertexCount, queueFactory.apply(vertexCount));
+	}
+
+	/** Creates search state whose priority queue allows any step from one priority to the next, for
+	 * searches that may add more than this graph's largest edge weight at once, such as searches over
+	 * shortcuts or searches steered by landmark bounds. A bucket queue's window is only as wide as the
+	 * largest edge weight, so where this graph chose its queue itself, such contexts get a radix heap;
+	 * a queue chosen with setVertexQueue is kept.
+	 * @return A new context sized for this graph. */
+	SearchContext newUnboundedContext() {
+		int vertexCount = labels.length;
+		return new SearchContext(vertexCount, unboundedQueueFactory.apply(vertexCount));
+	}
+
+	/** Gets the search mask belonging to the calling thread, with nothing excluded.
+	 * @return A mask sized for this graph that no other thread uses. */
+	SearchMask getMask() {
+		SearchMask result = masks.get();
+		result.clear();
+		return result;
+	}
+
+	/** Computes a number that changes whenever the labels, edges or weights of a graph differ,
+	 * so that saved preprocessing results can be checked against the graph they are loaded into.
+	 * @return A 64-bit summary of this graph's structure. */
+	public long getFingerprint() {
+		long result = labels.length;
+		for (int index = 0; index < labels.length; index++) {
+			result = 31 * result + labels[index].hashCode();
+			result = 31 * result + offsets[index + 1];
+		}
+		for (int edge = 0; edge < targets.length; edge++) {
+			result = 31 * result + targets[edge];
+			result = 31 * result + Double.doubleToLongBits(weights[edge]);
+		}
+
+		return result;
+	}	// end getFingerprint
+
+	/** Copies the path recorded in a search, from the origin to a given vertex, into a result whose
+	 * cost is still to be set with finish.
+	 * @param end The index of the last vertex on the path.
+	 * @param context The search state holding the predecessors.
+	 * @param result Receives the vertex indices along the path. */
+	void setPath(int end, SearchContext context, PathResult<T> result) {
+		int count = 0;
+		for (int vertex = end; vertex >= 0; vertex = context.getPredecessor(vertex)) {
+			count++;
+		}
+		int[] route = result.reserve(this, count);
+		for (int vertex = end; vertex >= 0; vertex = context.getPredecessor(vertex)) {
+			route[--count] = vertex;
+		}
+	}	// end setPath
+
+}	// end CompressedGraph
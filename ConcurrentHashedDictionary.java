@@ -0,0 +1,140 @@
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+
+/** A dictionary that many threads may use at once. It is backed by a ConcurrentHashMap, whose
+ * reads take no lock, whose writes lock only the one bin they change (or insert into an empty bin
+ * with a compare-and-swap), and whose table is resized by all writing threads together, moving a
+ * range of bins each. Readers never block, and a reader that meets a bin already moved to the new
+ * table is sent there, so it never sees a half-rehashed table.
+ * Iterators are weakly consistent: they never fail, and they reflect the dictionary at some point
+ * during the iteration.
+ * @param <K> The type of the keys
+ * @param <V> The type of the values
+ */
+public class ConcurrentHashedDictionary<K,V> implements DictionaryInterface<K,V> {
+
+	private static final int DEFAULT_CAPACITY = 444;
+
+	private final ConcurrentHashMap<K,V> map;
+
+	public ConcurrentHashedDictionary() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/** Creates an empty dictionary.
+	 * @param initialCapacity The number of entries the dictionary can hold before it first grows.
+	 */
+	public ConcurrentHashedDictionary(int initialCapacity) {
+		map = new ConcurrentHashMap<>(initialCapacity);
+	}
+
+	/**
+	 * Adds a new entry to this dictionary. If the given key already exists,
+	 * replaces the corresponding value and returns the original value.
+	 *
+	 * @param key   The key of the entry to be added.
+	 * @param value The value associated with the key.
+	 * @return The value that was associated with the key before the new value
+	 *         was added, or null if the key was not in the dictionary.
+	 */
+	@Override
+	public V add(K key, V value) {
+		if ((key == null) || (value == null)) {
+			throw new IllegalArgumentException("'key' or 'value' is null. Not allowed!'");
+		}
+
+		return map.put(key, value);
+	}
+
+	/**
+	 * Removes a specific entry from this dictionary.
+	 *
+	 * @param key The key of the entry to be removed.
+	 * @return The value that was associated with the key,
+	 *         or null if the key was not in the dictionary.
+	 */
+	@Override
+	public V remove(K key) {
+		if (key == null) {
+			throw new IllegalArgumentException("Cannot remove null key");
+		}
+
+		return map.remove(key);
+	}
+
+	/**
+	 * Retrieves the value associated with a given key.
+	 *
+	 * @param key The key to search for.
+	 * @return The value associated with the key,
+	 *         or null if the key is not in the dictionary.
+	 */
+	@Override
+	public V getValue(K key) {
+		if (key == null) {
+			throw new IllegalArgumentException("Cannot get value for null key");
+		}
+
+		return map.get(key);
+	}
+
+	/**
+	 * Determines whether a given key is in this dictionary.
+	 *
+	 * @param key The key to search for.
+	 * @return True if the key is in the dictionary, false otherwise.
+	 */
+	@Override
+	public boolean contains(K key) {
+		return getValue(key) != null;
+	}
+
+	/**
+	 * Creates an iterator that traverses all keys in this dictionary.
+	 *
+	 * @return An iterator that provides sequential access to the keys in the dictionary.
+	 */
+	@Override
+	public Iterator<K> getKeyIterator() {
+		return map.keySet().iterator();
+	}
+
+	/**
+	 * Creates an iterator that traverses all values in this dictionary.
+	 *
+	 * @return An iterator that provides sequential access to the values in the dictionary.
+	 */
+	@Override
+	public Iterator<V> getValueIterator() {
+		return map.values().iterator();
+	}
+
+	/**
+	 * Determines whether this dictionary is empty.
+	 *
+	 * @return True if the dictionary is empty, false otherwise.
+	 */
+	@Override
+	public boolean isEmpty() {
+		return map.isEmpty();
+	}
+
+	/**
+	 * Gets the number of entries in this dictionary.
+	 *
+	 * @return The number of entries in the dictionary.
+	 */
+	@Override
+	public int getSize() {
+		return map.size();
+	}
+
+	/**
+	 * Removes all entries from this dictionary.
+	 */
+	@Override
+	public void clear() {
+		map.clear();
+	}
+
+}	// end ConcurrentHashedDictionary
@@ -0,0 +1,605 @@
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/** A contraction hierarchy over a CompressedGraph. Preprocessing ranks the vertices by importance
+ * and removes them from least to most important, adding a shortcut edge wherever removing a vertex
+ * would lengthen a cheapest path. A query then searches upward in rank from both ends and meets at
+ * the most important vertex on the path, settling only a few vertices even on large graphs.
+ * Shortcuts remember the vertex they bypass, so a path can be unpacked into the original edges.
+ * @param <T> The type of the vertex labels
+ */
+final class ContractionHierarchy<T> {
+
+	private final CompressedGraph<T> graph;	// The graph this hierarchy was built for
+	private final int[] upOffsets;	// Edges to higher-ranked vertices, grouped by start vertex
+	private final int[] upTargets;
+	private final double[] upWeights;
+	private final int[] upMiddles;	// Vertex bypassed by each shortcut, or -1 for an original edge
+	private final int[] downOffsets;	// Edges from higher-ranked vertices, grouped by end vertex
+	private final int[] downSources;
+	private final double[] downWeights;
+	private final int[] downMiddles;
+	private final ThreadLocal<SearchContext> forwardContexts;
+	private final ThreadLocal<SearchContext> backwardContexts;
+
+	private ContractionHierarchy(CompressedGraph<T> graph, int[] upOffsets, int[] upTargets, double[] upWeights, int[] upMiddles,
+			int[] downOffsets, int[] downSources, double[] downWeights, int[] downMiddles) {
+		this.graph = graph;
+		this.upOffsets = upOffsets;
+		this.upTargets = upTargets;
+		this.upWeights = upWeights;
+		this.upMiddles = upMiddles;
+		this.downOffsets = downOffsets;
+		this.downSources = downSources;
+		this.downWeights = downWeights;
+		this.downMiddles = downMiddles;
+
+		forwardContexts = ThreadLocal.withInitial(graph::newUnboundedContext);
+		backwardContexts = ThreadLocal.withInitial(graph::newUnboundedContext);
+	}	// end constructor
+
+	/** Contracts every vertex of a graph and builds the upward and downward search graphs.
+	 * Vertices are contracted in rounds; each round takes the vertices whose importance is lower than
+	 * that of all their remaining neighbors, and since no two of them are adjacent their shortcuts are
+	 * found in parallel.
+	 * @param graph The graph to preprocess.
+	 * @return A hierarchy for the graph. */
+	static <T> ContractionHierarchy<T> create(CompressedGraph<T> graph) {
+		Contractor contractor = new Contractor(graph);
+		int[] rank = contractor.contractAll();
+		int vertexCount = graph.getNumberOfVertices();
+
+		// Every edge, original or shortcut, goes either up or down in rank
+		int[] upOffsets = new int[vertexCount + 1];
+		int[] downOffsets = new int[vertexCount + 1];
+		for (int from = 0; from < vertexCount; from++) {
+			for (int slot = 0; slot < contractor.outDegree[from]; slot++) {
+				int to = contractor.outTargets[from][slot];
+				if (rank[to] > rank[from]) {
+					upOffsets[from + 1]++;
+				} else {
+					downOffsets[to + 1]++;
+				}
+			}
+		}	// end for
+		for (int vertex = 0; vertex < vertexCount; vertex++) {
+			upOffsets[vertex + 1] += upOffsets[vertex];
+			downOffsets[vertex + 1] += downOffsets[vertex];
+		}
+
+		int[] upTargets = new int[upOffsets[vertexCount]];
+		double[] upWeights = new double[upTargets.length];
+		int[] upMiddles = new int[upTargets.length];
+		int[] downSources = new int[downOffsets[vertexCount]];
+		double[] downWeights = new double[downSources.length];
+		int[] downMiddles = new int[downSources.length];
+		int[] nextUp = Arrays.copyOf(upOffsets, vertexCount);
+		int[] nextDown = Arrays.copyOf(downOffsets, vertexCount);
+		for (int from = 0; from < vertexCount; from++) {
+			for (int slot = 0; slot < contractor.outDegree[from]; slot++) {
+				int to = contractor.outTargets[from][slot];
+				if (rank[to] > rank[from]) {
+					int edge = nextUp[from]++;
+					upTargets[edge] = to;
+					upWeights[edge] = contractor.outWeights[from][slot];
+					upMiddles[edge] = contractor.outMiddles[from][slot];
+				} else {
+					int edge = nextDown[to]++;
+					downSources[edge] = from;
+					downWeights[edge] = contractor.outWeights[from][slot];
+					downMiddles[edge] = contractor.outMiddles[from][slot];
+				}
+			}
+		}	// end for
+
+		return new ContractionHierarchy<>(graph, upOffsets, upTargets, upWeights, upMiddles,
+			downOffsets, downSources, downWeights, downMiddles);
+	}	// end create
+
+	/** Sees whether this hierarchy was built for a given snapshot.
+	 * @param snapshot A compressed graph.
+	 * @return True if the hierarchy belongs to that snapshot. */
+	boolean belongsTo(CompressedGraph<?> snapshot) {
+		return graph == snapshot;
+	}
+
+	/** Finds the least-cost path between two vertices given by index.
+	 * @param begin The index of the path's origin vertex.
+	 * @param end The index of the path's destination vertex.
+	 * @param result Receives the cheapest path, or is cleared if there is none.
+	 * @return The cost of the cheapest path, or -1 if there is no such path. */
+	double getCheapestPath(int begin, int end, PathResult<T> result) {
+		SearchContext forward = forwardContexts.get();
+		SearchContext backward = backwardContexts.get();
+		forward.reset();
+		backward.reset();
+		VertexPriorityQueue forwardQueue = forward.getQueue();
+		VertexPriorityQueue backwardQueue = backward.getQueue();
+
+		forward.reach(begin, 0.0, -1);
+		forwardQueue.add(begin, 0.0);
+		backward.reach(end, 0.0, -1);
+		backwardQueue.add(end, 0.0);
+
+		double bestCost = (begin == end) ? 0.0 : Double.POSITIVE_INFINITY;
+		int meetingVertex = (begin == end) ? begin : -1;
+
+		// Each side stops on its own once its smallest queued cost reaches the best meeting cost
+		while (true) {
+			boolean forwardDone = forwardQueue.isEmpty() || (forwardQueue.getPriority(forwardQueue.getMin()) >= bestCost);
+			boolean backwardDone = backwardQueue.isEmpty() || (backwardQueue.getPriority(backwardQueue.getMin()) >= bestCost);
+			if (forwardDone && backwardDone) {
+				break;
+			}
+
+			int meeting;
+			if (!forwardDone && (backwardDone || (forwardQueue.getSize() <= backwardQueue.getSize()))) {
+				meeting = CompressedGraph.expand(forward, backward, upOffsets, upTargets, upWeights);
+			} else {
+				meeting = CompressedGraph.expand(backward, forward, downOffsets, downSources, downWeights);
+			}
+
+			if (meeting >= 0) {
+				double meetingCost = forward.getCost(meeting) + backward.getCost(meeting);
+				if (meetingCost < bestCost) {
+					bestCost = meetingCost;
+					meetingVertex = meeting;
+				}
+			}
+		}	// end while
+
+		if (meetingVertex < 0) {
+			result.clear();
+			return -1;
+		}
+
+		// Collect the route through the hierarchy, then replace each shortcut by the edges it bypasses
+		int forwardHops = 0;
+		for (int vertex = meetingVertex; forward.getPredecessor(vertex) >= 0; vertex = forward.getPredecessor(vertex)) {
+			forwardHops++;
+		}
+		int backwardHops = 0;
+		for (int vertex = meetingVertex; backward.getPredecessor(vertex) >= 0; vertex = backward.getPredecessor(vertex)) {
+			backwardHops++;
+		}
+
+		int[] hierarchyPath = forward.getPathBuffer(forwardHops + backwardHops + 1);	// Reused from query to query
+		int position = forwardHops;
+		for (int vertex = meetingVertex; vertex >= 0; vertex = forward.getPredecessor(vertex)) {
+			hierarchyPath[position--] = vertex;
+		}
+		position = forwardHops;
+		for (int vertex = meetingVertex; vertex >= 0; vertex = backward.getPredecessor(vertex)) {
+			hierarchyPath[position++] = vertex;
+		}
+
+		unpack(hierarchyPath, forwardHops + backwardHops + 1, backward, result);
+		result.finish(bestCost);
+		return bestCost;
+	}	// end getCheapestPath
+
+	/** Finds the cost of the cheapest path from each of several origins to each of several destinations.
+	 * A backward upward search from every destination leaves its costs in buckets at the vertices it
+	 * settles; a forward upward search from every origin then joins its costs with the buckets of the
+	 * vertices it settles. Both kinds of search run in parallel.
+	 * @param begins The indices of the origin vertices; -1 stands for one not in the graph.
+	 * @param ends The indices of the destination vertices; -1 stands for one not in the graph.
+	 * @return A table whose entry [i][j] is the cost from origin i to destination j, or -1 if there is no path. */
+	double[][] getCostTable(int[] begins, int[] ends) {
+		int vertexCount = graph.getNumberOfVertices();
+		int[][] bucketVertices = new int[ends.length][];	// Vertices settled by each backward search
+		double[][] bucketCosts = new double[ends.length][];	// Their costs to that search's destination
+		IntStream.range(0, ends.length).parallel().forEach(column -> {
+			SearchContext backward = backwardContexts.get();	// Each worker thread has its own
+			int settledCount = 0;
+			if (ends[column] >= 0) {
+				CompressedGraph.searchAll(ends[column], backward, downOffsets, downSources, downWeights);
+				settledCount = backward.getSettledCount();
+			}
+
+			bucketVertices[column] = new int[settledCount];
+			bucketCosts[column] = new double[settledCount];
+			for (int position = 0; position < settledCount; position++) {
+				int vertex = backward.getSettledVertex(position);
+				bucketVertices[column][position] = vertex;
+				bucketCosts[column][position] = backward.getCost(vertex);
+			}
+		});
+
+		// Group the bucket entries by vertex with a counting sort
+		int[] bucketOffsets = new int[vertexCount + 1];
+		for (int[] vertices : bucketVertices) {
+			for (int vertex : vertices) {
+				bucketOffsets[vertex + 1]++;
+			}
+		}
+		for (int vertex = 0; vertex < vertexCount; vertex++) {
+			bucketOffsets[vertex + 1] += bucketOffsets[vertex];
+		}
+
+		int[] entryColumns = new int[bucketOffsets[vertexCount]];
+		double[] entryCosts = new double[bucketOffsets[vertexCount]];
+		int[] nextSlot = Arrays.copyOf(bucketOffsets, vertexCount);
+		for (int column = 0; column < ends.length; column++) {
+			for (int position = 0; position < bucketVertices[column].length; position++) {
+				int slot = nextSlot[bucketVertices[column][position]]++;
+				entryColumns[slot] = column;
+				entryCosts[slot] = bucketCosts[column][position];
+			}
+		}	// end for
+
+		double[][] table = new double[begins.length][ends.length];
+		IntStream.range(0, begins.length).parallel().forEach(row -> {
+			double[] costs = table[row];
+			Arrays.fill(costs, Double.POSITIVE_INFINITY);
+			if (begins[row] >= 0) {
+				SearchContext forward = forwardContexts.get();
+				CompressedGraph.searchAll(begins[row], forward, upOffsets, upTargets, upWeights);
+				for (int position = 0; position < forward.getSettledCount(); position++) {
+					int vertex = forward.getSettledVertex(position);
+					double forwardCost = forward.getCost(vertex);
+					for (int slot = bucketOffsets[vertex]; slot < bucketOffsets[vertex + 1]; slot++) {
+						double throughCost = forwardCost + entryCosts[slot];
+						if (throughCost < costs[entryColumns[slot]]) {
+							costs[entryColumns[slot]] = throughCost;
+						}
+					}
+				}	// end for
+			}	// end if
+
+			for (int column = 0; column < costs.length; column++) {
+				if (costs[column] == Double.POSITIVE_INFINITY) {
+					costs[column] = -1;
+				}
+			}
+		});
+
+		return table;
+	}	// end getCostTable
+
+	/** Expands a path through the hierarchy into the vertices along the original edges, writing them
+	 * straight into a result and using a search context's buffer for the edges still to expand, so
+	 * that nothing is allocated once the buffers are large enough. */
+	private void unpack(int[] hierarchyPath, int hierarchyLength, SearchContext scratch, PathResult<T> result) {
+		int[] route = result.reserve(graph, hierarchyLength);
+		int routeLength = 0;
+		route[routeLength++] = hierarchyPath[0];
+
+		int[] pending = scratch.getPathBuffer(16);	// Edges still to expand, as from/to pairs; the last pair is expanded next
+		for (int hop = 1; hop < hierarchyLength; hop++) {
+			int pendingCount = 0;
+			pending[pendingCount++] = hierarchyPath[hop - 1];
+			pending[pendingCount++] = hierarchyPath[hop];
+
+			while (pendingCount > 0) {
+				int to = pending[--pendingCount];
+				int from = pending[--pendingCount];
+				int middle = middleOf(from, to);
+
+				if (middle < 0) {
+					if (routeLength == route.length) {
+						route = result.reserve(graph, 2 * route.length);
+					}
+					route[routeLength++] = to;
+				} else {
+					if (pendingCount + 4 > pending.length) {
+						pending = scratch.getPathBuffer(2 * pending.length);
+					}
+					pending[pendingCount++] = middle;	// Second half, expanded after the first
+					pending[pendingCount++] = to;
+					pending[pendingCount++] = from;
+					pending[pendingCount++] = middle;
+				}
+			}	// end while
+		}	// end for
+
+		result.reserve(graph, routeLength);
+	}	// end unpack
+
+	/** Finds the vertex bypassed by the edge between two vertices.
+	 * @return The bypassed vertex, or -1 if the edge is an original edge. */
+	private int middleOf(int from, int to) {
+		for (int edge = upOffsets[from]; edge < upOffsets[from + 1]; edge++) {
+			if (upTargets[edge] == to) {
+				return upMiddles[edge];
+			}
+		}
+		for (int edge = downOffsets[to]; edge < downOffsets[to + 1]; edge++) {
+			if (downSources[edge] == from) {
+				return downMiddles[edge];
+			}
+		}
+
+		throw new IllegalStateException("Hierarchy has no edge from " + from + " to " + to + ".");
+	}	// end middleOf
+
+	/** The graph being contracted, held as growable edge lists in both directions. */
+	private static final class Contractor {
+		private static final int WITNESS_SETTLE_LIMIT = 500;	// Witness searches give up after this many vertices
+		private static final int ESTIMATE_SETTLE_LIMIT = 50;	// Smaller limit used when only estimating importance
+
+		private final int vertexCount;
+		private final int[][] outTargets;
+		private final double[][] outWeights;
+		private final int[][] outMiddles;
+		private final int[] outDegree;
+		private final int[][] inSources;
+		private final double[][] inWeights;
+		private final int[] inDegree;
+		private final boolean[] contracted;
+		private final int[] contractedNeighbors;	// Number of neighbors already contracted
+		private final int[] priority;	// Importance; less important vertices are contracted first
+		private final ThreadLocal<SearchContext> contexts;
+
+		private Contractor(CompressedGraph<?> graph) {
+			vertexCount = graph.getNumberOfVertices();
+			outTargets = new int[vertexCount][];
+			outWeights = new double[vertexCount][];
+			outMiddles = new int[vertexCount][];
+			outDegree = new int[vertexCount];
+			inSources = new int[vertexCount][];
+			inWeights = new double[vertexCount][];
+			inDegree = new int[vertexCount];
+			contracted = new boolean[vertexCount];
+			contractedNeighbors = new int[vertexCount];
+			priority = new int[vertexCount];
+			contexts = ThreadLocal.withInitial(graph::newUnboundedContext);
+
+			int[] incoming = new int[vertexCount];
+			for (int edge = 0; edge < graph.getNumberOfEdges(); edge++) {
+				incoming[graph.getEdgeTarget(edge)]++;
+			}
+			for (int vertex = 0; vertex < vertexCount; vertex++) {
+				int outgoing = graph.getEdgeOffset(vertex + 1) - graph.getEdgeOffset(vertex);
+				outTargets[vertex] = new int[Math.max(2, outgoing)];
+				outWeights[vertex] = new double[outTargets[vertex].length];
+				outMiddles[vertex] = new int[outTargets[vertex].length];
+				inSources[vertex] = new int[Math.max(2, incoming[vertex])];
+				inWeights[vertex] = new double[inSources[vertex].length];
+			}
+			for (int vertex = 0; vertex < vertexCount; vertex++) {
+				for (int edge = graph.getEdgeOffset(vertex); edge < graph.getEdgeOffset(vertex + 1); edge++) {
+					addEdge(vertex, graph.getEdgeTarget(edge), graph.getEdgeWeight(edge), -1);
+				}
+			}
+		}	// end constructor
+
+		/** Contracts all vertices.
+		 * @return The rank of each vertex; vertices contracted later have higher ranks. */
+		private int[] contractAll() {
+			int[] rank = new int[vertexCount];
+			int[] remaining = IntStream.range(0, vertexCount).toArray();
+			IntStream.of(remaining).parallel().forEach(vertex -> priority[vertex] = computePriority(vertex));
+
+			int nextRank = 0;
+			boolean[] touched = new boolean[vertexCount];
+			while (remaining.length > 0) {
+				int[] selected = IntStream.of(remaining).parallel().filter(this::isLocalMinimum).toArray();
+				for (int vertex : selected) {
+					contracted[vertex] = true;
+					rank[vertex] = nextRank++;
+				}
+
+				ShortcutList[] found = new ShortcutList[selected.length];
+				IntStream.range(0, selected.length).parallel().forEach(index -> {
+					found[index] = new ShortcutList();
+					findShortcuts(selected[index], found[index], WITNESS_SETTLE_LIMIT);
+				});
+				for (int index = 0; index < selected.length; index++) {
+					ShortcutList shortcuts = found[index];
+					for (int next = 0; next < shortcuts.count; next++) {
+						addEdge(shortcuts.from[next], shortcuts.to[next], shortcuts.weight[next], selected[index]);
+					}
+				}
+
+				// Only the neighbors of contracted vertices change importance
+				int touchedCount = 0;
+				int[] neighbors = new int[16];
+				for (int vertex : selected) {
+					for (int pass = 0; pass < 2; pass++) {
+						int[] ends = (pass == 0) ? outTargets[vertex] : inSources[vertex];
+						int degree = (pass == 0) ? outDegree[vertex] : inDegree[vertex];
+						for (int slot = 0; slot < degree; slot++) {
+							int neighbor = ends[slot];
+							if (!contracted[neighbor]) {
+								contractedNeighbors[neighbor]++;
+								if (!touched[neighbor]) {
+									touched[neighbor] = true;
+									if (touchedCount == neighbors.length) {
+										neighbors = Arrays.copyOf(neighbors, 2 * neighbors.length);
+									}
+									neighbors[touchedCount++] = neighbor;
+								}
+							}
+						}
+					}
+				}	// end for
+				IntStream.of(neighbors).limit(touchedCount).parallel().forEach(vertex -> priority[vertex] = computePriority(vertex));
+				for (int index = 0; index < touchedCount; index++) {
+					touched[neighbors[index]] = false;
+				}
+
+				remaining = IntStream.of(remaining).filter(vertex -> !contracted[vertex]).toArray();
+			}	// end while
+
+			return rank;
+		}	// end contractAll
+
+		/** Sees whether a vertex is less important than all of its remaining neighbors, ties going to the smaller index. */
+		private boolean isLocalMinimum(int vertex) {
+			for (int pass = 0; pass < 2; pass++) {
+				int[] ends = (pass == 0) ? outTargets[vertex] : inSources[vertex];
+				int degree = (pass == 0) ? outDegree[vertex] : inDegree[vertex];
+				for (int slot = 0; slot < degree; slot++) {
+					int neighbor = ends[slot];
+					if (!contracted[neighbor] && ((priority[neighbor] < priority[vertex])
+							|| ((priority[neighbor] == priority[vertex]) && (neighbor < vertex)))) {
+						return false;
+					}
+				}
+			}
+
+			return true;
+		}	// end isLocalMinimum
+
+		/** Estimates the importance of a vertex as the number of shortcuts its contraction would add,
+		 * less the number of edges it would remove, plus the number of neighbors already contracted. */
+		private int computePriority(int vertex) {
+			int removedEdges = 0;
+			for (int slot = 0; slot < outDegree[vertex]; slot++) {
+				if (!contracted[outTargets[vertex][slot]]) {
+					removedEdges++;
+				}
+			}
+			for (int slot = 0; slot < inDegree[vertex]; slot++) {
+				if (!contracted[inSources[vertex][slot]]) {
+					removedEdges++;
+				}
+			}
+
+			return findShortcuts(vertex, null, ESTIMATE_SETTLE_LIMIT) - removedEdges + contractedNeighbors[vertex];
+		}	// end computePriority
+
+		/** Finds the shortcuts needed to remove a vertex from the remaining graph: one for each pair of
+		 * remaining neighbors u and w such that no path from u to w avoiding the vertex is as cheap as the
+		 * path through it.
+		 * @param vertex The vertex to remove.
+		 * @param shortcuts A list that receives the shortcuts, or null to only count them.
+		 * @param settleLimit The number of vertices after which a witness search gives up.
+		 * @return The number of shortcuts needed. */
+		private int findShortcuts(int vertex, ShortcutList shortcuts, int settleLimit) {
+			SearchContext context = contexts.get();
+			int count = 0;
+
+			for (int inSlot = 0; inSlot < inDegree[vertex]; inSlot++) {
+				int from = inSources[vertex][inSlot];
+				if (contracted[from]) {
+					continue;
+				}
+
+				double largestOut = -1;
+				for (int outSlot = 0; outSlot < outDegree[vertex]; outSlot++) {
+					int to = outTargets[vertex][outSlot];
+					if (!contracted[to] && (to != from)) {
+						largestOut = Math.max(largestOut, outWeights[vertex][outSlot]);
+					}
+				}
+				if (largestOut < 0) {
+					continue;
+				}
+
+				double weightIn = inWeights[vertex][inSlot];
+				searchWitnesses(from, vertex, weightIn + largestOut, settleLimit, context);
+				for (int outSlot = 0; outSlot < outDegree[vertex]; outSlot++) {
+					int to = outTargets[vertex][outSlot];
+					if (contracted[to] || (to == from)) {
+						continue;
+					}
+
+					double throughCost = weightIn + outWeights[vertex][outSlot];
+					if (!context.isReached(to) || (context.getCost(to) > throughCost)) {
+						count++;
+						if (shortcuts != null) {
+							shortcuts.add(from, to, throughCost);
+						}
+					}
+				}
+			}	// end for
+
+			return count;
+		}	// end findShortcuts
+
+		/** Runs a limited Dijkstra search from a vertex through remaining vertices other than a given one. */
+		private void searchWitnesses(int begin, int avoided, double costLimit, int settleLimit, SearchContext context) {
+			context.reset();
+			VertexPriorityQueue vertexQueue = context.getQueue();
+			context.reach(begin, 0.0, -1);
+			vertexQueue.add(begin, 0.0);
+
+			int settledCount = 0;
+			while (!vertexQueue.isEmpty()) {
+				int frontVertex = vertexQueue.removeMin();
+				context.settle(frontVertex);
+				double frontCost = context.getCost(frontVertex);
+				if ((frontCost > costLimit) || (++settledCount > settleLimit)) {
+					break;
+				}
+
+				for (int slot = 0; slot < outDegree[frontVertex]; slot++) {
+					int nextNeighbor = outTargets[frontVertex][slot];
+					if ((nextNeighbor == avoided) || contracted[nextNeighbor]) {
+						continue;
+					}
+
+					double nextCost = frontCost + outWeights[frontVertex][slot];
+					if (!context.isReached(nextNeighbor)) {
+						context.reach(nextNeighbor, nextCost, frontVertex);
+						vertexQueue.add(nextNeighbor, nextCost);
+					} else if (!context.isSettled(nextNeighbor) && (nextCost < context.getCost(nextNeighbor))) {
+						context.reach(nextNeighbor, nextCost, frontVertex);
+						vertexQueue.decreaseKey(nextNeighbor, nextCost);
+					}
+				}
+			}	// end while
+		}	// end searchWitnesses
+
+		/** Adds an edge, or lowers the weight of an existing edge between the same vertices. */
+		private void addEdge(int from, int to, double weight, int middle) {
+			for (int slot = 0; slot < outDegree[from]; slot++) {
+				if (outTargets[from][slot] == to) {
+					if (weight < outWeights[from][slot]) {
+						outWeights[from][slot] = weight;
+						outMiddles[from][slot] = middle;
+						for (int inSlot = 0; inSlot < inDegree[to]; inSlot++) {
+							if (inSources[to][inSlot] == from) {
+								inWeights[to][inSlot] = weight;
+							}
+						}
+					}
+					return;
+				}
+			}	// end for
+
+			if (outDegree[from] == outTargets[from].length) {
+				int newLength = 2 * outTargets[from].length;
+				outTargets[from] = Arrays.copyOf(outTargets[from], newLength);
+				outWeights[from] = Arrays.copyOf(outWeights[from], newLength);
+				outMiddles[from] = Arrays.copyOf(outMiddles[from], newLength);
+			}
+			outTargets[from][outDegree[from]] = to;
+			outWeights[from][outDegree[from]] = weight;
+			outMiddles[from][outDegree[from]] = middle;
+			outDegree[from]++;
+
+			if (inDegree[to] == inSources[to].length) {
+				int newLength = 2 * inSources[to].length;
+				inSources[to] = Arrays.copyOf(inSources[to], newLength);
+				inWeights[to] = Arrays.copyOf(inWeights[to], newLength);
+			}
+			inSources[to][inDegree[to]] = from;
+			inWeights[to][inDegree[to]] = weight;
+			inDegree[to]++;
+		}	// end addEdge
+	}	// end Contractor
+
+	/** Shortcuts found for one contracted vertex. */
+	private static final class ShortcutList {
+		private int[] from = new int[4];
+		private int[] to = new int[4];
+		private double[] weight = new double[4];
+		private int count = 0;
+
+		private void add(int newFrom, int newTo, double newWeight) {
+			if (count == from.length) {
+				from = Arrays.copyOf(from, 2 * count);
+				to = Arrays.copyOf(to, 2 * count);
+				weight = Arrays.copyOf(weight, 2 * count);
+			}
+			from[count] = newFrom;
+			to[count] = newTo;
+			weight[count] = newWeight;
+			count++;
+		}	// end add
+	}	// end ShortcutList
+
+}	// end ContractionHierarchy
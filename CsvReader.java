@@ -0,0 +1,304 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/** Reads records of comma-separated values, one at a time, straight from a memory-mapped file.
+ * Fields are quoted as RFC 4180 describes: a field that begins with a double quote may hold commas,
+ * line breaks and doubled quotes, which stand for one quote. A record only notes where its fields
+ * start and end, so a field becomes a String only when getString is called, and getDouble reads a
+ * number from the bytes without making one. Blank lines are skipped, and lines may end in CRLF.
+ */
+public final class CsvReader {
+
+	private static final int DEFAULT_CAPACITY = 8;
+	private static final int MAX_DIGITS = 18;	// Significant digits that always fit in a long
+	private static final int MAX_EXACT_DIGITS = 15;	// Significant digits that always fit in a double exactly
+	private static final double[] POWERS_OF_TEN = {	// Every power of ten a double holds exactly
+		1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+		1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+	};
+
+	private final ByteBuffer text;	// The whole file, read only with absolute gets
+	private int position;	// Start of the next record
+	private int[] fieldStarts;	// Position of the first byte of each field of the record, counting any opening quote
+	private int[] fieldEnds;	// Position just past the last byte of each field, counting any closing quote
+	private int fieldCount;	// Number of fields of the current record, or 0 before the first
+
+	/** Creates a reader of the records in a block of bytes.
+	 * @param text The bytes, from position 0 to the limit. */
+	CsvReader(ByteBuffer text) {
+		this.text = text;
+		position = 0;
+		fieldStarts = new int[DEFAULT_CAPACITY];
+		fieldEnds = new int[DEFAULT_CAPACITY];
+		fieldCount = 0;
+	}	// end constructor
+
+	/** Maps a file into memory for reading.
+	 * @param fileName The name of the file.
+	 * @return A read-only buffer of the whole file.
+	 * @throws IOException if the file cannot be read, or is 2 GB or larger. */
+	static ByteBuffer map(String fileName) throws IOException {
+		try (FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ)) {
+			long size = channel.size();
+			if (size >= Integer.MAX_VALUE) {
+				throw new IOException(fileName + " is too large to map.");
+			}
+
+			return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+		}
+	}	// end map
+
+	/** Maps a file of comma-separated values into memory.
+	 * @param fileName The name of the file.
+	 * @return A reader positioned before the first record.
+	 * @throws IOException if the file cannot be read, or is 2 GB or larger. */
+	public static CsvReader open(String fileName) throws IOException {
+		return new CsvReader(map(fileName));
+	}
+
+	/** Moves to the next record that is not a blank line and finds its fields.
+	 * @return True if there was another record, or false at the end of the file. */
+	public boolean nextRecord() {
+		int length = text.limit();
+		while ((position < length) && isLineBreak(position)) {	// Skip blank lines
+			position++;
+		}
+		if (position >= length) {
+			fieldCount = 0;
+			return false;
+		}
+
+		fieldCount = 0;
+		boolean recordEnded = false;
+		while (!recordEnded) {
+			int start = position;
+			if ((position < length) && (text.get(position) == '"')) {
+				position++;
+				while (position < length) {	// Find the closing quote, stepping over doubled ones
+					if (text.get(position) == '"') {
+						if ((position + 1 < length) && (text.get(position + 1) == '"')) {
+							position += 2;
+						} else {
+							position++;
+							break;
+						}
+					} else {
+						position++;
+					}
+				}	// end while
+			}	// end if
+			while ((position < length) && (text.get(position) != ',') && (text.get(position) != '\n')) {
+				position++;
+			}
+
+			int end = position;
+			if ((end > start) && (text.get(end - 1) == '\r') && ((end == length) || (text.get(end) == '\n'))) {
+				end--;	// A CRLF line ending is not part of the field
+			}
+			addField(start, end);
+
+			if ((position < length) && (text.get(position) == ',')) {
+				position++;
+			} else {
+				position++;	// Past the line feed, or past the end of the file
+				recordEnded = true;
+			}
+		}	// end while
+
+		return true;
+	}	// end nextRecord
+
+	/** Gets the number of fields of the current record.
+	 * @return The number of fields, or 0 before the first record and after the last. */
+	public int getNumberOfFields() {
+		return fieldCount;
+	}
+
+	/** Decodes a field of the current record, removing its quotes.
+	 * @param field The position of the field in the record, 0 for the first.
+	 * @return The text of the field. */
+	public String getString(int field) {
+		checkField(field);
+		return decode(text, fieldStarts[field], fieldEnds[field]);
+	}
+
+	/** Reads a field of the current record as a number, without decoding it to a String when it is
+	 * written in plain decimal or scientific notation.
+	 * @param field The position of the field in the record, 0 for the first.
+	 * @return The value of the field.
+	 * @throws NumberFormatException if the field is not a number. */
+	public double getDouble(int field) {
+		checkField(field);
+		return parseDouble(text, fieldStarts[field], fieldEnds[field]);
+	}
+
+	/** Gets the bytes this reader reads.
+	 * @return The whole file. */
+	ByteBuffer getText() {
+		return text;
+	}
+
+	/** Gets where a field of the current record starts in the file.
+	 * @param field The position of the field in the record.
+	 * @return The position of its first byte, counting any opening quote. */
+	int getFieldStart(int field) {
+		checkField(field);
+		return fieldStarts[field];
+	}
+
+	/** Gets where a field of the current record ends in the file.
+	 * @param field The position of the field in the record.
+	 * @return The position just past its last byte, counting any closing quote. */
+	int getFieldEnd(int field) {
+		checkField(field);
+		return fieldEnds[field];
+	}
+
+	/** Decodes a field, removing its quotes and turning each doubled quote inside them into one.
+	 * @param text The bytes of a file, in UTF-8.
+	 * @param start The position of the field's first byte, counting any opening quote.
+	 * @param end The position just past the field's last byte.
+	 * @return The text of the field. */
+	static String decode(ByteBuffer text, int start, int end) {
+		if ((end > start) && (text.get(start) == '"')) {
+			byte[] bytes = new byte[end - start];
+			int count = 0;
+			int index = start + 1;
+			while (index < end) {
+				byte next = text.get(index);
+				index++;
+				if (next != '"') {
+					bytes[count++] = next;
+				} else if ((index < end) && (text.get(index) == '"')) {	// A doubled quote stands for one
+					bytes[count++] = next;
+					index++;
+				} else {	// The closing quote; anything after it is kept, as a lenient reader would
+					while (index < end) {
+						bytes[count++] = text.get(index++);
+					}
+				}
+			}	// end while
+			return new String(bytes, 0, count, StandardCharsets.UTF_8);
+		}	// end if
+
+		byte[] bytes = new byte[end - start];
+		text.get(start, bytes);	// Absolute, so threads may decode at the same time
+		return new String(bytes, StandardCharsets.UTF_8);
+	}	// end decode
+
+	/** Reads a number from a field. A number of up to 15 significant digits whose exponent is within
+	 * the powers of ten a double holds exactly is computed with one multiplication or division,
+	 * which rounds correctly; any other text is decoded and given to Double.parseDouble.
+	 * @param text The bytes of a file.
+	 * @param start The position of the field's first byte, counting any opening quote.
+	 * @param end The position just past the field's last byte.
+	 * @return The value of the field.
+	 * @throws NumberFormatException if the field is not a number. */
+	static double parseDouble(ByteBuffer text, int start, int end) {
+		while ((start < end) && (text.get(start) == ' ')) {
+			start++;
+		}
+		while ((end > start) && (text.get(end - 1) == ' ')) {
+			end--;
+		}
+		if ((end - start >= 2) && (text.get(start) == '"') && (text.get(end - 1) == '"')) {
+			start++;
+			end--;
+		}
+
+		int index = start;
+		boolean negative = false;
+		if ((index < end) && ((text.get(index) == '-') || (text.get(index) == '+'))) {
+			negative = text.get(index) == '-';
+			index++;
+		}
+
+		long mantissa = 0;
+		int digits = 0;	// Significant digits in mantissa
+		int exponent = 0;
+		boolean anyDigit = false;
+		for (; (index < end) && isDigit(text, index); index++) {
+			anyDigit = true;
+			if (digits < MAX_DIGITS) {
+				mantissa = 10 * mantissa + (text.get(index) - '0');
+				digits += (mantissa > 0) ? 1 : 0;
+			} else {
+				exponent++;	// The digit is dropped, so the fast path will not be taken
+			}
+		}
+		if ((index < end) && (text.get(index) == '.')) {
+			index++;
+			for (; (index < end) && isDigit(text, index); index++) {
+				anyDigit = true;
+				if (digits < MAX_DIGITS) {
+					mantissa = 10 * mantissa + (text.get(index) - '0');
+					digits += (mantissa > 0) ? 1 : 0;
+					exponent--;
+				}
+			}
+		}	// end if
+		if (anyDigit && (index < end) && ((text.get(index) == 'e') || (text.get(index) == 'E'))) {
+			index++;
+			boolean negativeExponent = false;
+			if ((index < end) && ((text.get(index) == '-') || (text.get(index) == '+'))) {
+				negativeExponent = text.get(index) == '-';
+				index++;
+			}
+			int written = 0;
+			int digitStart = index;
+			for (; (index < end) && isDigit(text, index); index++) {
+				written = Math.min(10 * written + (text.get(index) - '0'), 100000);	// Far past any double
+			}
+			if (index == digitStart) {
+				anyDigit = false;	// An exponent with no digits is not a number
+			}
+			exponent += negativeExponent ? -written : written;
+		}	// end if
+
+		if (anyDigit && (index == end)) {
+			if (mantissa == 0) {
+				return negative ? -0.0 : 0.0;
+			}
+			if ((digits <= MAX_EXACT_DIGITS) && (-exponent < POWERS_OF_TEN.length) && (exponent < POWERS_OF_TEN.length)) {
+				double value = (exponent < 0) ? mantissa / POWERS_OF_TEN[-exponent] : mantissa * POWERS_OF_TEN[exponent];
+				return negative ? -value : value;
+			}
+		}	// end if
+
+		byte[] bytes = new byte[end - start];	// Rare forms such as NaN, and text that is not a number
+		text.get(start, bytes);
+		return Double.parseDouble(new String(bytes, StandardCharsets.US_ASCII));
+	}	// end parseDouble
+
+	private boolean isLineBreak(int index) {
+		byte next = text.get(index);
+		return (next == '\n') || ((next == '\r') && (index + 1 < text.limit()) && (text.get(index + 1) == '\n'));
+	}
+
+	private static boolean isDigit(ByteBuffer text, int index) {
+		byte next = text.get(index);
+		return (next >= '0') && (next <= '9');
+	}
+
+	private void addField(int start, int end) {
+		if (fieldCount == fieldStarts.length) {
+			fieldStarts = Arrays.copyOf(fieldStarts, 2 * fieldCount);
+			fieldEnds = Arrays.copyOf(fieldEnds, 2 * fieldCount);
+		}
+		fieldStarts[fieldCount] = start;
+		fieldEnds[fieldCount] = end;
+		fieldCount++;
+	}	// end addField
+
+	private void checkField(int field) {
+		if ((field < 0) || (field >= fieldCount)) {
+			throw new IndexOutOfBoundsException("The record has no field " + field + ".");
+		}
+	}
+
+}	// end CsvReader
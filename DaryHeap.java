@@ -0,0 +1,207 @@
+import java.util.Arrays;
+
+/** A min-heap in which each entry has up to d children. A wider heap is shallower, so fewer entries
+ * move when one is added or removed, and the children compared at each step of removeMin sit next to
+ * each other in the array. The heap grows as needed, and a whole array of entries can be added in
+ * linear time.
+ * @param <T> The type of the entries
+ */
+public final class DaryHeap<T extends Comparable<? super T>> implements MinHeapInterface<T> {
+
+	public static final int DEFAULT_ARITY = 4;
+
+	private T[] heap;	// Array of heap entries; the root is heap[0]
+	private int size;	// Number of entries
+	private final int arity;	// Number of children of each entry
+	private boolean integrityOK = false;
+	private static final int DEFAULT_CAPACITY = 25;
+	private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;	// Largest array most virtual machines allow
+
+	public DaryHeap() {
+		this(DEFAULT_ARITY, DEFAULT_CAPACITY);
+	}
+
+	/** Creates an empty heap.
+	 * @param arity The number of children of each entry; 2 gives a binary heap.
+	 * @param initialCapacity The number of entries the heap can hold before it first grows. */
+	public DaryHeap(int arity, int initialCapacity) {
+		if (arity < 2) {
+			throw new IllegalArgumentException("A heap entry must be allowed at least 2 children.");
+		}
+		if (initialCapacity < DEFAULT_CAPACITY) {
+			initialCapacity = DEFAULT_CAPACITY;
+		} else {
+			checkCapacity(initialCapacity);
+		}
+
+		// The cast is safe because the new array contains null entries
+		@SuppressWarnings({"unchecked", "rawtypes"})
+		T[] tempHeap = (T[]) new Comparable[initialCapacity];
+		heap = tempHeap;
+		size = 0;
+		this.arity = arity;
+		integrityOK = true;
+	}	// end constructor
+
+	/** Creates a heap of the given entries in linear time.
+	 * @param arity The number of children of each entry; 2 gives a binary heap.
+	 * @param entries The entries of the new heap, none of them null. The array is copied. */
+	public DaryHeap(int arity, T[] entries) {
+		this(arity, entries.length);
+		addAll(entries);
+	}	// end constructor
+
+	/** Adds a new entry to this heap.
+	 *	@param newEntry	An object to be added. */
+	@Override
+	public void add(T newEntry) {
+		checkIntegrity();
+
+		if (newEntry == null) {
+			throw new IllegalArgumentException("Cannot add null entry to the heap.");
+		}
+
+		ensureCapacity(size + 1L);
+		int newIndex = size;
+		while (newIndex > 0) {
+			int parentIndex = (newIndex - 1) / arity;
+			if (newEntry.compareTo(heap[parentIndex]) >= 0) {
+				break;
+			}
+			heap[newIndex] = heap[parentIndex];
+			newIndex = parentIndex;
+		}
+
+		heap[newIndex] = newEntry;
+		size++;
+	}	// end add
+
+	/** Adds every entry of an array to this heap. The entries are appended and the heap is rebuilt
+	 * from the bottom up, which takes time linear in the final size, so adding many entries at once
+	 * is cheaper than adding them one at a time.
+	 * @param newEntries The objects to be added, none of them null. */
+	@Override
+	public void addAll(T[] newEntries) {
+		checkIntegrity();
+
+		for (T nextEntry : newEntries) {
+			if (nextEntry == null) {
+				throw new IllegalArgumentException("Cannot add null entry to the heap.");
+			}
+		}
+
+		ensureCapacity((long) size + newEntries.length);
+		System.arraycopy(newEntries, 0, heap, size, newEntries.length);
+		size += newEntries.length;
+
+		if (size > 1) {
+			for (int rootIndex = (size - 2) / arity; rootIndex >= 0; rootIndex--) {	// Every entry that has a child
+				reheap(rootIndex);
+			}
+		}
+	}	// end addAll
+
+	/** Removes and returns the smallest item in this heap.
+	 *	@return	Either the smallest object in the heap or,
+	 *	if the heap is empty before the operation, null. */
+	@Override
+	public T removeMin() {
+		checkIntegrity();
+		T root = null;
+
+		if (!isEmpty()) {
+			root = heap[0];
+			size--;
+			heap[0] = heap[size];
+			heap[size] = null;
+			if (size > 0) {
+				reheap(0);
+			}
+		}
+
+		return root;
+	}	// end removeMin
+
+	/** Retrieves the smallest item in this heap.
+	 *	@return	Either the smallest object in the heap or,
+	 *	if the heap is empty, null. */
+	@Override
+	public T getMin() {
+		T root = null;
+		if (!isEmpty()) {
+			root = heap[0];
+		}
+
+		return root;
+	}
+
+	/** Detects whether this heap is empty.
+	 *	@return	True if the heap is empty, or false otherwise. */
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/** Gets the size of this heap.
+	 *	@return	The number of entries currently in the heap. */
+	@Override
+	public int getSize() {
+		return size;
+	}
+
+	/** Removes all entries from this heap. */
+	@Override
+	public void clear() {
+		checkIntegrity();
+		Arrays.fill(heap, 0, size, null);
+		size = 0;
+	}
+
+	private void checkCapacity(long capacity) {
+		if (capacity > MAX_CAPACITY) {
+			throw new IllegalStateException("Attempt to create a DaryHeap whose capacity exceeds allowed maximum capacity of " + MAX_CAPACITY);
+		}
+	}
+
+	private void checkIntegrity() {
+		if (!integrityOK) {
+			throw new SecurityException("Heap is corrupted.");
+		}
+	}
+
+	/** Doubles the array until it can hold a given number of entries. */
+	private void ensureCapacity(long capacity) {
+		if (capacity > heap.length) {
+			checkCapacity(capacity);
+			long newCapacity = Math.max(capacity, Math.min(2L * heap.length, MAX_CAPACITY));
+			heap = Arrays.copyOf(heap, (int) newCapacity);
+		}
+	}	// end ensureCapacity
+
+	/** Moves the entry at rootIndex down until it is no larger than any of its children. */
+	private void reheap(int rootIndex) {
+		T orphan = heap[rootIndex];
+		int firstChildIndex = arity * rootIndex + 1;
+
+		while (firstChildIndex < size) {
+			int smallestChildIndex = firstChildIndex;
+			int childEnd = (int) Math.min((long) firstChildIndex + arity, size);
+			for (int childIndex = firstChildIndex + 1; childIndex < childEnd; childIndex++) {
+				if (heap[childIndex].compareTo(heap[smallestChildIndex]) < 0) {
+					smallestChildIndex = childIndex;
+				}
+			}
+
+			if (orphan.compareTo(heap[smallestChildIndex]) <= 0) {
+				break;
+			}
+
+			heap[rootIndex] = heap[smallestChildIndex];
+			rootIndex = smallestChildIndex;
+			firstChildIndex = (int) Math.min((long) arity * rootIndex + 1, Integer.MAX_VALUE);
+		}	// end while
+
+		heap[rootIndex] = orphan;
+	}	// end reheap
+
+}	// end DaryHeap
@@ -1,262 +1,715 @@
-import java.util.Iterator;
-
-public class DirectedGraph<T> implements GraphInterface<T> {
-	
-	private DictionaryInterface<T, VertexInterface<T>> vertices;
-	private int edgeCount;
-
-	public DirectedGraph() {
-		vertices = new HashedDictionary<>();
-		edgeCount = 0;
-	}	// end default constructor
-
-	/**
-	 * Adds a given vertex to this graph.
-	 * @param vertexLabel An object that labels the new vertex and is distinct from the labels of current vertices.
-	 * @return True if the vertex is added, or false if not.
-	 */
-	@Override
-	public boolean addVertex(T vertexLabel) {
-		VertexInterface<T> addOutcome = vertices.add(vertexLabel, new Vertex<>(vertexLabel));
-		return addOutcome == null;	// Was addition to dictionary successful?
-	}	// end addVertex
-
-	/**
-	 * Adds an unweighted edge between two given distinct vertices that are currently in this graph.
-	 * The desired edge must not already be in the graph. In a directed graph, the edge points toward
-	 * the second vertex given.
-	 * @param begin An object that labels the origin vertex of the edge.
-	 * @param end An object, distinct from begin, that labels the end vertex of the edge.
-	 * @return True if the edge is added, or false if not.
-	 */
-	@Override
-	public boolean addEdge(T begin, T end) {
-		return addEdge(begin, end, 0);
-	}	// end addEdge
-
-	/**
-	 * Adds a weighted edge between two given distinct vertices that are currently in this graph.
-	 * The desired edge must not already be in the graph. In a directed graph, the edge points toward
-	 * the second vertex given.
-	 * @param begin An object that labels the origin vertex of the edge.
-	 * @param end An object, distinct from begin, that labels the end vertex of the edge.
-	 * @param edgeWeight The real value of the edge's weight.
-	 * @return True if the edge is added, or false if not.
-	 */
-	@Override
-	public boolean addEdge(T begin, T end, double edgeWeight) {
-		boolean result = false;
-		VertexInterface<T> beginVertex = vertices.getValue(begin);	// getValue gets the individual vertex
-		VertexInterface<T> endVertex = vertices.getValue(end);
-		if ((beginVertex != null) && (endVertex != null)) {
-			result = beginVertex.connect(endVertex, edgeWeight);
-		}
-
-		if (result) {
-			edgeCount++;
-		}
-
-		return result;
-	}	// end addEdge
-
-	/**
-	 * Sees whether an edge exists between two given vertices.
-	 * @param begin An object that labels the origin vertex of the edge.
-	 * @param end An object that labels the end vertex of the edge.
-	 * @return True if an edge exists.
-	 */
-	@Override
-	public boolean hasEdge(T begin, T end) {
-		boolean found = false;
-		VertexInterface<T> beginVertex = vertices.getValue(begin);
-		VertexInterface<T> endVertex = vertices.getValue(end);
-		if ((beginVertex != null) && (endVertex != null)) {
-			Iterator<VertexInterface<T>> neighbors = beginVertex.getNeighborIterator();
-
-			while (!found && neighbors.hasNext()) {
-				VertexInterface<T> nextNeighbor = neighbors.next();
-				if (endVertex.equals(nextNeighbor)) {
-					found = true;
-				}	
-			}	// end while
-		}	// end if
-
-		return found;
-	}	// end hasEdge
-
-	/**
-	 * Sees whether this graph is empty.
-	 * @return True if the graph is empty.
-	 */
-	@Override
-	public boolean isEmpty() {
-		return vertices.isEmpty();
-	}
-
-	/**
-	 * Gets the number of vertices in this graph.
-	 * @return The number of vertices in the graph.
-	 */
-	@Override
-	public int getNumberOfVertices() {
-		return vertices.getSize();
-	}	// end getNumberOfVertices
-	
-	/**
-	 * Gets the number of edges in this graph.
-	 * @return The number of edges in the graph.
-	 */
-	@Override
-	public int getNumberOfEdges() {
-		return edgeCount;
-	}	// end getNumberOfEdges
-
-	/**
-	 * Removes all vertices and edges from this graph resulting in an empty graph.
-	 */
-	@Override
-	public void clear() {
-		vertices.clear();
-		edgeCount = 0;
-	}
-
-	/** Preforms a breadth-first traversal of this graph.
-	 * @param origin An object that labels the origin vertex of the traversal.
-	 * @return A queue of labels of the vertices in the traversal, with the label
-	 * of the origin vertex at the queue's front. */
-	@Override
-	public QueueInterface<T> getBreadthFirstTraversal(T origin) {
-		throw new UnsupportedOperationException();
-	}
-
-	/** Preforms a depth-first traversal of this graph.
-	 * @param origin An object that labels the origin vertex of the traversal.
-	 * @return A queue of labels of the vertices in the traversal, with the label of the origin vertex at the queue's front. */
-	@Override
-	public QueueInterface<T> getDepthFirstTraversal(T origin) {
-		throw new UnsupportedOperationException();
-	}
-
-	/** Preforms a topological sort of the vertices in this graph without cycles.
-	 * @return A stack of vertex labels in topological order, beginning with the stack's top. */
-	@Override
-	public StackInterface<T> getTopologicalOrder() {
-		throw new UnsupportedOperationException();
-	}
-
-	/** Finds the shortest-length path between two given vertices in this graph.
-	 * @param begin An object that labels the path's origin vertex.
-	 * @param end An object that labels the path's destination vertex.
-	 * @param path A stack of labels that is empty initially; at the completion of the method, this stack contains the 
-	 * 	labels of the vertices along the shortest path; the label of the origin vertex is at the top, and the 
-	 * 	label of the desination vertex is at the bottom.
-	 * @return The length of the shortest path. */
-	@Override
-	public int getShortestPath(T begin, T end, StackInterface<T> path) {
-		throw new UnsupportedOperationException();
-	}
-
-	/** Finds the least-cost path between two given vertices in this graph.
-	 * @param begin An object that labels the path's origin vertex.
-	 * @param end An object that labels the path's destination vertex.
-	 * @param pat A stack of labels that is empty initially; at the completion of the method, this stack contains the labels of the vertices along
-	 * the cheapest path; the label of the origin vertex is at the top, and the label of the destination vertex is at the bottom.
-	 * @return The cost of the cheapest path. */
-	@Override
-	public double getCheapestPath(T begin, T end, StackInterface<T> path) {
-		resetVertices();
-		boolean done = false;
-
-		PriorityQueueInterface<EntryPQ> vertexQueue = new MinHeapPriorityQueue<>();
-		VertexInterface<T> originVertex = vertices.getValue(begin);
-		VertexInterface<T> endVertex = vertices.getValue(end);
-
-		vertexQueue.add(new EntryPQ(originVertex, 0.0, null));
-		while (!done && !vertexQueue.isEmpty()) {
-			EntryPQ frontEntry = vertexQueue.remove();
-			VertexInterface<T> frontVertex = frontEntry.getVertex();
-
-			if (!frontVertex.isVisited()) {
-				frontVertex.visit();
-				frontVertex.setCost(frontEntry.getCost());
-				frontVertex.setPredecessor(frontEntry.getPredecessor());
-
-				if (frontVertex.equals(endVertex)) {
-					done = true;
-				} else {
-
-					Iterator<VertexInterface<T>> neighbors = frontVertex.getNeighborIterator();
-					Iterator<Double> weights = frontVertex.getWeightIterator();
-
-					while (neighbors.hasNext()) {
-						VertexInterface<T> nextNeighbor = neighbors.next();
-						double weightOfEdgeToNeighbor = weights.next();
-
-						if (!nextNeighbor.isVisited()) {
-							double nextCost = weightOfEdgeToNeighbor + frontVertex.getCost();
-							vertexQueue.add(new EntryPQ(nextNeighbor, nextCost, frontVertex));
-						}
-					}	
-				}
-			}
-
-		}
-
-		if (!endVertex.isVisited()) {
-			return -1;
-		}
-
-		double pathCost = endVertex.getCost();
-		path.push(endVertex.getLabel());
-		VertexInterface<T> vertex = endVertex;
-
-		while (vertex.hasPredecessor()) {
-			vertex = vertex.getPredecessor();
-			path.push(vertex.getLabel());
-		}
-
-		return pathCost;
-	}
-
-	protected void resetVertices() {
-		Iterator<VertexInterface<T>> vertexIterator = vertices.getValueIterator();
-
-		while(vertexIterator.hasNext()) {
-			VertexInterface<T> nextVertex = vertexIterator.next();
-			nextVertex.unvisit();
-			nextVertex.setCost(0);
-			nextVertex.setPredecessor(null);
-		}	// end while
-	}	// end resetVertices
-
-	private class EntryPQ implements Comparable<EntryPQ> {
-
-		private VertexInterface<T> predecessor;
-		private VertexInterface<T> vertexLabel;
-		private double cost;
-		
-		public EntryPQ(VertexInterface<T> vertexLabel, double cost, VertexInterface<T> predecessor) {
-			this.vertexLabel = vertexLabel;
-			this.predecessor = predecessor;
-			this.cost = cost;
-		}
-
-		@Override
-		public int compareTo(EntryPQ predecessor) {
-			return (int) Math.signum(this.cost - predecessor.cost);	// Changes the compare to we get the minimium
-		}
-
-		public double getCost() {
-			return cost;
-		}
-
-		public VertexInterface<T> getVertex() {
-			return vertexLabel;
-		}
-		
-		public VertexInterface<T> getPredecessor() {
-			return predecessor;
-		}
-	}
-
-}	// end DirectedGraph
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntFunction;
+
+public class DirectedGraph<T> implements GraphInterface<T> {
+	
+	private DictionaryInterface<T, VertexInterface<T>> vertices;
+	private final boolean airportCodes;	// True if the labels are airport codes, which snapshots index by packed code
+	private List<Vertex<T>> vertexList;	// Vertices in the order they were added; position is the vertex index
+	private volatile int edgeCount;	// Written only while holding this graph's lock
+	private final AtomicReference<Version<T>> current = new AtomicReference<>(new Version<>(null));	// Replaced by every change
+	private volatile LandmarkEstimator landmarks;	// Optional A* bounds for the snapshot; null after a change
+	private volatile ContractionHierarchy<T> hierarchy;	// Optional shortcuts for the snapshot; null after a change
+	private volatile DistanceMatrix<T> distances;	// Optional all-pairs tables for the snapshot; null after a change
+	private volatile ReachabilityIndex reachability;	// Which vertices can reach which; null until first needed
+	private volatile RouteCache<T> routeCache;	// Optional recent results of getCheapestPath; emptied after a change
+	private volatile IntFunction<? extends VertexPriorityQueue> queueFactory;	// Makes the priority queues of the snapshot's searches
+	private final ThreadLocal<PathResult<T>> stackResults = ThreadLocal.withInitial(PathResult::new);	// Paths found for the methods that fill a stack
+
+	public DirectedGraph() {
+		this(new HashedDictionary<>());
+	}	// end default constructor
+
+	/** Creates an empty graph that finds its vertices by label in a given dictionary, such as one
+	 * specialized for the kind of labels used. With an AirportCodeDictionary, snapshots find their
+	 * vertices by packed code as well. Changes to the graph hold its lock, and queries search
+	 * an immutable snapshot that is built outside the lock, so with a ConcurrentHashedDictionary one
+	 * thread may change the graph while others query it.
+	 * @param vertexDictionary An empty dictionary. */
+	public DirectedGraph(DictionaryInterface<T, VertexInterface<T>> vertexDictionary) {
+		vertices = vertexDictionary;
+		airportCodes = vertexDictionary instanceof AirportCodeDictionary;
+		vertexList = new ArrayList<>();
+		edgeCount = 0;
+		queueFactory = null;	// Chosen by each snapshot from its weights
+	}	// end constructor
+
+	/**
+	 * Adds a given vertex to this graph.
+	 * @param vertexLabel An object that labels the new vertex and is distinct from the labels of current vertices.
+	 * @return True if the vertex is added, or false if not.
+	 */
+	@Override
+	public synchronized boolean addVertex(T vertexLabel) {
+		if (vertices.getValue(vertexLabel) != null) {
+			return false;	// Keep the existing vertex and its edges
+		}
+
+		Vertex<T> newVertex = new Vertex<>(vertexLabel, vertexList.size(), vertexList);
+		VertexInterface<T> addOutcome = vertices.add(vertexLabel, newVertex);
+		vertexList.add(newVertex);
+		invalidate();
+		return addOutcome == null;	// Was addition to dictionary successful?
+	}	// end addVertex
+
+	/**
+	 * Adds an unweighted edge between two given distinct vertices that are currently in this graph.
+	 * The desired edge must not already be in the graph. In a directed graph, the edge points toward
+	 * the second vertex given.
+	 * @param begin An object that labels the origin vertex of the edge.
+	 * @param end An object, distinct from begin, that labels the end vertex of the edge.
+	 * @return True if the edge is added, or false if not.
+	 */
+	@Override
+	public boolean addEdge(T begin, T end) {
+		return addEdge(begin, end, 0);
+	}	// end addEdge
+
+	/**
+	 * Adds a weighted edge between two given distinct vertices that are currently in this graph.
+	 * The desired edge must not already be in the graph. In a directed graph, the edge points toward
+	 * the second vertex given.
+	 * @param begin An object that labels the origin vertex of the edge.
+	 * @param end An object, distinct from begin, that labels the end vertex of the edge.
+	 * @param edgeWeight The real value of the edge's weight.
+	 * @return True if the edge is added, or false if not.
+	 */
+	@Override
+	public synchronized boolean addEdge(T begin, T end, double edgeWeight) {
+		boolean result = false;
+		VertexInterface<T> beginVertex = vertices.getValue(begin);	// getValue gets the individual vertex
+		VertexInterface<T> endVertex = vertices.getValue(end);
+		if ((beginVertex != null) && (endVertex != null)) {
+			result = beginVertex.connect(endVertex, edgeWeight);
+		}
+
+		if (result) {
+			edgeCount++;
+			ReachabilityIndex index = reachability;
+			invalidate();
+			if ((index != null) && index.isComplete() && index.canReach(beginVertex.getIndex(), endVertex.getIndex())) {
+				reachability = index;	// The new edge joins vertices already connected, so the index still holds
+			}
+		}
+
+		return result;
+	}	// end addEdge
+
+	/**
+	 * Adds many weighted edges at once, as when a whole list of routes is loaded. The edges are
+	 * grouped by origin with a counting sort and checked for duplicates in one pass, then each
+	 * origin's edges are appended together, and the graph's snapshot is discarded only once.
+	 * As with addEdge, an edge whose ends are not both in this graph, whose ends are the same, or
+	 * that is already in the graph is skipped; when the list repeats an edge, the first one wins.
+	 * @param begins Objects that label the origin vertex of each edge.
+	 * @param ends Objects that label the end vertex of each edge, in the same order.
+	 * @param edgeWeights The weight of each edge, in the same order.
+	 * @return The number of edges added.
+	 */
+	public synchronized int addEdges(List<T> begins, List<T> ends, double[] edgeWeights) {
+		int count = begins.size();
+		if ((ends.size() != count) || (edgeWeights.length != count)) {
+			throw new IllegalArgumentException("Every edge needs an origin, an end and a weight.");
+		}
+
+		int vertexCount = vertexList.size();
+		int[] origins = new int[count];
+		int[] targets = new int[count];
+		int[] originCounts = new int[vertexCount + 1];
+		for (int edge = 0; edge < count; edge++) {
+			VertexInterface<T> beginVertex = vertices.getValue(begins.get(edge));
+			VertexInterface<T> endVertex = vertices.getValue(ends.get(edge));
+			if ((beginVertex == null) || (endVertex == null) || (beginVertex == endVertex)) {
+				origins[edge] = -1;
+			} else {
+				origins[edge] = beginVertex.getIndex();
+				targets[edge] = endVertex.getIndex();
+				originCounts[origins[edge] + 1]++;
+			}
+		}	// end for
+
+		for (int index = 0; index < vertexCount; index++) {	// originCounts[v] becomes the start of v's edges
+			originCounts[index + 1] += originCounts[index];
+		}
+		int[] sortedTargets = new int[originCounts[vertexCount]];
+		double[] sortedWeights = new double[sortedTargets.length];
+		for (int edge = 0; edge < count; edge++) {	// Stable, so each origin's edges keep their order
+			if (origins[edge] >= 0) {
+				int position = originCounts[origins[edge]]++;
+				sortedTargets[position] = targets[edge];
+				sortedWeights[position] = edgeWeights[edge];
+			}
+		}
+
+		int added = 0;
+		int[] seenBy = new int[vertexCount];	// Last origin, plus 1, that has an edge to each vertex
+		int start = 0;
+		for (int index = 0; index < vertexCount; index++) {
+			int end = originCounts[index];	// The pass above moved each start to the next origin's
+			if (end > start) {
+				Vertex<T> beginVertex = vertexList.get(index);
+				for (int edge = 0; edge < beginVertex.getEdgeCount(); edge++) {
+					seenBy[beginVertex.getEdgeTarget(edge)] = index + 1;
+				}
+
+				int kept = start;	// Compact the new edges in place, dropping duplicates
+				for (int position = start; position < end; position++) {
+					int target = sortedTargets[position];
+					if (seenBy[target] != index + 1) {
+						seenBy[target] = index + 1;
+						sortedTargets[kept] = target;
+						sortedWeights[kept] = sortedWeights[position];
+						kept++;
+					}
+				}
+
+				beginVertex.addEdges(sortedTargets, sortedWeights, start, kept);
+				added += kept - start;
+			}	// end if
+			start = end;
+		}	// end for
+
+		if (added > 0) {
+			edgeCount += added;
+			invalidate();
+		}
+
+		return added;
+	}	// end addEdges
+
+	/**
+	 * Sees whether an edge exists between two given vertices.
+	 * @param begin An object that labels the origin vertex of the edge.
+	 * @param end An object that labels the end vertex of the edge.
+	 * @return True if an edge exists.
+	 */
+	@Override
+	public synchronized boolean hasEdge(T begin, T end) {
+		boolean found = false;
+		VertexInterface<T> beginVertex = vertices.getValue(begin);
+		VertexInterface<T> endVertex = vertices.getValue(end);
+		if ((beginVertex != null) && (endVertex != null)) {
+			found = vertexList.get(beginVertex.getIndex()).hasEdgeTo(endVertex.getIndex());
+		}
+
+		return found;
+	}	// end hasEdge
+
+	/**
+	 * Sees whether this graph is empty.
+	 * @return True if the graph is empty.
+	 */
+	@Override
+	public boolean isEmpty() {
+		return vertices.isEmpty();
+	}
+
+	/**
+	 * Gets the number of vertices in this graph.
+	 * @return The number of vertices in the graph.
+	 */
+	@Override
+	public int getNumberOfVertices() {
+		return vertices.getSize();
+	}	// end getNumberOfVertices
+	
+	/**
+	 * Gets the number of edges in this graph.
+	 * @return The number of edges in the graph.
+	 */
+	@Override
+	public int getNumberOfEdges() {
+		return edgeCount;
+	}	// end getNumberOfEdges
+
+	/**
+	 * Removes all vertices and edges from this graph resulting in an empty graph.
+	 */
+	@Override
+	public synchronized void clear() {
+		vertices.clear();
+		vertexList.clear();
+		edgeCount = 0;
+		invalidate();
+	}
+
+	/** Copies this graph into an immutable snapshot whose vertices are numbered by index and whose
+	 * edges are held in primitive arrays. Later changes to this graph do not affect the snapshot.
+	 * The graph's lock is held only while the vertices' edge arrays are gathered; the snapshot is built
+	 * from them after the lock is released, so changes need not wait for it. The snapshot is kept until
+	 * this graph changes, so repeated calls are cheap.
+	 * @return A compressed copy of the vertices and edges in this graph when the call began. */
+	public CompressedGraph<T> freeze() {
+		Version<T> version = current.get();
+		if (version.snapshot != null) {
+			return version.snapshot;
+		}
+
+		GraphCopy<T> copy;
+		synchronized (this) {
+			version = current.get();
+			if (version.snapshot != null) {
+				return version.snapshot;
+			}
+			copy = new GraphCopy<>(vertexList, edgeCount, queueFactory, airportCodes);
+		}
+
+		CompressedGraph<T> result = copy.compress();
+		current.compareAndSet(version, new Version<>(result));	// Kept only if no change came meanwhile
+		return result;
+	}	// end freeze
+
+	/** Discards the snapshot and everything computed from it after this graph changes. */
+	private void invalidate() {
+		current.set(new Version<>(null));
+		landmarks = null;
+		hierarchy = null;
+		distances = null;
+		reachability = null;
+		RouteCache<T> cache = routeCache;
+		if (cache != null) {
+			cache.clear();	// After the snapshot is dropped, so a search of the old graph cannot store its result
+		}
+	}	// end invalidate
+
+	/** Keeps the results of recent calls to getCheapestPath, so that asking again for the same origin
+	 * and destination needs no search. The least recently used routes are dropped when the cache is
+	 * full, and every route is dropped when this graph changes.
+	 * @param capacity The largest number of routes to keep. */
+	public void enableRouteCache(int capacity) {
+		routeCache = new RouteCache<>(capacity);
+	}
+
+	/** Gets the cache made by enableRouteCache, whose hit, miss and eviction counts help choose its capacity.
+	 * @return The route cache, or null if there is none. */
+	public RouteCache<T> getRouteCache() {
+		return routeCache;
+	}
+
+	/** Chooses the priority queue that the searches of getCheapestPath and the preprocessing methods
+	 * use, such as an IndexedMinHeap of some width. By default a BucketQueue or RadixHeap is used when
+	 * every weight is a whole number, and a 4-ary IndexedMinHeap otherwise. Since the queue belongs to
+	 * the snapshot, the snapshot and everything computed from it are discarded, so this is best called
+	 * before any preprocessing.
+	 * @param factory Makes an empty queue for a given number of vertices, or null for the default. */
+	public synchronized void setVertexQueue(IntFunction<? extends VertexPriorityQueue> factory) {
+		queueFactory = factory;
+		invalidate();
+	}	// end setVertexQueue
+
+	/** Chooses landmark vertices and computes the cost of the cheapest paths to and from each one,
+	 * so that getCheapestPath can run as an A* search bounded by the triangle inequality. The tables
+	 * are discarded when this graph changes.
+	 * @param landmarkCount The number of landmarks to use; more landmarks give tighter bounds
+	 * but take more memory and preprocessing time. */
+	public void preprocessLandmarks(int landmarkCount) {
+		landmarks = LandmarkEstimator.create(freeze(), landmarkCount);
+	}
+
+	/** Builds a contraction hierarchy: the vertices are ranked by importance and shortcut edges are added
+	 * so that getCheapestPath only needs to search upward in rank from both ends. The hierarchy is
+	 * discarded when this graph changes. */
+	public void buildContractionHierarchy() {
+		hierarchy = ContractionHierarchy.create(freeze());
+	}
+
+	/** Computes the cost of the cheapest path between every pair of vertices, writes the costs and
+	 * the first hop of each path to a file, and maps that file so that getCheapestPath becomes a table
+	 * lookup. The tables are discarded when this graph changes.
+	 * @param fileName The name of the file to write.
+	 * @throws IOException if the file cannot be written or read back. */
+	public void precomputeAllPairs(String fileName) throws IOException {
+		CompressedGraph<T> graph = freeze();
+		DistanceMatrix.compute(graph, fileName);
+		distances = DistanceMatrix.load(fileName, graph);
+	}	// end precomputeAllPairs
+
+	/** Maps all-pairs tables written by precomputeAllPairs, so they need not be computed again.
+	 * @param fileName The name of the file to read.
+	 * @throws IOException if the file cannot be read or was written for a different graph. */
+	public void loadAllPairs(String fileName) throws IOException {
+		CompressedGraph<T> graph = freeze();
+		distances = DistanceMatrix.load(fileName, graph);
+	}
+
+	/** Sees whether getCheapestPath can use all-pairs tables, a contraction hierarchy or landmarks.
+	 * @return True if some preprocessing result belongs to the current graph. */
+	public boolean isPreprocessed() {
+		CompressedGraph<T> graph = freeze();
+		DistanceMatrix<T> table = distances;
+		ContractionHierarchy<T> shortcuts = hierarchy;
+		LandmarkEstimator estimator = landmarks;
+		return ((table != null) && table.belongsTo(graph))
+			|| ((shortcuts != null) && shortcuts.belongsTo(graph))
+			|| ((estimator != null) && estimator.belongsTo(graph));
+	}	// end isPreprocessed
+
+	/** Writes the landmark tables made by preprocessLandmarks to a file.
+	 * @param fileName The name of the file to write.
+	 * @throws IOException if the file cannot be written.
+	 * @throws IllegalStateException if there are no landmark tables for the current graph. */
+	public void saveLandmarks(String fileName) throws IOException {
+		LandmarkEstimator estimator = landmarks;
+		if ((estimator == null) || !estimator.belongsTo(freeze())) {
+			throw new IllegalStateException("No landmarks have been computed for this graph.");
+		}
+
+		estimator.save(fileName);
+	}	// end saveLandmarks
+
+	/** Reads landmark tables written by saveLandmarks, so the graph need not be preprocessed again.
+	 * @param fileName The name of the file to read.
+	 * @throws IOException if the file cannot be read or was written for a different graph. */
+	public void loadLandmarks(String fileName) throws IOException {
+		CompressedGraph<T> graph = freeze();
+		landmarks = LandmarkEstimator.load(fileName, graph);
+	}
+
+	/** Preforms a breadth-first traversal of this graph.
+	 * @param origin An object that labels the origin vertex of the traversal.
+	 * @return A queue of labels of the vertices in the traversal, with the label
+	 * of the origin vertex at the queue's front. */
+	@Override
+	public QueueInterface<T> getBreadthFirstTraversal(T origin) {
+		CompressedGraph<T> graph = freeze();
+		int originIndex = indexOf(origin, graph);
+		if (originIndex < 0) {
+			return new ArrayQueue<>();
+		}
+
+		return graph.getBreadthFirstTraversal(originIndex);
+	}	// end getBreadthFirstTraversal
+
+	/** Preforms a depth-first traversal of this graph.
+	 * @param origin An object that labels the origin vertex of the traversal.
+	 * @return A queue of labels of the vertices in the traversal, with the label of the origin vertex at the queue's front. */
+	@Override
+	public QueueInterface<T> getDepthFirstTraversal(T origin) {
+		CompressedGraph<T> graph = freeze();
+		int originIndex = indexOf(origin, graph);
+		if (originIndex < 0) {
+			return new ArrayQueue<>();
+		}
+
+		return graph.getDepthFirstTraversal(originIndex);
+	}	// end getDepthFirstTraversal
+
+	/** Preforms a topological sort of the vertices in this graph without cycles.
+	 * @return A stack of vertex labels in topological order, beginning with the stack's top. */
+	@Override
+	public StackInterface<T> getTopologicalOrder() {
+		throw new UnsupportedOperationException();
+	}
+
+	/** Finds the shortest-length path between two given vertices in this graph.
+	 * @param begin An object that labels the path's origin vertex.
+	 * @param end An object that labels the path's destination vertex.
+	 * @param path A stack of labels that is empty initially; at the completion of the method, this stack contains the 
+	 * 	labels of the vertices along the shortest path; the label of the origin vertex is at the top, and the 
+	 * 	label of the desination vertex is at the bottom.
+	 * @return The length of the shortest path, or -1 if there is no such path. */
+	@Override
+	public int getShortestPath(T begin, T end, StackInterface<T> path) {
+		PathResult<T> result = stackResults.get();
+		int edgeCount = getShortestPath(begin, end, result);
+		result.pushLabels(path);
+		result.clear();	// So the thread does not keep the snapshot alive
+		return edgeCount;
+	}	// end getShortestPath
+
+	/** Finds the shortest-length path between two given vertices in this graph into a result that can
+	 * be reused from query to query.
+	 * @param begin An object that labels the path's origin vertex.
+	 * @param end An object that labels the path's destination vertex.
+	 * @param result Receives the vertices along the path and the weight of each edge, or is cleared if
+	 * there is no path.
+	 * @return The length of the shortest path, or -1 if there is no such path. */
+	public int getShortestPath(T begin, T end, PathResult<T> result) {
+		CompressedGraph<T> graph = freeze();
+		int beginIndex = indexOf(begin, graph);
+		int endIndex = indexOf(end, graph);
+		if ((beginIndex < 0) || (endIndex < 0) || !canReach(graph, beginIndex, endIndex)) {
+			result.clear();
+			return -1;
+		}
+
+		return graph.getShortestPath(beginIndex, endIndex, result);
+	}	// end getShortestPath
+
+	/** Finds the least-cost path between two given vertices in this graph.
+	 * @param begin An object that labels the path's origin vertex.
+	 * @param end An object that labels the path's destination vertex.
+	 * @param pat A stack of labels that is empty initially; at the completion of the method, this stack contains the labels of the vertices along
+	 * the cheapest path; the label of the origin vertex is at the top, and the label of the destination vertex is at the bottom.
+	 * @return The cost of the cheapest path. */
+	@Override
+	public double getCheapestPath(T begin, T end, StackInterface<T> path) {
+		PathResult<T> result = stackResults.get();
+		double cost = getCheapestPath(begin, end, result);
+		result.pushLabels(path);
+		result.clear();	// So the thread does not keep the snapshot alive
+		return cost;
+	}	// end getCheapestPath
+
+	/** Finds the least-cost path between two given vertices in this graph into a result that can be
+	 * reused from query to query. Once the result and the searching thread's buffers are large enough,
+	 * a query allocates nothing for its path, except that the route cache, if enabled, stores a copy
+	 * of each path it has not seen.
+	 * @param begin An object that labels the path's origin vertex.
+	 * @param end An object that labels the path's destination vertex.
+	 * @param result Receives the vertices along the cheapest path and the weight of each edge, or is
+	 * cleared if there is no path.
+	 * @return The cost of the cheapest path, or -1 if there is no such path. */
+	public double getCheapestPath(T begin, T end, PathResult<T> result) {
+		RouteCache<T> cache = routeCache;
+		long generation = (cache == null) ? 0 : cache.getGeneration();	// Read before the snapshot
+		CompressedGraph<T> graph = freeze();	// Search state lives in the snapshot's per-thread context, not in the vertices
+		int beginIndex = indexOf(begin, graph);
+		int endIndex = indexOf(end, graph);
+		if ((beginIndex < 0) || (endIndex < 0) || !canReach(graph, beginIndex, endIndex)) {
+			result.clear();
+			return -1;
+		}
+
+		if (cache == null) {
+			return findCheapestPath(graph, beginIndex, endIndex, result);
+		}
+
+		RouteCache.Route<T> route = cache.get(beginIndex, endIndex);
+		if (route == null) {
+			double cost = findCheapestPath(graph, beginIndex, endIndex, result);
+			cache.put(beginIndex, endIndex, new RouteCache.Route<>(graph, result.copyVertices(), cost), generation);
+			return cost;
+		}
+
+		route.copyTo(result);
+		return route.getCost();
+	}	// end getCheapestPath
+
+	/** Finds a cheapest path with the fastest method available for a snapshot: all-pairs tables, then a
+	 * contraction hierarchy, then landmarks, then great-circle A*, and otherwise a bidirectional search. */
+	private double findCheapestPath(CompressedGraph<T> graph, int beginIndex, int endIndex, PathResult<T> result) {
+		DistanceMatrix<T> table = distances;
+		if ((table != null) && table.belongsTo(graph)) {
+			return table.getCheapestPath(beginIndex, endIndex, result);
+		}
+
+		ContractionHierarchy<T> shortcuts = hierarchy;
+		if ((shortcuts != null) && shortcuts.belongsTo(graph)) {
+			return shortcuts.getCheapestPath(beginIndex, endIndex, result);
+		}
+
+		LandmarkEstimator estimator = landmarks;
+		if ((estimator != null) && estimator.belongsTo(graph)) {
+			return graph.getCheapestPath(beginIndex, endIndex, estimator, result);
+		}
+
+		if (graph.hasLocations()) {
+			return graph.getCheapestPath(beginIndex, endIndex, graph.getGreatCircleEstimator(), result);
+		}
+
+		return graph.getCheapestPathBidirectional(beginIndex, endIndex, result);
+	}	// end findCheapestPath
+
+	/** Finds the least-cost paths from one given vertex to each of several others with a single search,
+	 * which stops as soon as every destination is settled.
+	 * @param begin An object that labels the paths' origin vertex.
+	 * @param ends A list of labels of the destination vertices.
+	 * @return The cost of and the predecessor on the cheapest path to each destination, in the order of the list. */
+	@Override
+	public OneToManyResult<T> getCheapestPaths(T begin, List<T> ends) {
+		CompressedGraph<T> graph = freeze();
+		int[] endIndices = new int[ends.size()];
+		for (int index = 0; index < endIndices.length; index++) {
+			endIndices[index] = indexOf(ends.get(index), graph);
+		}
+
+		return graph.getCheapestPaths(indexOf(begin, graph), endIndices, ends);
+	}	// end getCheapestPaths
+
+	/** Finds the cheapest few paths between two given vertices that do not visit any vertex twice,
+	 * such as alternatives to a route whose best path cannot be used.
+	 * @param begin An object that labels the paths' origin vertex.
+	 * @param end An object that labels the paths' destination vertex.
+	 * @param pathCount The largest number of paths wanted.
+	 * @return Up to pathCount paths in order of increasing cost; none if there is no path. */
+	public AlternativeRoutes<T> getAlternativePaths(T begin, T end, int pathCount) {
+		CompressedGraph<T> graph = freeze();
+		return AlternativeRoutes.find(graph, indexOf(begin, graph), indexOf(end, graph), pathCount);
+	}
+
+	/** Finds the cost of the cheapest path from each of several vertices to each of several others.
+	 * The costs are joined from upward searches in a contraction hierarchy, which is built first if
+	 * this graph does not have one, or are read from all-pairs tables if those have been computed.
+	 * @param begins A list of labels of the origin vertices.
+	 * @param ends A list of labels of the destination vertices.
+	 * @return A table whose entry [i][j] is the cost of the cheapest path from the i-th origin
+	 * to the j-th destination, or -1 if there is no such path. */
+	public double[][] getCheapestPathCosts(List<T> begins, List<T> ends) {
+		CompressedGraph<T> graph = freeze();
+		int[] beginIndices = new int[begins.size()];
+		for (int index = 0; index < beginIndices.length; index++) {
+			beginIndices[index] = indexOf(begins.get(index), graph);
+		}
+		int[] endIndices = new int[ends.size()];
+		for (int index = 0; index < endIndices.length; index++) {
+			endIndices[index] = indexOf(ends.get(index), graph);
+		}
+
+		DistanceMatrix<T> table = distances;
+		if ((table != null) && table.belongsTo(graph)) {
+			return table.getCostTable(beginIndices, endIndices);
+		}
+
+		ContractionHierarchy<T> shortcuts = hierarchy;
+		if ((shortcuts == null) || !shortcuts.belongsTo(graph)) {
+			shortcuts = ContractionHierarchy.create(graph);
+			hierarchy = shortcuts;
+		}
+
+		return shortcuts.getCostTable(beginIndices, endIndices);
+	}	// end getCheapestPathCosts
+
+	/** Records the geographic location of a given vertex, for use by getCheapestPathAStar.
+	 * @param vertexLabel An object that labels a vertex in this graph.
+	 * @param latitude The latitude in degrees.
+	 * @param longitude The longitude in degrees.
+	 * @return True if the location is recorded, or false if the vertex is not in the graph. */
+	public synchronized boolean setLocation(T vertexLabel, double latitude, double longitude) {
+		VertexInterface<T> vertex = vertices.getValue(vertexLabel);
+		if (vertex == null) {
+			return false;
+		}
+
+		vertex.setLocation(latitude, longitude);
+		invalidate();
+		return true;
+	}	// end setLocation
+
+	/** Sees whether every vertex in this graph has a geographic location.
+	 * @return True if getCheapestPathAStar can steer by great-circle distance. */
+	public boolean hasLocations() {
+		return freeze().hasLocations();
+	}
+
+	/** Finds the least-cost path between two given vertices with an A* search guided by the great-circle
+	 * distance between vertex locations, which is a lower bound on the cost when edge weights are miles.
+	 * If some vertex has no location, the search is a plain Dijkstra search.
+	 * @param begin An object that labels the path's origin vertex.
+	 * @param end An object that labels the path's destination vertex.
+	 * @param path A stack of labels that is empty initially; at the completion of the method, this stack contains the labels of the vertices along
+	 * the cheapest path; the label of the origin vertex is at the top, and the label of the destination vertex is at the bottom.
+	 * @return The cost of the cheapest path, or -1 if there is no such path. */
+	public double getCheapestPathAStar(T begin, T end, StackInterface<T> path) {
+		return freeze().getCheapestPathAStar(begin, end, path);
+	}
+
+	/** Finds the least-cost path between two given vertices by searching forward from the origin and
+	 * backward from the destination until the two searches meet. This settles fewer vertices than
+	 * a one-directional search when only one origin and destination are of interest.
+	 * @param begin An object that labels the path's origin vertex.
+	 * @param end An object that labels the path's destination vertex.
+	 * @param path A stack of labels that is empty initially; at the completion of the method, this stack contains the labels of the vertices along
+	 * the cheapest path; the label of the origin vertex is at the top, and the label of the destination vertex is at the bottom.
+	 * @return The cost of the cheapest path, or -1 if there is no such path. */
+	public double getCheapestPathBidirectional(T begin, T end, StackInterface<T> path) {
+		return freeze().getCheapestPathBidirectional(begin, end, path);
+	}
+
+	/** Sees whether a path may lead between two vertices of a snapshot, so that a search is only run
+	 * when it might find one. The strongly connected components are indexed on first use. A stored
+	 * index always describes the current graph: it is published under the graph's lock only while
+	 * its snapshot is current, and invalidate drops it, except that addEdge keeps it when the new edge
+	 * joins vertices it already connects.
+	 * @return False if there is certainly no path. */
+	private boolean canReach(CompressedGraph<T> graph, int beginIndex, int endIndex) {
+		ReachabilityIndex index = reachability;
+		if ((index == null) || (index.getNumberOfVertices() != graph.getNumberOfVertices())) {
+			index = ReachabilityIndex.create(graph);
+			synchronized (this) {	// Every change calls invalidate under this lock, so none can come between the check and the store
+				if (current.get().snapshot == graph) {	// Keep it only if the graph has not changed meanwhile
+					reachability = index;
+				}
+			}
+		}
+
+		return index.canReach(beginIndex, endIndex);
+	}	// end canReach
+
+	/** Finds the index of a labeled vertex within a given snapshot of this graph. The snapshot's own
+	 * map is used, since after clear the live vertices may number the same labels differently.
+	 * @return The vertex's index, or -1 if the vertex is not in the snapshot. */
+	private int indexOf(T vertexLabel, CompressedGraph<T> graph) {
+		return graph.getIndex(vertexLabel);
+	}
+
+	/** One version of this graph, which every change replaces, with its snapshot once one is built. */
+	private static final class Version<T> {
+		private final CompressedGraph<T> snapshot;	// Null until a snapshot of this version is published
+
+		private Version(CompressedGraph<T> snapshot) {
+			this.snapshot = snapshot;
+		}
+	}	// end Version
+
+	/** The vertices of a graph gathered under its lock, so that a snapshot can be built from them
+	 * without it. Each vertex's edge arrays are kept rather than copied, since a vertex only appends
+	 * edges past the count taken here. */
+	private static final class GraphCopy<T> {
+		private final T[] labels;
+		private final double[] latitudes;
+		private final double[] longitudes;
+		private final int[][] edgeTargets;	// Each vertex's array of edge ends
+		private final double[][] edgeWeights;	// Each vertex's array of edge weights
+		private final int[] edgeCounts;	// Each vertex's number of edges when gathered
+		private final int edgeCount;
+		private final IntFunction<? extends VertexPriorityQueue> queueFactory;
+		private final boolean airportCodes;
+
+		private GraphCopy(List<Vertex<T>> vertexList, int edgeCount, IntFunction<? extends VertexPriorityQueue> queueFactory, boolean airportCodes) {
+			int vertexCount = vertexList.size();
+			@SuppressWarnings("unchecked")
+			T[] vertexLabels = (T[]) new Object[vertexCount];
+			labels = vertexLabels;
+			latitudes = new double[vertexCount];
+			longitudes = new double[vertexCount];
+			edgeTargets = new int[vertexCount][];
+			edgeWeights = new double[vertexCount][];
+			edgeCounts = new int[vertexCount];
+			for (int index = 0; index < vertexCount; index++) {
+				Vertex<T> nextVertex = vertexList.get(index);
+				labels[index] = nextVertex.getLabel();
+				latitudes[index] = nextVertex.getLatitude();
+				longitudes[index] = nextVertex.getLongitude();
+				edgeTargets[index] = nextVertex.getEdgeTargets();
+				edgeWeights[index] = nextVertex.getEdgeWeights();
+				edgeCounts[index] = nextVertex.getEdgeCount();
+			}
+			this.edgeCount = edgeCount;
+			this.queueFactory = queueFactory;
+			this.airportCodes = airportCodes;
+		}	// end constructor
+
+		private CompressedGraph<T> compress() {
+			int vertexCount = labels.length;
+			int[] offsets = new int[vertexCount + 1];
+			int[] targets = new int[edgeCount];
+			double[] weights = new double[edgeCount];
+
+			int edgeIndex = 0;
+			for (int index = 0; index < vertexCount; index++) {
+				offsets[index] = edgeIndex;
+				System.arraycopy(edgeTargets[index], 0, targets, edgeIndex, edgeCounts[index]);
+				System.arraycopy(edgeWeights[index], 0, weights, edgeIndex, edgeCounts[index]);
+				edgeIndex += edgeCounts[index];
+			}
+			offsets[vertexCount] = edgeIndex;
+
+			return new CompressedGraph<>(labels, offsets, targets, weights, latitudes, longitudes, queueFactory, airportCodes);
+		}	// end compress
+	}	// end GraphCopy
+
+}	// end DirectedGraph
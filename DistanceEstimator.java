@@ -0,0 +1,15 @@
+/** An interface for a lower bound on the cost of travel between two vertices of a
+ * CompressedGraph, used to steer an A* search toward its destination. An estimate must
+ * never exceed the true cost, and for any edge from u to v the estimate from u may exceed
+ * the estimate from v by at most the edge's weight.
+ */
+interface DistanceEstimator {
+
+	/** Estimates the cost of the cheapest path between two vertices.
+	 * @param vertex The index of the vertex the path starts from.
+	 * @param target The index of the destination vertex.
+	 * @return A lower bound on the cost of the cheapest path.
+	 */
+	public double estimate(int vertex, int target);
+
+}	// end DistanceEstimator
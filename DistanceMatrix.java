@@ -0,0 +1,212 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/** The cost of the cheapest path between every pair of vertices of a CompressedGraph, together with
+ * the first vertex after the origin on each path. The tables live in a flat binary file that is
+ * memory-mapped, so a lookup is an array read and a path is rebuilt by following first hops.
+ * <p>File layout: a header of magic number, graph fingerprint and vertex count, then the n * n costs
+ * as doubles by origin row, then the n * n first hops as ints (-1 if there is none).
+ * @param <T> The type of the vertex labels
+ */
+final class DistanceMatrix<T> {
+
+	private static final int FILE_MAGIC = 0x41505331;	// "APS1"
+	private static final int HEADER_BYTES = 4 + 8 + 4;
+	private static final int MAX_VERTICES = 16383;	// Largest n whose cost table fits in one mapping
+	private static final int UNKNOWN = -2;	// First hop not yet worked out
+
+	private final CompressedGraph<T> graph;	// The graph the tables belong to
+	private final int vertexCount;
+	private final DoubleBuffer costs;	// Cost from row origin to column destination
+	private final IntBuffer firstHops;	// Vertex after the origin on that path, or -1
+
+	private DistanceMatrix(CompressedGraph<T> graph, DoubleBuffer costs, IntBuffer firstHops) {
+		this.graph = graph;
+		this.vertexCount = graph.getNumberOfVertices();
+		this.costs = costs;
+		this.firstHops = firstHops;
+	}	// end constructor
+
+	/** Runs one Dijkstra search per origin on the common fork-join pool and writes each row of
+	 * the tables to a file as soon as it is ready.
+	 * @param graph The graph to precompute.
+	 * @param fileName The name of the file to write.
+	 * @throws IOException if the file cannot be written. */
+	static void compute(CompressedGraph<?> graph, String fileName) throws IOException {
+		int vertexCount = graph.getNumberOfVertices();
+		if (vertexCount > MAX_VERTICES) {
+			throw new IllegalArgumentException("A distance matrix supports at most " + MAX_VERTICES + " vertices.");
+		}
+
+		long costBytes = 8L * vertexCount * vertexCount;
+		try (FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+			header.putInt(FILE_MAGIC).putLong(graph.getFingerprint()).putInt(vertexCount).flip();
+			write(channel, header, 0);
+
+			IntStream.range(0, vertexCount).parallel().forEach(origin -> {
+				SearchContext context = graph.getContext();
+				graph.search(origin, -1, context);
+
+				ByteBuffer costRow = ByteBuffer.allocate(8 * vertexCount);
+				ByteBuffer hopRow = ByteBuffer.allocate(4 * vertexCount);
+				int[] hops = firstHops(origin, context, vertexCount);
+				for (int destination = 0; destination < vertexCount; destination++) {
+					costRow.putDouble(context.isSettled(destination) ? context.getCost(destination) : Double.POSITIVE_INFINITY);
+					hopRow.putInt(hops[destination]);
+				}
+				costRow.flip();
+				hopRow.flip();
+
+				try {
+					write(channel, costRow, HEADER_BYTES + 8L * vertexCount * origin);
+					write(channel, hopRow, HEADER_BYTES + costBytes + 4L * vertexCount * origin);
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}	// end compute
+
+	/** Finds the first vertex after the origin on the path to each vertex settled by a search. */
+	private static int[] firstHops(int origin, SearchContext context, int vertexCount) {
+		int[] hops = new int[vertexCount];
+		Arrays.fill(hops, UNKNOWN);
+		hops[origin] = -1;
+		int[] chain = new int[16];
+
+		for (int vertex = 0; vertex < vertexCount; vertex++) {
+			if (!context.isSettled(vertex)) {
+				hops[vertex] = -1;
+			} else if (hops[vertex] == UNKNOWN) {
+				// Walk toward the origin until a vertex whose first hop is known, then share it along the way
+				int chainLength = 0;
+				int current = vertex;
+				while ((hops[current] == UNKNOWN) && (context.getPredecessor(current) != origin)) {
+					if (chainLength == chain.length) {
+						chain = Arrays.copyOf(chain, 2 * chainLength);
+					}
+					chain[chainLength++] = current;
+					current = context.getPredecessor(current);
+				}
+				if (hops[current] == UNKNOWN) {
+					hops[current] = current;	// Its predecessor is the origin
+				}
+
+				for (int index = 0; index < chainLength; index++) {
+					hops[chain[index]] = hops[current];
+				}
+			}
+		}	// end for
+
+		return hops;
+	}	// end firstHops
+
+	private static void write(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+		while (buffer.hasRemaining()) {
+			position += channel.write(buffer, position);
+		}
+	}
+
+	/** Maps a file written by compute.
+	 * @param fileName The name of the file to read.
+	 * @param graph The graph the tables are for.
+	 * @return The tables stored in the file.
+	 * @throws IOException if the file cannot be read or was written for a different graph. */
+	static <T> DistanceMatrix<T> load(String fileName, CompressedGraph<T> graph) throws IOException {
+		try (FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ)) {
+			ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+			while (header.hasRemaining() && (channel.read(header, header.position()) > 0)) {
+				// Keep reading until the header is complete
+			}
+			header.flip();
+			if ((header.remaining() < HEADER_BYTES) || (header.getInt() != FILE_MAGIC)) {
+				throw new IOException(fileName + " is not a distance matrix file.");
+			}
+			if ((header.getLong() != graph.getFingerprint()) || (header.getInt() != graph.getNumberOfVertices())) {
+				throw new IOException(fileName + " was written for a different graph.");
+			}
+
+			int vertexCount = graph.getNumberOfVertices();
+			long costBytes = 8L * vertexCount * vertexCount;
+			long hopBytes = 4L * vertexCount * vertexCount;
+			if (channel.size() < HEADER_BYTES + costBytes + hopBytes) {
+				throw new IOException(fileName + " is truncated.");
+			}
+
+			// The mappings stay valid after the channel is closed
+			DoubleBuffer costs = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES, costBytes).asDoubleBuffer();
+			IntBuffer firstHops = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES + costBytes, hopBytes).asIntBuffer();
+			return new DistanceMatrix<>(graph, costs, firstHops);
+		}
+	}	// end load
+
+	/** Sees whether these tables belong to a given snapshot.
+	 * @param snapshot A compressed graph.
+	 * @return True if the tables were loaded for that snapshot. */
+	boolean belongsTo(CompressedGraph<?> snapshot) {
+		return graph == snapshot;
+	}
+
+	/** Looks up the cost of the cheapest path from each of several origins to each of several destinations.
+	 * @param begins The indices of the origin vertices; -1 stands for one not in the graph.
+	 * @param ends The indices of the destination vertices; -1 stands for one not in the graph.
+	 * @return A table whose entry [i][j] is the cost from origin i to destination j, or -1 if there is no path. */
+	double[][] getCostTable(int[] begins, int[] ends) {
+		double[][] table = new double[begins.length][ends.length];
+		for (int row = 0; row < begins.length; row++) {
+			for (int column = 0; column < ends.length; column++) {
+				double cost = Double.POSITIVE_INFINITY;
+				if ((begins[row] >= 0) && (ends[column] >= 0)) {
+					cost = costs.get(begins[row] * vertexCount + ends[column]);
+				}
+				table[row][column] = (cost == Double.POSITIVE_INFINITY) ? -1 : cost;
+			}
+		}
+
+		return table;
+	}	// end getCostTable
+
+	/** Looks up the least-cost path between two vertices given by index.
+	 * @param begin The index of the path's origin vertex.
+	 * @param end The index of the path's destination vertex.
+	 * @param result Receives the cheapest path, or is cleared if there is none.
+	 * @return The cost of the cheapest path, or -1 if there is no such path. */
+	double getCheapestPath(int begin, int end, PathResult<T> result) {
+		int row = begin * vertexCount;
+		double cost = costs.get(row + end);
+		if (cost == Double.POSITIVE_INFINITY) {
+			result.clear();
+			return -1;
+		}
+
+		int hopCount = 0;
+		for (int vertex = begin; vertex != end; vertex = firstHops.get(vertex * vertexCount + end)) {
+			hopCount++;
+			if (hopCount > vertexCount) {	// Ties along zero-weight edges can make first hops circle
+				return graph.getCheapestPath(begin, end, null, result);
+			}
+		}
+		int[] route = result.reserve(graph, hopCount + 1);
+		int position = 0;
+		for (int vertex = begin; vertex != end; vertex = firstHops.get(vertex * vertexCount + end)) {
+			route[position++] = vertex;
+		}
+		route[position] = end;
+		result.finish(cost);
+
+		return cost;
+	}	// end getCheapestPath
+
+}	// end DistanceMatrix
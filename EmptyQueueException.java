@@ -0,0 +1,17 @@
+/**
+ * A class of runtime exceptions thrown when an attempt is made to access or remove
+ * the front of a queue that is empty.
+ */
+public class EmptyQueueException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	public EmptyQueueException() {
+		this(null);
+	}
+
+	public EmptyQueueException(String message) {
+		super(message);
+	}
+
+}	// end EmptyQueueException
@@ -4,46 +4,43 @@ import java.io.IOException;
 
 public class Flights {
 
+	private static final int ROUTE_CACHE_CAPACITY = 1024;
+
 	public static void main(String[] args) {
 
-		GraphInterface<String> routes = new DirectedGraph<>();
-		DictionaryInterface<String, String> airports = new HashedDictionary<>();
-		
-		// Adding airports to the HashedDictionary
-		try {	
-			Scanner apCodes = new Scanner(new File("US_Airport_Codes.csv"));	// Opening airport csv file.
-			
-			while (apCodes.hasNextLine()) {
-				String nextLine = apCodes.nextLine();
-				if (!nextLine.isEmpty()) {
-					String[] token = nextLine.split(",");
-					airports.add(token[0], token[1]);
-					routes.addVertex(token[0]);
-				}	
-			}
-			apCodes.close();
+		DirectedGraph<String> routes = new DirectedGraph<>(new AirportCodeDictionary<>());	// Airport codes index arrays directly
+
+		// Adding airports and routes to the graph; the airport file and every route shard are read at once.
+		// Airport names stay in the mapped file until they are printed
+		RouteLoader loader = new RouteLoader(routes);
+		try {
+			loader.load("US_Airport_Codes.csv", RouteLoader.findShards(".", "US_Airports_Routes"));
 		} catch (IOException e) {
 			System.out.println(e.getMessage());
 		}
+		AirportMetadata airports = loader.getAirports();
 
-		// Adding routes for the airport to the PartialDirectedGraph
-		try {
-			Scanner apRoutes = new Scanner(new File("US_Airports_Routes.csv"));	// Opening airport csv file.
-
-			while (apRoutes.hasNextLine()) {
-				String[] token = apRoutes.nextLine().split(",");
-				routes.addEdge(token[0], token[1], Double.parseDouble(token[2]));
+		// An optional argument names a file of precomputed distances between every pair of airports
+		if (args.length > 0) {
+			try {
+				if (new File(args[0]).exists()) {
+					routes.loadAllPairs(args[0]);
+				} else {
+					routes.precomputeAllPairs(args[0]);
+				}
+			} catch (IOException e) {
+				System.out.println(e.getMessage());
 			}
-			apRoutes.close();
-		} catch (IOException e) {
-			System.out.println(e.getMessage());
 		}
 
+		routes.enableRouteCache(ROUTE_CACHE_CAPACITY);	// Popular airport pairs are asked for again and again
+
 		System.out.println("Cheap Flights v0.25s by R. Castro\n");
 		
 		Scanner s = new Scanner(System.in);
+		PathResult<String> route = new PathResult<>();	// Reused by every D and F query
 		String CMD = "";
-		while (!CMD.equals("e")) {	// Loops and checks for E, Q, D, and H character inputs if those aren't found then reprompts for correct command.
+		while (!CMD.equals("e")) {	// Loops and checks for E, Q, D, F, and H character inputs if those aren't found then reprompts for correct command.
 
 			System.out.print("Command? ");
 			String nextCommand = s.nextLine().toLowerCase();
@@ -54,11 +51,11 @@ public class Flights {
 				System.out.print("Airport code? ");
 				
 				String airportCode = s.nextLine();
-				String airportValue = airports.getValue(airportCode);
+				String airportValue = airports.getName(airportCode);
 				if (airportValue == null) {
 					System.out.println("Airport code unknown");	
 				} else {
-					System.out.println(airports.getValue(airportCode));	
+					System.out.println(airportValue);	
 				}
 
 				
@@ -73,21 +70,45 @@ public class Flights {
 				String originVertex = verticies[0];
 				String endVertex = verticies[1];
 				
-				String airportCodeOrigin = airports.getValue(originVertex);
-				String airportCodeEnd = airports.getValue(endVertex);
-				if (airportCodeOrigin == null || airportCodeEnd == null) {
+				if (!airports.contains(originVertex) || !airports.contains(endVertex)) {
 					System.out.println("One or more Airport codes unknown");
 					continue;
 				}
 
-				StackInterface<String> route = new ArrayStack<>();
-				double distance = routes.getCheapestPath(originVertex, endVertex, route);
+				double distance = routes.getCheapestPath(originVertex, endVertex, route);	// Uses the fastest method available
 				if (distance != -1) {
 					System.out.printf("The shortest distance between %s and %s is %d:\n", originVertex, endVertex, (int) distance);
 					
-					while (!route.isEmpty()) {
-						String airportCode = route.pop();
-						System.out.printf("%s [%s]\n",airports.getValue(airportCode), airportCode);
+					for (int stop = 0; stop < route.getNumberOfVertices(); stop++) {
+						String airportCode = route.getLabel(stop);
+						System.out.printf("%s [%s]\n",airports.getName(airportCode), airportCode);
+					}
+				} else {
+					System.out.println("Airports not connected");
+				}
+				continue;
+			} else if (nextCommand.equals("f")) {	// Finds the route between two airports with the fewest flights.
+				System.out.print("Airport codes from to? ");
+				String[] verticies = s.nextLine().split(" ");
+				if (verticies.length < 2) {
+					System.out.println("Only one airport was specified");
+					continue;
+				}
+				String originVertex = verticies[0];
+				String endVertex = verticies[1];
+
+				if (!airports.contains(originVertex) || !airports.contains(endVertex)) {
+					System.out.println("One or more Airport codes unknown");
+					continue;
+				}
+
+				int flights = routes.getShortestPath(originVertex, endVertex, route);
+				if (flights != -1) {
+					System.out.printf("The fewest flights between %s and %s is %d:\n", originVertex, endVertex, flights);
+
+					for (int stop = 0; stop < route.getNumberOfVertices(); stop++) {
+						String airportCode = route.getLabel(stop);
+						System.out.printf("%s [%s]\n",airports.getName(airportCode), airportCode);
 					}
 				} else {
 					System.out.println("Airports not connected");
@@ -96,6 +117,7 @@ public class Flights {
 			} else if (nextCommand.equals("h")) {
 				System.out.println("Q Query the airport information by entering the airport code.\r\n" +
 				"D Find the minimum distance between two airports.\r\n" +
+				"F Find the fewest flights between two airports.\r\n" +
 				"H Display this message.\r\n" +
 				"E Exit");
 				continue;
@@ -1,3 +1,5 @@
+import java.util.List;
+
 public interface GraphAlgorithmsInterface<T> {
 	
 	/** Preforms a breadth-first traversal of this graph.
@@ -32,4 +34,10 @@ public interface GraphAlgorithmsInterface<T> {
 	 * @return The cost of the cheapest path. */
 	public double getCheapestPath(T begin, T end, StackInterface<T> path);
 
+	/** Finds the least-cost paths from one given vertex to each of several others in this graph.
+	 * @param begin An object that labels the paths' origin vertex.
+	 * @param ends A list of labels of the destination vertices.
+	 * @return The cost of and the predecessor on the cheapest path to each destination, in the order of the list. */
+	public OneToManyResult<T> getCheapestPaths(T begin, List<T> ends);
+
 }	// end GraphAlgorithmsInterface
@@ -0,0 +1,59 @@
+/** Estimates travel cost as the great-circle distance in miles between two vertices' locations.
+ * The distance is scaled down by the smallest ratio of edge weight to great-circle length found
+ * among the graph's edges, so the estimate stays a lower bound even when some routes are listed
+ * as shorter than the distance between their airports.
+ */
+final class GreatCircleEstimator implements DistanceEstimator {
+
+	private static final double EARTH_RADIUS_MILES = 3958.8;
+
+	private final double[] latitudes;	// In radians
+	private final double[] longitudes;	// In radians
+	private final double[] cosLatitudes;
+	private final double scale;
+
+	/** Creates an estimator for a graph whose vertices all have locations.
+	 * @param latitudeDegrees The latitude of each vertex in degrees.
+	 * @param longitudeDegrees The longitude of each vertex in degrees.
+	 * @param offsets The start of each vertex's edges, followed by the number of edges.
+	 * @param targets The end vertex of each edge.
+	 * @param weights The weight of each edge.
+	 */
+	GreatCircleEstimator(double[] latitudeDegrees, double[] longitudeDegrees, int[] offsets, int[] targets, double[] weights) {
+		int vertexCount = latitudeDegrees.length;
+		latitudes = new double[vertexCount];
+		longitudes = new double[vertexCount];
+		cosLatitudes = new double[vertexCount];
+		for (int index = 0; index < vertexCount; index++) {
+			latitudes[index] = Math.toRadians(latitudeDegrees[index]);
+			longitudes[index] = Math.toRadians(longitudeDegrees[index]);
+			cosLatitudes[index] = Math.cos(latitudes[index]);
+		}
+
+		double smallestRatio = 1.0;
+		for (int index = 0; index < vertexCount; index++) {
+			for (int edge = offsets[index]; edge < offsets[index + 1]; edge++) {
+				double miles = distance(index, targets[edge]);
+				if ((miles > 0) && (weights[edge] < miles * smallestRatio)) {
+					smallestRatio = Math.max(0.0, weights[edge] / miles);
+				}
+			}
+		}	// end for
+		scale = smallestRatio * 0.999999;	// Leave room for rounding in the distance computation
+	}	// end constructor
+
+	@Override
+	public double estimate(int vertex, int target) {
+		return scale * distance(vertex, target);
+	}
+
+	/** Computes the haversine distance in miles between two vertices. */
+	private double distance(int first, int second) {
+		double sinHalfLatitude = Math.sin((latitudes[second] - latitudes[first]) / 2);
+		double sinHalfLongitude = Math.sin((longitudes[second] - longitudes[first]) / 2);
+		double chord = sinHalfLatitude * sinHalfLatitude
+			+ cosLatitudes[first] * cosLatitudes[second] * sinHalfLongitude * sinHalfLongitude;
+		return 2 * EARTH_RADIUS_MILES * Math.asin(Math.min(1.0, Math.sqrt(chord)));
+	}	// end distance
+
+}	// end GreatCircleEstimator
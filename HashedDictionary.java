@@ -1,34 +1,49 @@
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 
+/** A dictionary kept in an open-addressing hash table with Robin Hood linear probing. An entry that
+ * has probed farther from its home slot takes the place of one that has probed less, which keeps
+ * every entry close to home, so a search can stop as soon as it passes entries nearer their homes
+ * than it is. Removal shifts the following entries back instead of leaving tombstones. The table
+ * size is a power of two and hash codes are mixed before use, so a slot is found by masking.
+ * @param <K> The type of the keys
+ * @param <V> The type of the values
+ */
 public class HashedDictionary<K,V> implements DictionaryInterface<K,V> {
 
 	private int numberOfEntries;
 	private int collisionCount;
 	private static final int DEFAULT_CAPACITY = 444;
-	private static final int MAX_CAPACITY = 10000;
-	private int tableSize;
-	private Entry<K,V>[] hashTable;
+	private static final int MAX_CAPACITY = 1 << 30;	// Largest power-of-two table an array can hold
+	private static final double MAX_LOAD_FACTOR = 0.75;
+	private static final int MAX_PROBE_LENGTH = 64;	// A longer probe enlarges a table that is not nearly empty
+	private Object[] keys;	// Key in each slot, or null if the slot is empty
+	private Object[] values;	// Value in each slot
+	private int[] hashes;	// Mixed hash code of the key in each slot
+	private int resizeThreshold;
 
 	private boolean integrityOK = false;
 
-	protected final Entry<K,V> AVAILABLE = new Entry<K,V>(null, null);
-
 	public HashedDictionary() {
 		this(DEFAULT_CAPACITY);
 	}
 	
+	/** Creates an empty dictionary.
+	 * @param initialCapacity The number of entries the dictionary can hold before it first grows.
+	 */
 	public HashedDictionary(int initialCapacity) {
-		checkCapacity(initialCapacity);
+		long tableSize = Long.highestOneBit((long) Math.ceil(Math.max(initialCapacity, 1) / MAX_LOAD_FACTOR) * 2 - 1);
+		checkCapacity(tableSize);
 		numberOfEntries = 0;
 		collisionCount = 0;
-		tableSize = initialCapacity;
-		@SuppressWarnings("unchecked")
-		Entry<K,V>[] temp =(Entry<K,V>[]) new Entry[tableSize];
-		hashTable = temp;
+		allocateTable((int) tableSize);
 		integrityOK = true;
 	}
 	
+	/** Gets the number of entries that were not placed in their home slot when added.
+	 * @return The number of collisions.
+	 */
 	public int getCollisionCount() {
 		return collisionCount;	
 	}
@@ -48,21 +63,8 @@ public class HashedDictionary<K,V> implements DictionaryInterface<K,V> {
 			throw new IllegalArgumentException("Cannot get value for null key");
 		}
 		
-		int index = getHashIndex(key);
-		
-		for (int counter = 0; counter < hashTable.length; counter++) {
-			if (hashTable[index] == null) {
-				return null;
-			}
-			
-			if (hashTable[index] != AVAILABLE && key.equals(hashTable[index].getKey())) {
-				return hashTable[index].getValue();
-			}
-		
-			index = (index + 1) % hashTable.length;
-		}
-		
-		return null;
+		int index = locate(key, mix(key.hashCode()));
+		return (index < 0) ? null : valueAt(index);
 	}
 
 	/**
@@ -76,67 +78,32 @@ public class HashedDictionary<K,V> implements DictionaryInterface<K,V> {
 	 */
 	@Override
 	public V add(K key, V value) {
+		checkIntegrity();
 		if ((key == null) || (value == null)) {
 			throw new IllegalArgumentException("'key' or 'value' is null. Not allowed!'");
 		}
 
-		int hashIndex = getHashIndex(key);
-		V oldValue = null;
-
-		boolean duplicateFound = false;
-
-		for (int index = getHashIndex(key); index < hashTable.length && !duplicateFound; index++) {
-			if (hashTable[index] != null && key.equals(hashTable[index].getKey())) {
-				duplicateFound = true;
-			}
-		}
-
-		// Check for collision and handle with linear probing if needed
-		if (hashTable[hashIndex] != null && ((!key.equals(hashTable[hashIndex].getKey()))) && !duplicateFound) {
-			hashIndex = linearProbe(hashIndex, key);
-			collisionCount++;
+		int hash = mix(key.hashCode());
+		int index = locate(key, hash);
+		if (index >= 0) {	// Replace the value of an existing entry
+			V oldValue = valueAt(index);
+			values[index] = value;
+			return oldValue;
 		}
 
-		// Add new entry or update existing one
-		if ((hashTable[hashIndex] == null) && !duplicateFound) {
-			hashTable[hashIndex] = new Entry<K,V>(key, value);
-			numberOfEntries++;
-		} else {
-			oldValue = hashTable[hashIndex].getValue();
-			hashTable[hashIndex].setValue(value);
-		}
-
-		if (numberOfEntries >= hashTable.length * 0.75) {
+		if (numberOfEntries >= resizeThreshold) {
 			enlargeHashTable();
 		}
-
-		return oldValue;
-	}
-	
-	private int linearProbe(int index, K key) {
-		boolean found = false;
-		int availableStateIndex = -1;	// Index of first element in the available state
-
-		while (!found && (hashTable[index] != null)) {	// Search while we haven't found something or the hashTable hasn't come across an open spot
-			if (!hashTable[index].equals(AVAILABLE)) {
-				if (key.equals(hashTable[index].getKey())) {
-					found = true;
-				} else {
-					index = (index + 1) % hashTable.length;
-				}
-			} else {
-				if (availableStateIndex == -1) {
-					availableStateIndex = index;
-				}
-				index = (index + 1) % hashTable.length;		
-			}
+		int probeLength = insert(key, value, hash);
+		numberOfEntries++;
+		if (probeLength > 0) {
+			collisionCount++;
 		}
-
-		if (found || (availableStateIndex == -1)) {
-			return index;			// Index of either key or null
-		} else {
-			return availableStateIndex;	// Index of an available index
+		if ((probeLength > MAX_PROBE_LENGTH) && (numberOfEntries > keys.length / 8) && (keys.length < MAX_CAPACITY)) {
+			enlargeHashTable();	// Keys are clustering; more room spreads them out
 		}
+
+		return null;
 	}
 
 	/**
@@ -168,7 +135,33 @@ public class HashedDictionary<K,V> implements DictionaryInterface<K,V> {
 	 */
 	@Override
 	public V remove(K key) {
-		throw new UnsupportedOperationException("remove() method is not a supported operation.");
+		checkIntegrity();
+		if (key == null) {
+			throw new IllegalArgumentException("Cannot remove null key");
+		}
+
+		int index = locate(key, mix(key.hashCode()));
+		if (index < 0) {
+			return null;
+		}
+
+		V oldValue = valueAt(index);
+		int mask = keys.length - 1;
+		int next = (index + 1) & mask;
+
+		// Shift back the entries after the removed one until one is empty or already at home
+		while ((keys[next] != null) && (probeDistance(next) > 0)) {
+			keys[index] = keys[next];
+			values[index] = values[next];
+			hashes[index] = hashes[next];
+			index = next;
+			next = (next + 1) & mask;
+		}
+		keys[index] = null;
+		values[index] = null;
+		numberOfEntries--;
+
+		return oldValue;
 	}
 
 	/**
@@ -179,7 +172,7 @@ public class HashedDictionary<K,V> implements DictionaryInterface<K,V> {
 	 */
 	@Override
 	public boolean contains(K key) {
-		throw new UnsupportedOperationException("contains() method is not a supported operation.");
+		return getValue(key) != null;
 	}
 
 	/**
@@ -189,7 +182,7 @@ public class HashedDictionary<K,V> implements DictionaryInterface<K,V> {
 	 */
 	@Override
 	public boolean isEmpty() {
-		throw new UnsupportedOperationException("isEmpty() method is not a supported operation.");
+		return numberOfEntries == 0;
 	}
 
 	/**
@@ -199,7 +192,7 @@ public class HashedDictionary<K,V> implements DictionaryInterface<K,V> {
 	 */
 	@Override
 	public int getSize() {
-		throw new UnsupportedOperationException("getSize() method is not a supported operation.");
+		return numberOfEntries;
 	}
 
 	/**
@@ -207,73 +200,114 @@ public class HashedDictionary<K,V> implements DictionaryInterface<K,V> {
 	 */
 	@Override
 	public void clear() {
-		throw new UnsupportedOperationException("clear() method is not a supported operation.");
+		checkIntegrity();
+		Arrays.fill(keys, null);
+		Arrays.fill(values, null);
+		numberOfEntries = 0;
 	}
 
-	private int getHashIndex(K key) {
-		int hashIndex = key.hashCode() % hashTable.length;
-		if (hashIndex < 0) {
-			hashIndex = hashIndex + hashTable.length;
-		}
-		return hashIndex;
+	/** Spreads the bits of a hash code so that masking off its low bits still depends on all of them. */
+	private static int mix(int hashCode) {
+		int hash = hashCode * 0x9E3779B9;
+		return hash ^ (hash >>> 16);
 	}
 
-	private boolean isPrime(int num) {
-		if (num <= 1) return false;
-		if (num <= 3) return true;
+	/** Finds the slot holding a given key.
+	 * @return The index of the slot, or -1 if the key is not in the table. */
+	private int locate(Object key, int hash) {
+		int mask = keys.length - 1;
+		int index = hash & mask;
 
-		if (num % 2 == 0 || num % 3 == 0) return false;
-		
-		for (int i = 5; i * i <= num; i = i + 6) {
-			if (num % i == 0 || num % (i + 2) == 0)
-			return false;
+		for (int distance = 0; keys[index] != null; distance++) {
+			if (probeDistance(index) < distance) {
+				return -1;	// The key would have taken this slot if it were in the table
+			}
+			if ((hashes[index] == hash) && key.equals(keys[index])) {
+				return index;
+			}
+			index = (index + 1) & mask;
 		}
 
-		return true;
+		return -1;
 	}
 
-	private int getNextPrime(int num) {
-		if (num <= 1) {
-			return 2;
+	/** Places an entry whose key is not in the table, displacing any entry nearer its home slot.
+	 * @return The distance of the new entry from its home slot. */
+	private int insert(Object key, Object value, int hash) {
+		int mask = keys.length - 1;
+		int index = hash & mask;
+		int distance = 0;
+		int result = -1;
+
+		while (keys[index] != null) {
+			int residentDistance = probeDistance(index);
+			if (residentDistance < distance) {	// Take the slot and carry the resident entry onward
+				Object residentKey = keys[index];
+				Object residentValue = values[index];
+				int residentHash = hashes[index];
+				keys[index] = key;
+				values[index] = value;
+				hashes[index] = hash;
+				if (result < 0) {
+					result = distance;
+				}
+				key = residentKey;
+				value = residentValue;
+				hash = residentHash;
+				distance = residentDistance;
+			}
+			index = (index + 1) & mask;
+			distance++;
 		}
+		keys[index] = key;
+		values[index] = value;
+		hashes[index] = hash;
 
-		int prime = num;
-		boolean found = false;
+		return (result < 0) ? distance : result;
+	}
 
-		while (!found) {
-			prime++;
+	/** Gets how far the entry in a slot is from its home slot. */
+	private int probeDistance(int index) {
+		return (index - hashes[index]) & (keys.length - 1);
+	}
 
-			if (isPrime(prime)) {
-				found = true;
-			}
-		}
+	private V valueAt(int index) {
+		@SuppressWarnings("unchecked")
+		V result = (V) values[index];	// Only values of type V are stored
+		return result;
+	}
 
-		return prime;
+	private K keyAt(int index) {
+		@SuppressWarnings("unchecked")
+		K result = (K) keys[index];	// Only keys of type K are stored
+		return result;
 	}
 
-	private void enlargeHashTable() {
-		Entry<K, V>[] oldTable = hashTable;
-		int oldSize = hashTable.length;
-		int newSize = getNextPrime(oldSize + oldSize);
-		checkCapacity(newSize);
+	private void allocateTable(int tableSize) {
+		keys = new Object[tableSize];
+		values = new Object[tableSize];
+		hashes = new int[tableSize];
+		resizeThreshold = (int) Math.min(tableSize * MAX_LOAD_FACTOR, tableSize - 1);
+	}
 
-		// The cast is safe because the new array contains null entries.
-		@SuppressWarnings("unchecked")
-		Entry<K, V>[] temp = (Entry<K, V>[])new Entry[newSize];
-		hashTable = temp;
-		numberOfEntries = 0;	// Reset number of dictionary entries, siunce it will be incremented by add during rehash
-
-		// Rehash dictionary entries from old array to the new and bigger array;
-		// skip elements that contain null or AVAILABLE
-		for (int index = 0; index < oldSize; index++) {
-			if ((oldTable[index] != null) && oldTable[index] != AVAILABLE) {
-				add(oldTable[index].getKey(), oldTable[index].getValue());
+	private void enlargeHashTable() {
+		Object[] oldKeys = keys;
+		Object[] oldValues = values;
+		int[] oldHashes = hashes;
+		checkCapacity(2L * oldKeys.length);
+		allocateTable(2 * oldKeys.length);
+
+		// Rehash dictionary entries from old arrays to the new and bigger arrays; keys are known to be
+		// distinct, so no search for duplicates is needed
+		for (int index = 0; index < oldKeys.length; index++) {
+			if (oldKeys[index] != null) {
+				insert(oldKeys[index], oldValues[index], oldHashes[index]);
 			}
 		}	// end for
 	}	// end enlargeHashTable
 
-	private void checkCapacity(int initialCapacity) {
-		if (initialCapacity > MAX_CAPACITY) {
+	private void checkCapacity(long capacity) {
+		if (capacity > MAX_CAPACITY) {
 			throw new IllegalStateException("Attemp to create a hash dictionary whoses capacity exceeds allowed maximum capacity of " + MAX_CAPACITY);
 		}
 	}
@@ -302,11 +336,11 @@ public class HashedDictionary<K,V> implements DictionaryInterface<K,V> {
 
 			if (hasNext()) {
 				// Loop until we find occupied hash table entry
-				while (hashTable[currentIndex] == null || hashTable[currentIndex] == AVAILABLE) {
+				while (keys[currentIndex] == null) {
 					currentIndex++;
 				}
 
-				result = hashTable[currentIndex].getValue();
+				result = valueAt(currentIndex);
 				numberLeft--;
 				currentIndex++;
 			} else {
@@ -338,11 +372,11 @@ public class HashedDictionary<K,V> implements DictionaryInterface<K,V> {
 			K result = null;
 			if (hasNext()) {
 				// Loop until we find occupied hash table entry  
-				while (hashTable[currentIndex] == null || hashTable[currentIndex] == AVAILABLE) {	
+				while (keys[currentIndex] == null) {	
 					currentIndex++;
 				}
 
-				result = hashTable[currentIndex].getKey();
+				result = keyAt(currentIndex);
 				numberLeft--;
 				currentIndex++;
 			} else {
@@ -358,26 +392,4 @@ public class HashedDictionary<K,V> implements DictionaryInterface<K,V> {
 		
 	}
 
-	protected final class Entry<KE,VE> {
-		private KE key;
-		private VE value;
-
-		public Entry(KE key, VE value) {
-			this.key = key;
-			this.value = value;
-		}
-
-		public KE getKey() {
-			return key;
-		}
-
-		public VE getValue() {
-			return value;
-		}
-
-		public void setValue(VE value) {
-			this.value = value;
-		}
-	}
-
 }
@@ -0,0 +1,199 @@
+import java.util.Arrays;
+
+/** A d-ary min-heap of integer ids from 0 to capacity - 1, each with a real priority.
+ * An id may be in the heap at most once, and its priority can be lowered in place with
+ * decreaseKey, so the heap never holds more than capacity entries and allocates nothing
+ * after it is created. Each entry has up to d children; a wider heap is shallower, so an
+ * add or decreaseKey moves an entry fewer times, and the d children of an entry sit next
+ * to each other in memory.
+ */
+public final class IndexedMinHeap implements VertexPriorityQueue {
+
+	public static final int DEFAULT_ARITY = 4;
+
+	private final int arity;	// Number of children of each entry
+	private final int[] heap;	// Ids in heap order; the root is heap[0]
+	private final int[] position;	// Position of each id in heap, or -1 if the id is absent
+	private final double[] priority;	// Priority of each id in the heap
+	private int size;
+
+	/** Creates an empty 4-ary heap for ids from 0 to capacity - 1.
+	 * @param capacity The number of distinct ids the heap can hold.
+	 */
+	public IndexedMinHeap(int capacity) {
+		this(capacity, DEFAULT_ARITY);
+	}
+
+	/** Creates an empty heap for ids from 0 to capacity - 1.
+	 * @param capacity The number of distinct ids the heap can hold.
+	 * @param arity The number of children of each entry; 2 gives a binary heap.
+	 */
+	public IndexedMinHeap(int capacity, int arity) {
+		if (capacity < 0) {
+			throw new IllegalArgumentException("Heap capacity cannot be negative.");
+		}
+		if (arity < 2) {
+			throw new IllegalArgumentException("A heap entry must be allowed at least 2 children.");
+		}
+
+		this.arity = arity;
+		heap = new int[capacity];
+		position = new int[capacity];
+		priority = new double[capacity];
+		Arrays.fill(position, -1);
+		size = 0;
+	}	// end constructor
+
+	/** Adds an id that is not already in this heap.
+	 * @param id The id to add.
+	 * @param newPriority The id's priority; smaller values leave the heap first.
+	 */
+	@Override
+	public void add(int id, double newPriority) {
+		if (position[id] >= 0) {
+			throw new IllegalArgumentException("Id " + id + " is already in the heap.");
+		}
+
+		priority[id] = newPriority;
+		heap[size] = id;
+		position[id] = size;
+		size++;
+		siftUp(size - 1);
+	}	// end add
+
+	/** Lowers the priority of an id that is in this heap.
+	 * @param id The id whose priority changes.
+	 * @param newPriority The new priority, which must not exceed the current one.
+	 */
+	@Override
+	public void decreaseKey(int id, double newPriority) {
+		if (position[id] < 0) {
+			throw new IllegalArgumentException("Id " + id + " is not in the heap.");
+		}
+		if (newPriority > priority[id]) {
+			throw new IllegalArgumentException("New priority is larger than the current priority of id " + id + ".");
+		}
+
+		priority[id] = newPriority;
+		siftUp(position[id]);
+	}	// end decreaseKey
+
+	/** Removes and returns the id with the smallest priority.
+	 * @return Either the id with the smallest priority or, if the heap is empty, -1. */
+	@Override
+	public int removeMin() {
+		int root = -1;
+
+		if (!isEmpty()) {
+			root = heap[0];
+			position[root] = -1;
+			size--;
+			if (size > 0) {
+				heap[0] = heap[size];
+				position[heap[0]] = 0;
+				siftDown(0);
+			}
+		}
+
+		return root;
+	}	// end removeMin
+
+	/** Retrieves the id with the smallest priority.
+	 * @return Either the id with the smallest priority or, if the heap is empty, -1. */
+	@Override
+	public int getMin() {
+		return isEmpty() ? -1 : heap[0];
+	}
+
+	/** Gets the current priority of an id in this heap.
+	 * @param id An id in the heap.
+	 * @return The id's priority. */
+	@Override
+	public double getPriority(int id) {
+		return priority[id];
+	}
+
+	/** Sees whether an id is in this heap.
+	 * @param id The id to look for.
+	 * @return True if the id is in the heap. */
+	@Override
+	public boolean contains(int id) {
+		return position[id] >= 0;
+	}
+
+	/** Detects whether this heap is empty.
+	 * @return True if the heap is empty, or false otherwise. */
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/** Gets the size of this heap.
+	 * @return The number of ids currently in the heap. */
+	@Override
+	public int getSize() {
+		return size;
+	}
+
+	/** Removes all ids from this heap. */
+	@Override
+	public void clear() {
+		for (int index = 0; index < size; index++) {
+			position[heap[index]] = -1;
+		}
+		size = 0;
+	}	// end clear
+
+	private void siftUp(int index) {
+		int orphan = heap[index];
+		double orphanPriority = priority[orphan];
+
+		while (index > 0) {
+			int parentIndex = (index - 1) / arity;
+			int parent = heap[parentIndex];
+			if (priority[parent] <= orphanPriority) {
+				break;
+			}
+
+			heap[index] = parent;
+			position[parent] = index;
+			index = parentIndex;
+		}	// end while
+
+		heap[index] = orphan;
+		position[orphan] = index;
+	}	// end siftUp
+
+	private void siftDown(int index) {
+		int orphan = heap[index];
+		double orphanPriority = priority[orphan];
+		int firstChildIndex = arity * index + 1;
+
+		while (firstChildIndex < size) {
+			int smallestChildIndex = firstChildIndex;
+			double smallestPriority = priority[heap[firstChildIndex]];
+			int childEnd = Math.min(firstChildIndex + arity, size);
+			for (int childIndex = firstChildIndex + 1; childIndex < childEnd; childIndex++) {
+				double childPriority = priority[heap[childIndex]];
+				if (childPriority < smallestPriority) {
+					smallestChildIndex = childIndex;
+					smallestPriority = childPriority;
+				}
+			}
+
+			if (orphanPriority <= smallestPriority) {
+				break;
+			}
+
+			int smallestChild = heap[smallestChildIndex];
+			heap[index] = smallestChild;
+			position[smallestChild] = index;
+			index = smallestChildIndex;
+			firstChildIndex = arity * index + 1;
+		}	// end while
+
+		heap[index] = orphan;
+		position[orphan] = index;
+	}	// end siftDown
+
+}	// end IndexedMinHeap
@@ -0,0 +1,217 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/** Estimates travel cost from precomputed distances to and from a few landmark vertices.
+ * By the triangle inequality, d(v, t) is at least d(L, t) - d(L, v) and at least d(v, L) - d(t, L)
+ * for every landmark L, and the largest of these bounds is the estimate. The distances are held
+ * in primitive arrays with each vertex's landmark distances stored side by side.
+ */
+final class LandmarkEstimator implements DistanceEstimator {
+
+	private static final int FILE_MAGIC = 0x414C5431;	// "ALT1"
+
+	private final int[] landmarks;	// Vertex index of each landmark
+	private final double[] fromLandmark;	// d(L, v) at [v * landmarkCount + L]; infinite if unreachable
+	private final double[] toLandmark;	// d(v, L) at [v * landmarkCount + L]; infinite if unreachable
+	private final CompressedGraph<?> graph;	// The graph the distances belong to
+
+	private LandmarkEstimator(int[] landmarks, double[] fromLandmark, double[] toLandmark, CompressedGraph<?> graph) {
+		this.landmarks = landmarks;
+		this.fromLandmark = fromLandmark;
+		this.toLandmark = toLandmark;
+		this.graph = graph;
+	}	// end constructor
+
+	/** Chooses landmarks and computes their distance tables for a given graph. Landmarks are chosen
+	 * farthest-first by number of edges: each new landmark is the vertex with the most edges between
+	 * it and the landmarks already chosen, with vertices they cannot reach counting as farthest. These
+	 * breadth-first searches are cheap next to Dijkstra's algorithm, and once every landmark is known
+	 * the forward and backward searches from all of them run in parallel.
+	 * @param graph The graph to preprocess.
+	 * @param landmarkCount The number of landmarks wanted; fewer are used if the graph is smaller.
+	 * @return An estimator for the graph. */
+	static LandmarkEstimator create(CompressedGraph<?> graph, int landmarkCount) {
+		if (landmarkCount < 1) {
+			throw new IllegalArgumentException("At least one landmark is needed.");
+		}
+
+		int vertexCount = graph.getNumberOfVertices();
+		int count = Math.min(landmarkCount, vertexCount);
+		int[] landmarks = new int[count];
+		double[] fromLandmark = new double[vertexCount * count];
+		double[] toLandmark = new double[vertexCount * count];
+
+		if (count > 0) {
+			int[] hops = new int[vertexCount];
+			int[] queue = new int[vertexCount];
+			int[] nearest = new int[vertexCount];	// Fewest edges from any landmark, or -1 for a landmark
+			countHops(graph, 0, hops, queue);
+			int next = farthest(hops);
+
+			Arrays.fill(nearest, Integer.MAX_VALUE);
+			for (int landmark = 0; landmark < count; landmark++) {
+				landmarks[landmark] = next;
+				nearest[next] = -1;	// Never choose the same vertex twice
+				countHops(graph, next, hops, queue);
+				for (int vertex = 0; vertex < vertexCount; vertex++) {
+					if (nearest[vertex] >= 0) {
+						nearest[vertex] = Math.min(nearest[vertex], hops[vertex]);
+					}
+				}
+				next = farthest(nearest);
+			}	// end for
+
+			final int columns = count;
+			IntStream.range(0, 2 * count).parallel().forEach(task -> {
+				SearchContext context = graph.getContext();	// Each worker thread has its own
+				int landmark = task % columns;
+				boolean forward = task < columns;
+				if (forward) {
+					graph.search(landmarks[landmark], -1, context);
+				} else {
+					graph.searchBackward(landmarks[landmark], context);
+				}
+
+				double[] table = forward ? fromLandmark : toLandmark;
+				for (int vertex = 0; vertex < vertexCount; vertex++) {
+					table[vertex * columns + landmark] = context.isSettled(vertex) ? context.getCost(vertex) : Double.POSITIVE_INFINITY;
+				}
+			});
+		}	// end if
+
+		return new LandmarkEstimator(landmarks, fromLandmark, toLandmark, graph);
+	}	// end create
+
+	/** Counts the fewest edges on a path from a vertex to every other by a breadth-first search.
+	 * @param hops Receives the count for each vertex, or Integer.MAX_VALUE if the vertex is not reached.
+	 * @param queue Space for one entry per vertex. */
+	private static void countHops(CompressedGraph<?> graph, int origin, int[] hops, int[] queue) {
+		Arrays.fill(hops, Integer.MAX_VALUE);
+		hops[origin] = 0;
+		queue[0] = origin;
+		int size = 1;
+		for (int front = 0; front < size; front++) {
+			int vertex = queue[front];
+			for (int edge = graph.getEdgeOffset(vertex); edge < graph.getEdgeOffset(vertex + 1); edge++) {
+				int target = graph.getEdgeTarget(edge);
+				if (hops[target] == Integer.MAX_VALUE) {
+					hops[target] = hops[vertex] + 1;
+					queue[size++] = target;
+				}
+			}
+		}	// end for
+	}	// end countHops
+
+	/** Finds the vertex with the largest entry in an array; the first of them if several tie. */
+	private static int farthest(int[] distances) {
+		int result = 0;
+		for (int vertex = 1; vertex < distances.length; vertex++) {
+			if (distances[vertex] > distances[result]) {
+				result = vertex;
+			}
+		}
+
+		return result;
+	}	// end farthest
+
+	@Override
+	public double estimate(int vertex, int target) {
+		int count = landmarks.length;
+		int vertexRow = vertex * count;
+		int targetRow = target * count;
+		double result = 0;
+
+		for (int landmark = 0; landmark < count; landmark++) {
+			double fromToVertex = fromLandmark[vertexRow + landmark];
+			double fromToTarget = fromLandmark[targetRow + landmark];
+			if (fromToVertex < Double.POSITIVE_INFINITY) {
+				if (fromToTarget == Double.POSITIVE_INFINITY) {
+					return Double.POSITIVE_INFINITY;	// The landmark reaches vertex but not target, so neither does vertex
+				}
+				result = Math.max(result, fromToTarget - fromToVertex);
+			}
+
+			double vertexToLandmark = toLandmark[vertexRow + landmark];
+			double targetToLandmark = toLandmark[targetRow + landmark];
+			if (targetToLandmark < Double.POSITIVE_INFINITY) {
+				if (vertexToLandmark == Double.POSITIVE_INFINITY) {
+					return Double.POSITIVE_INFINITY;	// Target reaches the landmark but vertex does not, so vertex cannot reach target
+				}
+				result = Math.max(result, vertexToLandmark - targetToLandmark);
+			}
+		}	// end for
+
+		return result;
+	}	// end estimate
+
+	/** Sees whether this estimator's tables belong to a given snapshot.
+	 * @param snapshot A compressed graph.
+	 * @return True if the tables were computed for or loaded into that snapshot. */
+	boolean belongsTo(CompressedGraph<?> snapshot) {
+		return graph == snapshot;
+	}
+
+	/** Writes the landmarks and their distance tables to a file.
+	 * @param fileName The name of the file to write.
+	 * @throws IOException if the file cannot be written. */
+	void save(String fileName) throws IOException {
+		try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(fileName)))) {
+			output.writeInt(FILE_MAGIC);
+			output.writeLong(graph.getFingerprint());
+			output.writeInt(graph.getNumberOfVertices());
+			output.writeInt(landmarks.length);
+			for (int landmark : landmarks) {
+				output.writeInt(landmark);
+			}
+			for (double distance : fromLandmark) {
+				output.writeDouble(distance);
+			}
+			for (double distance : toLandmark) {
+				output.writeDouble(distance);
+			}
+		}
+	}	// end save
+
+	/** Reads landmarks and distance tables written by save.
+	 * @param fileName The name of the file to read.
+	 * @param graph The graph the tables are for.
+	 * @return The estimator stored in the file.
+	 * @throws IOException if the file cannot be read or was written for a different graph. */
+	static LandmarkEstimator load(String fileName, CompressedGraph<?> graph) throws IOException {
+		try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(fileName)))) {
+			if (input.readInt() != FILE_MAGIC) {
+				throw new IOException(fileName + " is not a landmark file.");
+			}
+
+			long fingerprint = input.readLong();
+			int vertexCount = input.readInt();
+			int count = input.readInt();
+			if ((fingerprint != graph.getFingerprint()) || (vertexCount != graph.getNumberOfVertices())) {
+				throw new IOException(fileName + " was written for a different graph.");
+			}
+
+			int[] landmarks = new int[count];
+			for (int landmark = 0; landmark < count; landmark++) {
+				landmarks[landmark] = input.readInt();
+			}
+			double[] fromLandmark = new double[vertexCount * count];
+			for (int index = 0; index < fromLandmark.length; index++) {
+				fromLandmark[index] = input.readDouble();
+			}
+			double[] toLandmark = new double[vertexCount * count];
+			for (int index = 0; index < toLandmark.length; index++) {
+				toLandmark[index] = input.readDouble();
+			}
+
+			return new LandmarkEstimator(landmarks, fromLandmark, toLandmark, graph);
+		}
+	}	// end load
+
+}	// end LandmarkEstimator
@@ -47,6 +47,33 @@ public final class MinHeap<T extends Comparable<? super T>> implements MinHeapIn
 		ensureCapacity();
 	}
 
+	/** Adds every entry of an array to this heap. The entries are appended and the heap is rebuilt
+	 * from the bottom up, which takes time linear in the final size.
+	 *	@param newEntries	The objects to be added, none of them null. */
+	@Override
+	public void addAll(T[] newEntries) {
+		checkIntegrity();
+
+		for (T nextEntry : newEntries) {
+			if (nextEntry == null) {
+				throw new IllegalArgumentException("Cannot add null entry to the heap.");
+			}
+		}
+
+		int newLastIndex = lastIndex + newEntries.length;
+		checkCapacity(newLastIndex);
+		if (newLastIndex >= heap.length - 1) {	// Leave room for the next add, as ensureCapacity does
+			int newCapacity = Math.min(Math.max(2 * (heap.length - 1), newLastIndex + 1), MAX_CAPACITY);
+			heap = Arrays.copyOf(heap, newCapacity + 1);
+		}
+
+		System.arraycopy(newEntries, 0, heap, lastIndex + 1, newEntries.length);
+		lastIndex = newLastIndex;
+		for (int rootIndex = lastIndex / 2; rootIndex > 0; rootIndex--) {	// Every entry that has a child
+			reheap(heap, rootIndex, lastIndex);
+		}
+	}
+
 	/** Removes and returns the smallest item in this heap.
 	 *	@return	Either the smallest object in the heap or,
 	 *	if the heap is empty before the operation, null. */
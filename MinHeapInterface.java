@@ -4,6 +4,10 @@ public interface MinHeapInterface<T extends Comparable<? super T>> {
 	 *	@param newEntry	An object to be added. */
 	public void add(T newEntry);
 
+	/** Adds every entry of an array to this heap.
+	 *	@param newEntries	The objects to be added, none of them null. */
+	public void addAll(T[] newEntries);
+
 	/** Removes and returns the smallest item in this heap.
 	 *	@return	Either the smallest object in the heap or,
 	 *	if the heap is empty before the operation, null. */
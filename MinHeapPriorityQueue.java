@@ -3,7 +3,21 @@ public class MinHeapPriorityQueue<T extends Comparable<? super T>> implements Pr
 	private MinHeapInterface<T> minheap;
 
 	public MinHeapPriorityQueue() {
-		minheap = new MinHeap<>(25);
+		minheap = new DaryHeap<>();	// Grows without limit, unlike MinHeap
+	}
+
+	/** Creates a priority queue kept in a given heap, such as a MinHeap or a DaryHeap of some width.
+	 * @param heap An empty heap.
+	 */
+	public MinHeapPriorityQueue(MinHeapInterface<T> heap) {
+		minheap = heap;
+	}
+
+	/** Creates a priority queue of the given entries, kept in a DaryHeap built in linear time.
+	 * @param entries The entries of the new priority queue, none of them null. The array is copied.
+	 */
+	public MinHeapPriorityQueue(T[] entries) {
+		minheap = new DaryHeap<>(DaryHeap.DEFAULT_ARITY, entries);
 	}
 
 	/** Adds a new entry to this priority queue.
@@ -14,6 +28,15 @@ public class MinHeapPriorityQueue<T extends Comparable<? super T>> implements Pr
 		minheap.add(newEntry);
 	}
 
+	/** Adds every entry of an array to this priority queue. The heap is rebuilt once from
+	 * the bottom up, rather than entry by entry.
+	 * @param newEntries The objects to be added, none of them null.
+	 */
+	@Override
+	public void addAll(T[] newEntries) {
+		minheap.addAll(newEntries);
+	}
+
 	/** Removes and returns the entry having the highest priority.
 	 * @return Either the object having the highest priority or, 
 	 * if the priority queue is empty before the operation, null.
@@ -0,0 +1,84 @@
+import java.util.List;
+
+/** The cheapest paths from one origin to several destinations, found by a single search.
+ * Destinations are numbered by their position in the list the query was given. The costs are
+ * held in a primitive array and only the paths to the destinations, as vertex indices in one
+ * shared array, so the result's size does not depend on the size of the graph, and labels are
+ * only looked up for the paths that are asked for.
+ * @param <T> The type of the vertex labels
+ */
+public final class OneToManyResult<T> {
+
+	private final CompressedGraph<T> graph;	// The snapshot that was searched
+	private final Object[] destinations;	// Destination labels in query order
+	private final double[] costs;	// Cost of the cheapest path to each destination, or -1
+	private final int[] pathOffsets;	// Destination i's path is pathVertices[pathOffsets[i]] to pathVertices[pathOffsets[i + 1] - 1]
+	private final int[] pathVertices;	// Vertex indices of every path found, each origin first; empty for a destination not reached
+
+	OneToManyResult(CompressedGraph<T> graph, List<T> destinations, double[] costs, int[] pathOffsets, int[] pathVertices) {
+		this.graph = graph;
+		this.destinations = destinations.toArray();
+		this.costs = costs;
+		this.pathOffsets = pathOffsets;
+		this.pathVertices = pathVertices;
+	}	// end constructor
+
+	/** Gets the number of destinations in the query.
+	 * @return The number of destinations. */
+	public int getNumberOfDestinations() {
+		return costs.length;
+	}
+
+	/** Gets the label of a destination.
+	 * @param destination The position of the destination in the query.
+	 * @return The object that labels the destination vertex. */
+	public T getDestination(int destination) {
+		@SuppressWarnings("unchecked")
+		T result = (T) destinations[destination];
+		return result;
+	}
+
+	/** Gets the cost of the cheapest path to a destination.
+	 * @param destination The position of the destination in the query.
+	 * @return The cost of the cheapest path, or -1 if there is no such path. */
+	public double getCost(int destination) {
+		return costs[destination];
+	}
+
+	/** Sees whether a destination can be reached from the origin.
+	 * @param destination The position of the destination in the query.
+	 * @return True if there is a path to the destination. */
+	public boolean isReachable(int destination) {
+		return costs[destination] >= 0;
+	}
+
+	/** Gets the vertex just before a destination on the cheapest path to it.
+	 * @param destination The position of the destination in the query.
+	 * @return The label of the previous vertex, or null if the destination is the origin or cannot be reached. */
+	public T getPredecessor(int destination) {
+		if (!isReachable(destination)) {
+			return null;
+		}
+
+		int previous = pathOffsets[destination + 1] - 2;	// Position of the vertex before the destination
+		return (previous < pathOffsets[destination]) ? null : graph.getLabel(pathVertices[previous]);
+	}	// end getPredecessor
+
+	/** Gets the cheapest path to a destination.
+	 * @param destination The position of the destination in the query.
+	 * @param path A stack of labels that is empty initially; at the completion of the method, this stack contains the labels of the vertices along
+	 * the cheapest path; the label of the origin vertex is at the top, and the label of the destination vertex is at the bottom.
+	 * @return The cost of the cheapest path, or -1 if there is no such path. */
+	public double getPath(int destination, StackInterface<T> path) {
+		if (!isReachable(destination)) {
+			return -1;
+		}
+
+		for (int position = pathOffsets[destination + 1] - 1; position >= pathOffsets[destination]; position--) {
+			path.push(graph.getLabel(pathVertices[position]));
+		}
+
+		return costs[destination];
+	}	// end getPath
+
+}	// end OneToManyResult
@@ -0,0 +1,144 @@
+import java.util.Arrays;
+
+/** A path found by a search, held as vertex indices of the snapshot that was searched together with
+ * the cost of each edge along it. One result can be passed to query after query; its arrays only grow,
+ * so a search that finds a path no longer than earlier ones allocates nothing. Labels are looked up
+ * one at a time, only when they are asked for.
+ * @param <T> The type of the vertex labels
+ */
+public final class PathResult<T> {
+
+	private static final int DEFAULT_CAPACITY = 16;
+
+	private CompressedGraph<T> graph;	// The snapshot the indices belong to, or null if no path was found
+	private int[] vertices;	// Vertex indices along the path, origin first
+	private double[] legCosts;	// Cost of the edge from vertices[i] to vertices[i + 1]
+	private int vertexCount;	// Number of vertices on the path, or 0 if there is none
+	private double cost;	// Cost of the whole path, or -1 if there is none
+
+	public PathResult() {
+		vertices = new int[DEFAULT_CAPACITY];
+		legCosts = new double[DEFAULT_CAPACITY];
+		clear();
+	}	// end default constructor
+
+	/** Forgets the path, as when no path is found. */
+	void clear() {
+		graph = null;
+		vertexCount = 0;
+		cost = -1;
+	}
+
+	/** Makes room for a path with a given number of vertices, to be filled in before calling finish.
+	 * Indices already stored are kept, so a path of unknown length can be written as it grows by
+	 * calling reserve again with a larger count, and finally with its actual length.
+	 * @param searched The snapshot whose indices will be stored.
+	 * @param count The number of vertices on the path.
+	 * @return The array to fill with the vertex indices in positions 0 to count - 1, origin first. */
+	int[] reserve(CompressedGraph<T> searched, int count) {
+		if (count > vertices.length) {
+			int newCapacity = Math.max(count, 2 * vertices.length);
+			vertices = Arrays.copyOf(vertices, newCapacity);
+			legCosts = new double[newCapacity];
+		}
+		graph = searched;
+		vertexCount = count;
+		return vertices;
+	}	// end reserve
+
+	/** Looks up the cost of each edge of the path filled in after reserve, and takes their sum as the
+	 * cost of the path. */
+	void finish() {
+		double total = 0.0;
+		for (int leg = 0; leg < vertexCount - 1; leg++) {
+			legCosts[leg] = graph.getCheapestEdgeWeight(vertices[leg], vertices[leg + 1]);
+			total += legCosts[leg];
+		}
+		cost = total;
+	}	// end finish
+
+	/** Looks up the cost of each edge of the path filled in after reserve, and records the cost the
+	 * search found for the whole path.
+	 * @param pathCost The cost of the whole path. */
+	void finish(double pathCost) {
+		finish();
+		cost = pathCost;
+	}
+
+	/** Copies a stored path into this result.
+	 * @param searched The snapshot the path's indices belong to.
+	 * @param route The vertex indices along the path, origin first.
+	 * @param pathCost The cost of the path. */
+	void set(CompressedGraph<T> searched, int[] route, double pathCost) {
+		System.arraycopy(route, 0, reserve(searched, route.length), 0, route.length);
+		finish(pathCost);
+	}
+
+	/** Copies the vertex indices of this path, so the path can be stored after this result is reused.
+	 * @return A new array of the indices along the path, origin first. */
+	int[] copyVertices() {
+		return Arrays.copyOf(vertices, vertexCount);
+	}
+
+	/** Gets the snapshot the vertex indices of this path belong to.
+	 * @return The searched snapshot, or null if no path was found. */
+	CompressedGraph<T> getGraph() {
+		return graph;
+	}
+
+	/** Sees whether the last search found a path.
+	 * @return True if there is a path. */
+	public boolean isFound() {
+		return vertexCount > 0;
+	}
+
+	/** Gets the cost of the path.
+	 * @return The cost of the path, or -1 if there is none. */
+	public double getCost() {
+		return cost;
+	}
+
+	/** Gets the number of vertices on the path, counting both ends.
+	 * @return The number of vertices, or 0 if there is no path. */
+	public int getNumberOfVertices() {
+		return vertexCount;
+	}
+
+	/** Gets the index of a vertex on the path.
+	 * @param position The position of the vertex, 0 for the origin.
+	 * @return The vertex's index in the snapshot that was searched. */
+	public int getVertex(int position) {
+		checkPosition(position, vertexCount);
+		return vertices[position];
+	}
+
+	/** Gets the cost of one edge of the path.
+	 * @param leg The position of the edge, 0 for the one leaving the origin.
+	 * @return The weight of the edge from vertex leg to vertex leg + 1. */
+	public double getLegCost(int leg) {
+		checkPosition(leg, vertexCount - 1);
+		return legCosts[leg];
+	}
+
+	/** Looks up the label of a vertex on the path.
+	 * @param position The position of the vertex, 0 for the origin.
+	 * @return The object that labels the vertex. */
+	public T getLabel(int position) {
+		return graph.getLabel(getVertex(position));
+	}
+
+	/** Pushes the labels of the path onto a stack.
+	 * @param path A stack that receives the labels; the label of the origin ends up at the top. */
+	public void pushLabels(StackInterface<T> path) {
+		for (int position = vertexCount - 1; position >= 0; position--) {
+			path.push(graph.getLabel(vertices[position]));
+		}
+	}	// end pushLabels
+
+	private static void checkPosition(int position, int count) {
+		if ((position < 0) || (position >= count)) {
+			throw new IndexOutOfBoundsException("Position " + position + " is not on the path.");
+		}
+	}
+
+}	// end PathResult
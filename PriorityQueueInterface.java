@@ -5,6 +5,12 @@ public interface PriorityQueueInterface<T extends Comparable<? super T>> {
 	 */
 	public void add(T newEntry);
 
+	/** Adds every entry of an array to this priority queue, which may be cheaper than adding
+	 * them one at a time.
+	 * @param newEntries The objects to be added, none of them null.
+	 */
+	public void addAll(T[] newEntries);
+
 	/** Removes and returns the entry having the highest priority.
 	 * @return Either the object having the highest priority or, 
 	 * if the priority queue is empty before the operation, null.
@@ -0,0 +1,204 @@
+import java.util.Arrays;
+
+/** A monotone radix heap of integer ids from 0 to capacity - 1, each with a priority that is not
+ * negative. It relies on what Dijkstra's algorithm guarantees: no priority added is smaller than
+ * the last one removed. Entries are kept in buckets by the highest bit in which their key differs
+ * from the last key removed, so an entry only ever moves to lower buckets, and each operation takes
+ * amortized constant time with no comparisons between entries.
+ * The key of a priority is the bit pattern of the double, which orders priorities that are not
+ * negative exactly, so whole numbers and fractions are both handled.
+ * A priority slightly smaller than the last one removed, as rounding in a goal-directed search can
+ * give, is treated as equal to it.
+ */
+public final class RadixHeap implements VertexPriorityQueue {
+
+	private static final int BUCKET_COUNT = 65;	// Bucket 0 holds keys equal to last; bucket b keys whose highest differing bit is b - 1
+
+	private final long[] key;	// Key of each id in the heap
+	private final double[] priority;	// Priority of each id in the heap
+	private final int[] bucket;	// Bucket of each id, or -1 if the id is absent
+	private final int[] next;	// Next id in the same bucket, or -1
+	private final int[] previous;	// Previous id in the same bucket, or -1
+	private final int[] head;	// First id in each bucket, or -1
+	private long last;	// Key of the entry last removed; no key in the heap is smaller
+	private int size;
+
+	/** Creates an empty heap for ids from 0 to capacity - 1.
+	 * @param capacity The number of distinct ids the heap can hold.
+	 */
+	public RadixHeap(int capacity) {
+		if (capacity < 0) {
+			throw new IllegalArgumentException("Heap capacity cannot be negative.");
+		}
+
+		key = new long[capacity];
+		priority = new double[capacity];
+		bucket = new int[capacity];
+		next = new int[capacity];
+		previous = new int[capacity];
+		head = new int[BUCKET_COUNT];
+		Arrays.fill(bucket, -1);
+		Arrays.fill(head, -1);
+		last = 0;
+		size = 0;
+	}	// end constructor
+
+	/** Adds an id that is not already in this heap.
+	 * @param id The id to add.
+	 * @param newPriority The id's priority, which must not be negative; smaller values leave the heap first.
+	 */
+	@Override
+	public void add(int id, double newPriority) {
+		if (bucket[id] >= 0) {
+			throw new IllegalArgumentException("Id " + id + " is already in the heap.");
+		}
+
+		setPriority(id, newPriority);
+		size++;
+	}	// end add
+
+	/** Lowers the priority of an id that is in this heap.
+	 * @param id The id whose priority changes.
+	 * @param newPriority The new priority, which must not exceed the current one.
+	 */
+	@Override
+	public void decreaseKey(int id, double newPriority) {
+		if (bucket[id] < 0) {
+			throw new IllegalArgumentException("Id " + id + " is not in the heap.");
+		}
+		if (newPriority > priority[id]) {
+			throw new IllegalArgumentException("New priority is larger than the current priority of id " + id + ".");
+		}
+
+		unlink(id);
+		setPriority(id, newPriority);
+	}	// end decreaseKey
+
+	/** Removes and returns the id with the smallest priority.
+	 * @return Either the id with the smallest priority or, if the heap is empty, -1. */
+	@Override
+	public int removeMin() {
+		int root = getMin();
+
+		if (root >= 0) {
+			unlink(root);
+			bucket[root] = -1;
+			size--;
+		}
+
+		return root;
+	}	// end removeMin
+
+	/** Retrieves the id with the smallest priority. If no entry has the last key removed, the
+	 * smallest key becomes the last key and the entries of its bucket move down.
+	 * @return Either the id with the smallest priority or, if the heap is empty, -1. */
+	@Override
+	public int getMin() {
+		if (isEmpty()) {
+			return -1;
+		}
+
+		if (head[0] < 0) {
+			int lowest = 1;
+			while (head[lowest] < 0) {
+				lowest++;
+			}
+
+			long smallest = Long.MAX_VALUE;
+			for (int id = head[lowest]; id >= 0; id = next[id]) {
+				smallest = Math.min(smallest, key[id]);
+			}
+			last = smallest;
+
+			int id = head[lowest];
+			head[lowest] = -1;
+			while (id >= 0) {	// Every entry lands in a lower bucket, since its key now agrees with last in bit lowest - 1 and above
+				int following = next[id];
+				link(id, bucketFor(key[id]));
+				id = following;
+			}
+		}	// end if
+
+		return head[0];
+	}	// end getMin
+
+	/** Gets the current priority of an id in this heap.
+	 * @param id An id in the heap.
+	 * @return The id's priority. */
+	@Override
+	public double getPriority(int id) {
+		return priority[id];
+	}
+
+	/** Sees whether an id is in this heap.
+	 * @param id The id to look for.
+	 * @return True if the id is in the heap. */
+	@Override
+	public boolean contains(int id) {
+		return bucket[id] >= 0;
+	}
+
+	/** Detects whether this heap is empty.
+	 * @return True if the heap is empty, or false otherwise. */
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/** Gets the size of this heap.
+	 * @return The number of ids currently in the heap. */
+	@Override
+	public int getSize() {
+		return size;
+	}
+
+	/** Removes all ids from this heap, so that any priority may be added again. */
+	@Override
+	public void clear() {
+		for (int index = 0; (index < BUCKET_COUNT) && (size > 0); index++) {
+			for (int id = head[index]; id >= 0; id = next[id]) {
+				bucket[id] = -1;
+				size--;
+			}
+			head[index] = -1;
+		}
+		size = 0;
+		last = 0;
+	}	// end clear
+
+	private void setPriority(int id, double newPriority) {
+		if (!(newPriority >= 0.0)) {
+			throw new IllegalArgumentException("A radix heap cannot hold the priority " + newPriority + ".");
+		}
+
+		priority[id] = newPriority;
+		key[id] = Math.max(Double.doubleToLongBits(newPriority + 0.0), last);	// Adding 0.0 turns -0.0 into 0.0
+		link(id, bucketFor(key[id]));
+	}	// end setPriority
+
+	private int bucketFor(long entryKey) {
+		return 64 - Long.numberOfLeadingZeros(entryKey ^ last);
+	}
+
+	private void link(int id, int index) {
+		bucket[id] = index;
+		previous[id] = -1;
+		next[id] = head[index];
+		if (head[index] >= 0) {
+			previous[head[index]] = id;
+		}
+		head[index] = id;
+	}	// end link
+
+	private void unlink(int id) {
+		if (previous[id] >= 0) {
+			next[previous[id]] = next[id];
+		} else {
+			head[bucket[id]] = next[id];
+		}
+		if (next[id] >= 0) {
+			previous[next[id]] = previous[id];
+		}
+	}	// end unlink
+
+}	// end RadixHeap
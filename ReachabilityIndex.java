@@ -0,0 +1,179 @@
+import java.util.Arrays;
+
+/** Answers whether any path leads from one vertex of a CompressedGraph to another without searching.
+ * The strongly connected components are found with an iterative version of Tarjan's algorithm, and
+ * for every component of the condensation a bitset records the components it can reach.
+ */
+final class ReachabilityIndex {
+
+	private static final int MAX_TABLE_COMPONENTS = 16384;	// Larger condensations keep only the components; the table would need over 32 MB
+
+	private final int vertexCount;
+	private final int[] component;	// Component of each vertex; a component's successors have smaller numbers
+	private final int componentCount;
+	private final int words;	// Longs per bitset row
+	private final long[] reachable;	// Row c holds the components reachable from c, or null if there are too many
+
+	private ReachabilityIndex(int vertexCount, int[] component, int componentCount, long[] reachable) {
+		this.vertexCount = vertexCount;
+		this.component = component;
+		this.componentCount = componentCount;
+		this.words = (componentCount + 63) >>> 6;
+		this.reachable = reachable;
+	}	// end constructor
+
+	/** Finds the strongly connected components of a graph and which of them reach which.
+	 * @param graph The graph to index.
+	 * @return An index for the graph. */
+	static ReachabilityIndex create(CompressedGraph<?> graph) {
+		int vertexCount = graph.getNumberOfVertices();
+		int[] component = new int[vertexCount];
+		int componentCount = findComponents(graph, component);
+
+		long[] reachable = null;
+		if (componentCount <= MAX_TABLE_COMPONENTS) {
+			reachable = buildTable(graph, component, componentCount);
+		}
+
+		return new ReachabilityIndex(vertexCount, component, componentCount, reachable);
+	}	// end create
+
+	/** Numbers the strongly connected components with Tarjan's algorithm, keeping an explicit stack of
+	 * vertices and the next edge to try from each in place of recursion. Components are numbered as they
+	 * are completed, so every edge between components leads to a smaller number.
+	 * @return The number of components. */
+	private static int findComponents(CompressedGraph<?> graph, int[] component) {
+		int vertexCount = graph.getNumberOfVertices();
+		int[] order = new int[vertexCount];	// Discovery number of each vertex, or -1 if undiscovered
+		int[] low = new int[vertexCount];	// Smallest discovery number reachable through the search tree
+		int[] nextEdge = new int[vertexCount];	// Next edge to try from each vertex on the call stack
+		int[] callStack = new int[vertexCount];
+		int[] openStack = new int[vertexCount];	// Discovered vertices whose component is not complete
+		Arrays.fill(order, -1);
+		Arrays.fill(component, -1);
+
+		int discovered = 0;
+		int componentCount = 0;
+		int openTop = -1;
+		for (int root = 0; root < vertexCount; root++) {
+			if (order[root] >= 0) {
+				continue;
+			}
+
+			int callTop = 0;
+			callStack[0] = root;
+			order[root] = low[root] = discovered++;
+			nextEdge[root] = graph.getEdgeOffset(root);
+			openStack[++openTop] = root;
+
+			while (callTop >= 0) {
+				int vertex = callStack[callTop];
+				if (nextEdge[vertex] < graph.getEdgeOffset(vertex + 1)) {
+					int neighbor = graph.getEdgeTarget(nextEdge[vertex]++);
+					if (order[neighbor] < 0) {
+						order[neighbor] = low[neighbor] = discovered++;
+						nextEdge[neighbor] = graph.getEdgeOffset(neighbor);
+						openStack[++openTop] = neighbor;
+						callStack[++callTop] = neighbor;
+					} else if (component[neighbor] < 0) {	// Still open, so in the current search tree
+						low[vertex] = Math.min(low[vertex], order[neighbor]);
+					}
+				} else {
+					callTop--;
+					if (low[vertex] == order[vertex]) {	// Vertex is the root of a component
+						int member;
+						do {
+							member = openStack[openTop--];
+							component[member] = componentCount;
+						} while (member != vertex);
+						componentCount++;
+					}
+					if (callTop >= 0) {
+						int parent = callStack[callTop];
+						low[parent] = Math.min(low[parent], low[vertex]);
+					}
+				}	// end if
+			}	// end while
+		}	// end for
+
+		return componentCount;
+	}	// end findComponents
+
+	/** Fills in each component's bitset of reachable components. Components are visited in increasing
+	 * order, so the rows of all successors are complete before they are merged. */
+	private static long[] buildTable(CompressedGraph<?> graph, int[] component, int componentCount) {
+		int vertexCount = graph.getNumberOfVertices();
+		int words = (componentCount + 63) >>> 6;
+		long[] reachable = new long[componentCount * words];
+
+		// Group the vertices by component with a counting sort
+		int[] memberOffsets = new int[componentCount + 1];
+		for (int vertex = 0; vertex < vertexCount; vertex++) {
+			memberOffsets[component[vertex] + 1]++;
+		}
+		for (int index = 0; index < componentCount; index++) {
+			memberOffsets[index + 1] += memberOffsets[index];
+		}
+		int[] members = new int[vertexCount];
+		int[] nextSlot = Arrays.copyOf(memberOffsets, componentCount);
+		for (int vertex = 0; vertex < vertexCount; vertex++) {
+			members[nextSlot[component[vertex]]++] = vertex;
+		}
+
+		int[] lastMerged = new int[componentCount];	// Component whose row last took in each row
+		Arrays.fill(lastMerged, -1);
+		for (int from = 0; from < componentCount; from++) {
+			int row = from * words;
+			reachable[row + (from >>> 6)] |= 1L << from;
+			for (int slot = memberOffsets[from]; slot < memberOffsets[from + 1]; slot++) {
+				int vertex = members[slot];
+				for (int edge = graph.getEdgeOffset(vertex); edge < graph.getEdgeOffset(vertex + 1); edge++) {
+					int to = component[graph.getEdgeTarget(edge)];
+					if ((to != from) && (lastMerged[to] != from)) {
+						lastMerged[to] = from;
+						int otherRow = to * words;
+						for (int word = 0; word < words; word++) {
+							reachable[row + word] |= reachable[otherRow + word];
+						}
+					}
+				}
+			}	// end for
+		}	// end for
+
+		return reachable;
+	}	// end buildTable
+
+	/** Sees whether a path may lead from one vertex to another.
+	 * @param from The index of the origin vertex.
+	 * @param to The index of the destination vertex.
+	 * @return False if there is certainly no path; true if there is one, or if the graph has too
+	 * many components for this index to tell. */
+	boolean canReach(int from, int to) {
+		int fromComponent = component[from];
+		int toComponent = component[to];
+		if ((fromComponent == toComponent) || (reachable == null)) {
+			return true;
+		}
+
+		return (reachable[fromComponent * words + (toComponent >>> 6)] & (1L << toComponent)) != 0;
+	}	// end canReach
+
+	/** Sees whether canReach gives an exact answer for every pair of vertices.
+	 * @return True if the index holds the reachability of every component. */
+	boolean isComplete() {
+		return reachable != null;
+	}
+
+	/** Gets the number of vertices of the graph this index was built for.
+	 * @return The number of vertices. */
+	int getNumberOfVertices() {
+		return vertexCount;
+	}
+
+	/** Gets the number of strongly connected components.
+	 * @return The number of components. */
+	int getNumberOfComponents() {
+		return componentCount;
+	}
+
+}	// end ReachabilityIndex
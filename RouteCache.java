@@ -0,0 +1,191 @@
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/** A bounded cache of cheapest-path results keyed by origin and destination vertex index.
+ * Entries are split over several segments, each kept in least-recently-used order under its
+ * own lock, so threads looking up different routes rarely wait for one another. Clearing the
+ * cache starts a new generation, and results computed before the clear are never stored.
+ * @param <T> The type of the vertex labels
+ */
+public final class RouteCache<T> {
+
+	private static final int MAX_SEGMENTS = 16;
+
+	private final Segment<T>[] segments;
+	private final int capacity;
+	private volatile long generation;	// Incremented by every clear
+	private final AtomicLong hitCount;
+	private final AtomicLong missCount;
+	private final AtomicLong evictionCount;
+
+	/** Creates an empty cache.
+	 * @param capacity The largest number of routes to keep.
+	 */
+	public RouteCache(int capacity) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("A route cache must hold at least one route.");
+		}
+
+		this.capacity = capacity;
+		hitCount = new AtomicLong();
+		missCount = new AtomicLong();
+		evictionCount = new AtomicLong();
+		generation = 0;
+
+		int segmentCount = Math.min(MAX_SEGMENTS, Integer.highestOneBit(capacity));
+		// The cast is safe because the new array contains null entries
+		@SuppressWarnings({"unchecked", "rawtypes"})
+		Segment<T>[] temp = (Segment<T>[]) new Segment[segmentCount];
+		segments = temp;
+		for (int index = 0; index < segmentCount; index++) {
+			int segmentCapacity = capacity / segmentCount + ((index < capacity % segmentCount) ? 1 : 0);
+			segments[index] = new Segment<>(segmentCapacity, evictionCount);
+		}
+	}	// end constructor
+
+	/** Gets the current generation, to be passed to put with a result computed afterward.
+	 * @return The number of times this cache has been cleared. */
+	long getGeneration() {
+		return generation;
+	}
+
+	/** Retrieves a cached route, marking it as recently used.
+	 * @param begin The index of the origin vertex.
+	 * @param end The index of the destination vertex.
+	 * @return The cached route, or null if the route is not in the cache. */
+	Route<T> get(int begin, int end) {
+		long key = toKey(begin, end);
+		Segment<T> segment = segmentFor(key);
+		Route<T> result;
+		synchronized (segment) {
+			result = segment.get(key);
+		}
+
+		if (result == null) {
+			missCount.incrementAndGet();
+		} else {
+			hitCount.incrementAndGet();
+		}
+
+		return result;
+	}	// end get
+
+	/** Stores a route unless the cache was cleared after the route's search began.
+	 * @param begin The index of the origin vertex.
+	 * @param end The index of the destination vertex.
+	 * @param route The route to store.
+	 * @param searchGeneration The generation read before the search began. */
+	void put(int begin, int end, Route<T> route, long searchGeneration) {
+		long key = toKey(begin, end);
+		Segment<T> segment = segmentFor(key);
+		synchronized (segment) {
+			if (searchGeneration == generation) {
+				segment.put(key, route);
+			}
+		}
+	}	// end put
+
+	/** Removes all routes from this cache; the hit, miss and eviction counts are kept. */
+	public void clear() {
+		generation++;	// Only the graph's writer clears, so the increment is not contended
+		for (Segment<T> segment : segments) {
+			synchronized (segment) {
+				segment.clear();
+			}
+		}
+	}	// end clear
+
+	/** Gets the number of routes in this cache.
+	 * @return The number of cached routes. */
+	public int getSize() {
+		int result = 0;
+		for (Segment<T> segment : segments) {
+			synchronized (segment) {
+				result += segment.size();
+			}
+		}
+
+		return result;
+	}	// end getSize
+
+	/** Gets the largest number of routes this cache keeps.
+	 * @return The capacity of the cache. */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/** Gets the number of lookups that found their route.
+	 * @return The number of cache hits. */
+	public long getHitCount() {
+		return hitCount.get();
+	}
+
+	/** Gets the number of lookups that did not find their route.
+	 * @return The number of cache misses. */
+	public long getMissCount() {
+		return missCount.get();
+	}
+
+	/** Gets the number of routes dropped to make room for newer ones.
+	 * @return The number of evictions. */
+	public long getEvictionCount() {
+		return evictionCount.get();
+	}
+
+	private static long toKey(int begin, int end) {
+		return ((long) begin << 32) | (end & 0xFFFFFFFFL);
+	}
+
+	private Segment<T> segmentFor(long key) {
+		int hash = (int) (key ^ (key >>> 32)) * 0x9E3779B9;	// Spread nearby indices over all segments
+		return segments[(hash >>> 16) & (segments.length - 1)];
+	}
+
+	/** The cost of a cheapest path and the vertex indices along it, origin first, in the snapshot
+	 * that was searched. */
+	static final class Route<T> {
+		private final CompressedGraph<T> graph;
+		private final int[] vertices;
+		private final double cost;
+
+		Route(CompressedGraph<T> graph, int[] vertices, double cost) {
+			this.graph = graph;
+			this.vertices = vertices;
+			this.cost = cost;
+		}
+
+		double getCost() {
+			return cost;
+		}
+
+		/** Copies this route into a result. */
+		void copyTo(PathResult<T> result) {
+			result.set(graph, vertices, cost);
+		}
+	}	// end Route
+
+	/** Routes in least-recently-used order, dropping the eldest when full. */
+	private static final class Segment<T> extends LinkedHashMap<Long, Route<T>> {
+		private static final long serialVersionUID = 1L;
+		private final int segmentCapacity;
+		private final AtomicLong evictionCount;
+
+		private Segment(int segmentCapacity, AtomicLong evictionCount) {
+			super(16, 0.75f, true);	// Access order
+			this.segmentCapacity = segmentCapacity;
+			this.evictionCount = evictionCount;
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Long, Route<T>> eldest) {
+			boolean full = size() > segmentCapacity;
+			if (full) {
+				evictionCount.incrementAndGet();
+			}
+
+			return full;
+		}	// end removeEldestEntry
+	}	// end Segment
+
+}	// end RouteCache
@@ -0,0 +1,206 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/** Builds a graph of airports and routes from a file of airports and any number of route files, or
+ * shards, such as one per carrier. The airport file and every shard are parsed at the same time as
+ * tasks of a fork-join pool. Each shard task fills an edge buffer of its own, keyed by packed airport
+ * code, so shards need not wait for the airports. The buffers are then merged in the order the
+ * shards were given and added with one call to DirectedGraph.addEdges, whose single pass drops
+ * duplicate routes, so the graph is the same as if the shards had been read one after another:
+ * vertices are numbered in the order of the airport file, and the first of any repeated route wins.
+ */
+public final class RouteLoader {
+
+	private static final int DEFAULT_CAPACITY = 1024;
+
+	private final DirectedGraph<String> graph;
+	private final ForkJoinPool pool;
+	private AirportMetadata airports;	// Information about the airports loaded, or empty before load
+
+	/** Creates a loader that uses the common fork-join pool.
+	 * @param routeGraph The graph to receive the airports and routes. */
+	public RouteLoader(DirectedGraph<String> routeGraph) {
+		this(routeGraph, ForkJoinPool.commonPool());
+	}
+
+	/** Creates a loader.
+	 * @param routeGraph The graph to receive the airports and routes.
+	 * @param taskPool The pool whose threads parse the files. */
+	public RouteLoader(DirectedGraph<String> routeGraph, ForkJoinPool taskPool) {
+		graph = routeGraph;
+		pool = taskPool;
+		airports = AirportMetadata.empty();
+	}	// end constructor
+
+	/** Finds route shards by name, in an order that does not depend on the file system.
+	 * @param directory The directory to look in.
+	 * @param prefix The start of the name of every shard.
+	 * @return The paths of the files in the directory whose names start with prefix and end in .csv,
+	 * sorted by name. */
+	public static List<String> findShards(String directory, String prefix) {
+		File[] files = new File(directory).listFiles((folder, name) -> name.startsWith(prefix) && name.endsWith(".csv"));
+		List<String> shards = new ArrayList<>();
+		if (files != null) {
+			Arrays.sort(files);
+			for (File nextFile : files) {
+				shards.add(nextFile.getPath());
+			}
+		}
+
+		return shards;
+	}	// end findShards
+
+	/** Reads the airports and routes into the graph. Every airport becomes a vertex, with its location
+	 * if its third and fourth fields are both numbers. A route is a line of an origin code, a
+	 * destination code and a distance; routes with fewer fields or with an airport not in the airport
+	 * file are skipped.
+	 * If the airport file cannot be read, nothing is added. If a shard cannot be read, the airports
+	 * are added but none of the routes.
+	 * @param airportFile The name of the file of airports, as AirportMetadata.open reads.
+	 * @param routeFiles The names of the route shards.
+	 * @return The number of routes added.
+	 * @throws IOException if a file cannot be read or the loading is interrupted. */
+	public int load(String airportFile, List<String> routeFiles) throws IOException {
+		ForkJoinTask<AirportMetadata> airportTask = pool.submit(() -> AirportMetadata.open(airportFile));
+		List<ForkJoinTask<EdgeBuffer>> shardTasks = new ArrayList<>();
+		for (String nextFile : routeFiles) {
+			shardTasks.add(pool.submit(() -> EdgeBuffer.read(nextFile)));
+		}
+
+		airports = await(airportTask);
+		String[] codes = new String[airports.getNumberOfAirports()];	// Each airport's code, decoded once
+		for (int id = 0; id < codes.length; id++) {
+			codes[id] = airports.getCode(id);
+			graph.addVertex(codes[id]);
+			setLocation(codes[id], id);
+		}
+
+		List<EdgeBuffer> buffers = new ArrayList<>();
+		int edgeCount = 0;
+		for (ForkJoinTask<EdgeBuffer> nextTask : shardTasks) {	// Wait for every shard before adding any route
+			EdgeBuffer nextBuffer = await(nextTask);
+			buffers.add(nextBuffer);
+			edgeCount += nextBuffer.size;
+		}
+
+		List<String> origins = new ArrayList<>(edgeCount);
+		List<String> destinations = new ArrayList<>(edgeCount);
+		double[] distances = new double[edgeCount];
+		for (EdgeBuffer nextBuffer : buffers) {	// In shard order, so the first of any repeated route wins
+			for (int edge = 0; edge < nextBuffer.size; edge++) {
+				int origin = nextBuffer.resolve(nextBuffer.origins[edge], airports);
+				int destination = nextBuffer.resolve(nextBuffer.destinations[edge], airports);
+				if ((origin >= 0) && (destination >= 0)) {
+					distances[origins.size()] = nextBuffer.distances[edge];
+					origins.add(codes[origin]);
+					destinations.add(codes[destination]);
+				}
+			}
+		}	// end for
+
+		return graph.addEdges(origins, destinations, Arrays.copyOf(distances, origins.size()));
+	}	// end load
+
+	/** Gets the information about the airports read by load.
+	 * @return The airports, or an empty store if load has not read them. */
+	public AirportMetadata getAirports() {
+		return airports;
+	}
+
+	/** Records an airport's location if its line gives one: the third and fourth fields are taken as
+	 * latitude and longitude only when both are numbers, so a file whose further fields hold other
+	 * information, such as a city and country, still loads. */
+	private void setLocation(String code, int id) {
+		if (airports.getNumberOfFields(id) >= 4) {	// Optional latitude and longitude columns
+			try {
+				double latitude = airports.getDouble(id, AirportMetadata.LATITUDE);
+				double longitude = airports.getDouble(id, AirportMetadata.LONGITUDE);
+				graph.setLocation(code, latitude, longitude);
+			} catch (NumberFormatException e) {
+				// Not a location, so the airport has none
+			}
+		}
+	}	// end setLocation
+
+	/** Waits for a task, passing on any IOException or unchecked exception it threw. */
+	private static <R> R await(ForkJoinTask<R> task) throws IOException {
+		try {
+			return task.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Loading was interrupted.");
+		} catch (ExecutionException e) {
+			for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+				if (cause instanceof IOException) {	// The pool wraps a checked exception, perhaps more than once
+					throw (IOException) cause;
+				}
+			}
+			if (e.getCause() instanceof Error) {
+				throw (Error) e.getCause();
+			}
+			throw (e.getCause() instanceof RuntimeException) ? (RuntimeException) e.getCause() : new IllegalStateException(e.getCause());
+		}
+	}	// end await
+
+	/** The routes of one shard, as filled in by the one task that reads it. An airport is held as its
+	 * packed code, or, if its code cannot be packed, as -1 - k for the k-th entry of otherCodes. */
+	private static final class EdgeBuffer {
+		private int[] origins = new int[DEFAULT_CAPACITY];
+		private int[] destinations = new int[DEFAULT_CAPACITY];
+		private double[] distances = new double[DEFAULT_CAPACITY];
+		private int size = 0;
+		private final List<String> otherCodes = new ArrayList<>();
+
+		/** Parses a route shard. */
+		private static EdgeBuffer read(String fileName) throws IOException {
+			EdgeBuffer buffer = new EdgeBuffer();
+			CsvReader records = CsvReader.open(fileName);
+			while (records.nextRecord()) {
+				if (records.getNumberOfFields() >= 3) {
+					buffer.add(buffer.encode(records, 0), buffer.encode(records, 1), records.getDouble(2));
+				}
+			}
+
+			return buffer;
+		}	// end read
+
+		private int encode(CsvReader records, int field) {
+			int packedCode = AirportCodeDictionary.pack(records.getText(), records.getFieldStart(field), records.getFieldEnd(field));
+			if (packedCode >= 0) {
+				return packedCode;
+			}
+
+			String code = records.getString(field);
+			packedCode = AirportCodeDictionary.pack(code);	// A quoted code can still be packed
+			if (packedCode >= 0) {
+				return packedCode;
+			}
+			otherCodes.add(code);
+			return -otherCodes.size();
+		}	// end encode
+
+		private int resolve(int airport, AirportMetadata metadata) {
+			return (airport >= 0) ? metadata.getId(airport) : metadata.getId(otherCodes.get(-1 - airport));
+		}
+
+		private void add(int origin, int destination, double distance) {
+			if (size == origins.length) {
+				origins = Arrays.copyOf(origins, 2 * size);
+				destinations = Arrays.copyOf(destinations, 2 * size);
+				distances = Arrays.copyOf(distances, 2 * size);
+			}
+			origins[size] = origin;
+			destinations[size] = destination;
+			distances[size] = distance;
+			size++;
+		}	// end add
+	}	// end EdgeBuffer
+
+}	// end RouteLoader
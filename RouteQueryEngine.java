@@ -0,0 +1,53 @@
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/** Answers cheapest-path questions about one graph on a pool of worker threads.
+ * Each search keeps its state in the worker's own SearchContext, so queries run in
+ * parallel without locking. The graph may be changed while queries are running: each
+ * query searches the snapshot that was current when it started, and a change only
+ * makes later queries use a new one.
+ * @param <T> The type of the vertex labels
+ */
+public final class RouteQueryEngine<T> {
+
+	private final DirectedGraph<T> graph;
+	private final ExecutorService executor;
+
+	/** Creates an engine with one worker per available processor.
+	 * @param graph The graph to query.
+	 */
+	public RouteQueryEngine(DirectedGraph<T> graph) {
+		this(graph, Runtime.getRuntime().availableProcessors());
+	}
+
+	/** Creates an engine with a given number of workers.
+	 * @param graph The graph to query.
+	 * @param threadCount The number of worker threads.
+	 */
+	public RouteQueryEngine(DirectedGraph<T> graph, int threadCount) {
+		if (threadCount < 1) {
+			throw new IllegalArgumentException("An engine needs at least one worker thread.");
+		}
+
+		this.graph = graph;
+		executor = Executors.newFixedThreadPool(threadCount);
+	}	// end constructor
+
+	/** Schedules a search for the least-cost path between two given vertices.
+	 * @param begin An object that labels the path's origin vertex.
+	 * @param end An object that labels the path's destination vertex.
+	 * @param path A stack of labels that is empty initially; once the result is available, it contains
+	 * the labels along the cheapest path with the origin at the top. It must not be shared with another query.
+	 * @return A future holding the cost of the cheapest path, or -1 if there is no such path. */
+	public Future<Double> submitCheapestPath(T begin, T end, StackInterface<T> path) {
+		graph.freeze();	// Build the snapshot once here rather than in every worker
+		return executor.submit(() -> graph.getCheapestPath(begin, end, path));
+	}	// end submitCheapestPath
+
+	/** Stops accepting queries; queries already submitted still finish. */
+	public void shutdown() {
+		executor.shutdown();
+	}
+
+}	// end RouteQueryEngine
@@ -0,0 +1,136 @@
+import java.util.Arrays;
+
+/** Working storage for one search over a CompressedGraph. Each thread keeps its own context,
+ * so searches running at the same time never share visited marks, costs or predecessors.
+ * Marks are stamped with a search number, so starting a new search does not clear the arrays.
+ */
+final class SearchContext {
+
+	private final double[] cost;	// Cost of the best path found so far to each vertex
+	private final int[] predecessor;	// Previous vertex on that path
+	private final int[] reached;	// Search number that last gave each vertex a cost
+	private final int[] settled;	// Search number that last settled each vertex
+	private final int[] marked;	// Search number that last marked each vertex as a target
+	private final int[] settledOrder;	// Vertices settled by the current search, in the order settled
+	private int settledCount;
+	private final VertexPriorityQueue queue;	// Reached vertices that are not yet settled
+	private int searchNumber;
+	private int[] pathBuffer;	// Scratch space for rebuilding a path, kept from search to search
+
+	SearchContext(int vertexCount, VertexPriorityQueue queue) {
+		cost = new double[vertexCount];
+		predecessor = new int[vertexCount];
+		reached = new int[vertexCount];
+		settled = new int[vertexCount];
+		marked = new int[vertexCount];
+		settledOrder = new int[vertexCount];
+		settledCount = 0;
+		this.queue = queue;
+		searchNumber = 0;
+		pathBuffer = new int[16];
+	}	// end constructor
+
+	/** Starts a new search, forgetting the marks left by the previous one. */
+	void reset() {
+		queue.clear();
+		settledCount = 0;
+		searchNumber++;
+		if (searchNumber == Integer.MAX_VALUE) {	// Stamps are about to wrap, so clear them once
+			Arrays.fill(reached, 0);
+			Arrays.fill(settled, 0);
+			Arrays.fill(marked, 0);
+			searchNumber = 1;
+		}
+	}	// end reset
+
+	/** Sees whether a vertex was given a cost during the current search.
+	 * @param vertex The index of a vertex.
+	 * @return True if the vertex has been reached.
+	 */
+	boolean isReached(int vertex) {
+		return reached[vertex] == searchNumber;
+	}
+
+	/** Records a path to a vertex that is cheaper than any found before.
+	 * @param vertex The index of the vertex reached.
+	 * @param pathCost The cost of the path to the vertex.
+	 * @param previous The index of the previous vertex, or -1 for the origin.
+	 */
+	void reach(int vertex, double pathCost, int previous) {
+		reached[vertex] = searchNumber;
+		cost[vertex] = pathCost;
+		predecessor[vertex] = previous;
+	}	// end reach
+
+	/** Sees whether a vertex was settled during the current search.
+	 * @param vertex The index of a vertex.
+	 * @return True if the vertex's cost is final.
+	 */
+	boolean isSettled(int vertex) {
+		return settled[vertex] == searchNumber;
+	}
+
+	/** Marks the cost of a reached vertex as final.
+	 * @param vertex The index of the vertex to settle.
+	 */
+	void settle(int vertex) {
+		settled[vertex] = searchNumber;
+		settledOrder[settledCount++] = vertex;
+	}
+
+	/** Gets the number of vertices settled during the current search.
+	 * @return The number of settled vertices.
+	 */
+	int getSettledCount() {
+		return settledCount;
+	}
+
+	/** Gets a vertex settled during the current search, so the settled vertices can be visited
+	 * without scanning every vertex of the graph.
+	 * @param position The position of the vertex in settling order, from 0 to getSettledCount() - 1.
+	 * @return The index of the vertex.
+	 */
+	int getSettledVertex(int position) {
+		return settledOrder[position];
+	}
+
+	/** Sees whether a vertex was marked during the current search.
+	 * @param vertex The index of a vertex.
+	 * @return True if the vertex has been marked.
+	 */
+	boolean isMarked(int vertex) {
+		return marked[vertex] == searchNumber;
+	}
+
+	/** Marks a vertex for the current search, such as one of several targets.
+	 * @param vertex The index of the vertex to mark.
+	 */
+	void mark(int vertex) {
+		marked[vertex] = searchNumber;
+	}
+
+	double getCost(int vertex) {
+		return cost[vertex];
+	}
+
+	int getPredecessor(int vertex) {
+		return predecessor[vertex];
+	}
+
+	VertexPriorityQueue getQueue() {
+		return queue;
+	}
+
+	/** Gets scratch space for vertex indices that lasts from search to search, so that rebuilding a
+	 * path need not allocate.
+	 * @param minimumLength The number of entries needed.
+	 * @return An array of at least that length, holding whatever was last written to it.
+	 */
+	int[] getPathBuffer(int minimumLength) {
+		if (minimumLength > pathBuffer.length) {
+			pathBuffer = Arrays.copyOf(pathBuffer, Math.max(minimumLength, 2 * pathBuffer.length));
+		}
+		return pathBuffer;
+	}	// end getPathBuffer
+
+}	// end SearchContext
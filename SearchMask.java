@@ -0,0 +1,51 @@
+import java.util.Arrays;
+
+/** Vertices and edges of a CompressedGraph that a search must not use, so that a search can
+ * run over part of a graph without copying it. Exclusions are stamped with a mask number, so
+ * clearing the mask does not clear the arrays.
+ */
+final class SearchMask {
+
+	private final int[] excludedVertices;	// Mask number that last excluded each vertex
+	private final int[] excludedEdges;	// Mask number that last excluded each edge, by position in the edge arrays
+	private int maskNumber;
+
+	SearchMask(int vertexCount, int edgeCount) {
+		excludedVertices = new int[vertexCount];
+		excludedEdges = new int[edgeCount];
+		maskNumber = 1;
+	}	// end constructor
+
+	/** Allows every vertex and edge again. */
+	void clear() {
+		maskNumber++;
+		if (maskNumber == Integer.MAX_VALUE) {	// Stamps are about to wrap, so clear them once
+			Arrays.fill(excludedVertices, 0);
+			Arrays.fill(excludedEdges, 0);
+			maskNumber = 1;
+		}
+	}	// end clear
+
+	/** Keeps searches from entering a vertex.
+	 * @param vertex The index of the vertex to exclude.
+	 */
+	void excludeVertex(int vertex) {
+		excludedVertices[vertex] = maskNumber;
+	}
+
+	boolean isVertexExcluded(int vertex) {
+		return excludedVertices[vertex] == maskNumber;
+	}
+
+	/** Keeps searches from following an edge.
+	 * @param edge The position of the edge in the graph's edge arrays.
+	 */
+	void excludeEdge(int edge) {
+		excludedEdges[edge] = maskNumber;
+	}
+
+	boolean isEdgeExcluded(int edge) {
+		return excludedEdges[edge] == maskNumber;
+	}
+
+}	// end SearchMask
@@ -1,21 +1,39 @@
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 import java.util.List;
-import java.util.LinkedList;
-/** A class of vertices for a graph. */
+/** A class of vertices for a graph. Edges are kept as the indices of their end vertices and their
+ * weights in two growable arrays; once a vertex has many edges, a hash set of the end indices lets
+ * connect reject a duplicate edge without scanning them all. */
 class Vertex<T> implements VertexInterface<T> {
-	private T label;
-	private List<Edge> edgeList;	// Edges to neighbors
-	private boolean visited;	// True if visited
-	private VertexInterface<T> previousVertex;	// On path to this vertex
-	private double cost;	// Of path to vertex
+	private static final int DEFAULT_CAPACITY = 4;	// Edges a vertex can hold before its arrays first grow
+	private static final int HASHED_DEGREE = 16;	// Number of edges at which duplicates are found by hashing
 
-	public Vertex(T vertexLabel) {
+	private T label;
+	private int index;	// Position of this vertex in its graph
+	private final List<? extends VertexInterface<T>> graphVertices;	// Vertices of the graph by index, to turn edge ends back into vertices
+	private int[] edgeTargets;	// Index of the vertex that ends each edge
+	private double[] edgeWeights;	// Weight of each edge
+	private int edgeCount;	// Number of edges that begin at this vertex
+	private int[] targetSet;	// Open-addressing set of the indices in edgeTargets, with -1 for a free slot; null while there are few edges
+	private double latitude;	// In degrees, or NaN if the location is unknown
+	private double longitude;	// In degrees, or NaN if the location is unknown
+
+	/** Creates a vertex with no edges.
+	 * @param vertexLabel The object that labels the vertex.
+	 * @param vertexIndex The position of the vertex in its graph.
+	 * @param vertexList The vertices of the graph, each at its index; the graph keeps adding to it.
+	 */
+	public Vertex(T vertexLabel, int vertexIndex, List<? extends VertexInterface<T>> vertexList) {
 		label = vertexLabel;
-		edgeList = new LinkedList<>();
-		visited = false;
-		previousVertex = null;
-		cost = 0;
+		index = vertexIndex;
+		graphVertices = vertexList;
+		edgeTargets = new int[DEFAULT_CAPACITY];
+		edgeWeights = new double[DEFAULT_CAPACITY];
+		edgeCount = 0;
+		targetSet = null;
+		latitude = Double.NaN;
+		longitude = Double.NaN;
 	}	// end constructor
 
 	/** Gets this vertex's label.
@@ -26,24 +44,12 @@ class Vertex<T> implements VertexInterface<T> {
 		return label;
 	}
 
-	/** Marks this vertex as visited. */
-	@Override
-	public void visit() {
-		visited = true;
-	}
-
-	/** Removes this vertex's visited mark. */
-	@Override
-	public void unvisit() {
-		visited = false;
-	}
-
-	/** Sees whether the vertex is marked as visited.
-	 * @return True if the vertex is visited.
+	/** Gets this vertex's index within its graph.
+	 * @return The integer that identifies the vertex in its graph.
 	 */
 	@Override
-	public boolean isVisited() {
-		return visited;
+	public int getIndex() {
+		return index;
 	}
 
 	/** Connects this vertex and given vertex with an unweighted edge.
@@ -70,26 +76,85 @@ class Vertex<T> implements VertexInterface<T> {
 	public boolean connect(VertexInterface<T> endVertex, double edgeWeight) {
 		boolean result = false;
 
-		if (!this.equals(endVertex)) {	// Vertices are distinct
+		if (!this.equals(endVertex) && !hasEdgeTo(endVertex.getIndex())) {	// Vertices are distinct and not yet joined
+			ensureCapacity(edgeCount + 1);
+			addEdge(endVertex.getIndex(), edgeWeight);
+			result = true;
+		}	// end if
 
-			Iterator<VertexInterface<T>> neighbors = getNeighborIterator();
-			boolean duplicateEdge = false;
+		return result;
+	}	// end connect
 
-			while (!duplicateEdge && neighbors.hasNext()) {	// looping while there the vertex isn't null and there isn't a duplicate
-				VertexInterface<T> nextNeighbor = neighbors.next();
-				if (endVertex.equals(nextNeighbor)) {
-					duplicateEdge = true;
+	/** Appends edges that the caller has already checked: each ends at a vertex of this graph other
+	 * than this one, no two end at the same vertex, and none duplicates an edge of this vertex.
+	 * @param targets The indices of the vertices that end the new edges.
+	 * @param weights The weights of the new edges.
+	 * @param from The position in targets and weights of the first new edge.
+	 * @param to The position just past the last new edge.
+	 */
+	void addEdges(int[] targets, double[] weights, int from, int to) {
+		ensureCapacity(edgeCount + (to - from));
+		for (int position = from; position < to; position++) {
+			addEdge(targets[position], weights[position]);
+		}
+	}	// end addEdges
+
+	/** Sees whether an edge from this vertex ends at a given vertex.
+	 * @param target The index of the possible end vertex.
+	 * @return True if the edge exists.
+	 */
+	boolean hasEdgeTo(int target) {
+		if (targetSet == null) {
+			for (int edge = 0; edge < edgeCount; edge++) {
+				if (edgeTargets[edge] == target) {
+					return true;
 				}
-			}	// end while
+			}
+			return false;
+		}
 
-			if (!duplicateEdge) {
-				edgeList.add(new Edge(endVertex, edgeWeight));
-				result = true;
-			}	// end if
-		}	// end if
+		int mask = targetSet.length - 1;
+		for (int slot = hash(target) & mask; targetSet[slot] >= 0; slot = (slot + 1) & mask) {
+			if (targetSet[slot] == target) {
+				return true;
+			}
+		}
+		return false;
+	}	// end hasEdgeTo
+
+	/** Gets the number of edges that begin at this vertex.
+	 * @return The number of edges. */
+	int getEdgeCount() {
+		return edgeCount;
+	}
 
-		return result;
-	}	// end connect
+	/** Gets the end of an edge of this vertex.
+	 * @param edge The position of the edge, from 0 to getEdgeCount() - 1, in the order edges were added.
+	 * @return The index of the vertex that ends the edge. */
+	int getEdgeTarget(int edge) {
+		return edgeTargets[edge];
+	}
+
+	/** Gets the weight of an edge of this vertex.
+	 * @param edge The position of the edge, from 0 to getEdgeCount() - 1, in the order edges were added.
+	 * @return The weight of the edge. */
+	double getEdgeWeight(int edge) {
+		return edgeWeights[edge];
+	}
+
+	/** Gets the array holding the ends of this vertex's edges. Edges are only ever appended, and the
+	 * array is replaced when it grows, so its first getEdgeCount() entries, read at the same time,
+	 * stay as they are while more edges are added.
+	 * @return The array itself, which must not be changed. */
+	int[] getEdgeTargets() {
+		return edgeTargets;
+	}
+
+	/** Gets the array holding the weights of this vertex's edges, which stays as getEdgeTargets describes.
+	 * @return The array itself, which must not be changed. */
+	double[] getEdgeWeights() {
+		return edgeWeights;
+	}
 
 	/** Creates an iterator of this vertex's neighbors by following 
 	 * all edges that begin at this vertex.
@@ -114,90 +179,109 @@ class Vertex<T> implements VertexInterface<T> {
 	 */
 	@Override
 	public boolean hasNeighbor() {
-		return !edgeList.isEmpty();
+		return edgeCount > 0;
 	}
 
-	/** Gets an unvisited neighbor, if any, of this vertex.
-	 * @return Either a vertex that is an unvisted neighbor or null if no such
-	 * neighbor exists.
+	/** Records the geographic location of this vertex.
+	 * @param newLatitude The latitude in degrees.
+	 * @param newLongitude The longitude in degrees.
 	 */
 	@Override
-	public VertexInterface<T> getUnvistedNeighbor() {
-		VertexInterface<T> result = null;
-
-		Iterator<VertexInterface<T>> neighbors = getNeighborIterator();
-		while (neighbors.hasNext() && (result == null)) {
-			VertexInterface<T> nextNeighbor = neighbors.next();
-			if (!nextNeighbor.isVisited()) {	// If vertex isn't visited we update the result and the 
-								// case where result being null will no longer pass.
-				result = nextNeighbor;
-			}
-		}	// end while
-
-		return result;
-	}	// end getUnvistedNeighbor
-
-	/** Records the previous vertex on a path to this vertex.
-	 * @param predecessor The vertex previous to this one along a path.
-	 */
-	@Override
-	public void setPredecessor(VertexInterface<T> predecessor) {
-		previousVertex = predecessor;
+	public void setLocation(double newLatitude, double newLongitude) {
+		latitude = newLatitude;
+		longitude = newLongitude;
 	}
 
-	/** Gets the recorded predecessor of this vertex.
-	 * @return Either this vertex's predecessor or null if no predecessor was recorded.
+	/** Sees whether a location was recorded for this vertex.
+	 * @return True if the vertex has a latitude and longitude.
 	 */
 	@Override
-	public VertexInterface<T> getPredecessor() {
-		return previousVertex;
+	public boolean hasLocation() {
+		return !Double.isNaN(latitude) && !Double.isNaN(longitude);
 	}
 
-	/** Sees whether a predecessor was recorded for this vertex.
-	 * @return True if a predecessor was recorded.
+	/** Gets the recorded latitude of this vertex.
+	 * @return The latitude in degrees, or NaN if no location was recorded.
 	 */
 	@Override
-	public boolean hasPredecessor() {
-		return previousVertex != null;
+	public double getLatitude() {
+		return latitude;
 	}
 
-	/** Records the cost of a path to this vertex.
-	 * @param newCost The cost of the path.
+	/** Gets the recorded longitude of this vertex.
+	 * @return The longitude in degrees, or NaN if no location was recorded.
 	 */
 	@Override
-	public void setCost(double newCost) {
-		cost = newCost;
+	public double getLongitude() {
+		return longitude;
 	}
 
-	/** Gets the recorded cost of the path to this vertex.
-	 * @return The cost of the path.
-	 */
-	@Override
-	public double getCost() {
-		return cost;	
+	/** Grows the edge arrays so they can hold a given number of edges. */
+	private void ensureCapacity(int capacity) {
+		if (capacity > edgeTargets.length) {
+			int newCapacity = Math.max(capacity, 2 * edgeTargets.length);
+			edgeTargets = Arrays.copyOf(edgeTargets, newCapacity);
+			edgeWeights = Arrays.copyOf(edgeWeights, newCapacity);
+		}
+	}	// end ensureCapacity
+
+	/** Stores an edge in room made by ensureCapacity, and records its end in the hash set once there is one. */
+	private void addEdge(int target, double weight) {
+		edgeTargets[edgeCount] = target;
+		edgeWeights[edgeCount] = weight;
+		edgeCount++;
+
+		if (targetSet != null) {
+			if (2 * edgeCount > targetSet.length) {	// Keep the set at most half full
+				rebuildTargetSet();
+			} else {
+				insertTarget(target);
+			}
+		} else if (edgeCount >= HASHED_DEGREE) {
+			rebuildTargetSet();
+		}
+	}	// end addEdge
+
+	private void rebuildTargetSet() {
+		targetSet = new int[Integer.highestOneBit(edgeCount) << 2];	// Between a quarter and half full
+		Arrays.fill(targetSet, -1);
+		for (int edge = 0; edge < edgeCount; edge++) {
+			insertTarget(edgeTargets[edge]);
+		}
+	}	// end rebuildTargetSet
+
+	private void insertTarget(int target) {
+		int mask = targetSet.length - 1;
+		int slot = hash(target) & mask;
+		while (targetSet[slot] >= 0) {
+			slot = (slot + 1) & mask;
+		}
+		targetSet[slot] = target;
+	}	// end insertTarget
+
+	private static int hash(int target) {
+		int mixed = target * 0x9E3779B9;	// Spreads consecutive indices across the table
+		return mixed ^ (mixed >>> 16);
 	}
 
 	private class WeightIterator implements Iterator<Double> {
-		private Iterator<Edge> edges;
+		private int edge;	// Position of the next edge
 
 		private WeightIterator() {
-			edges = edgeList.iterator();
+			edge = 0;
 		}	// end default constructor
 
 		public boolean hasNext() {
-			return edges.hasNext();
+			return edge < edgeCount;
 		}	// end hasNext
 
 		public Double next() {
-			Double nextWeight = 0.0;
-
-			if (edges.hasNext()) {
-				Edge edgeToNextWeight = edges.next();
-				nextWeight = edgeToNextWeight.getWeight();
-			} else {
+			if (!hasNext()) {
 				throw new NoSuchElementException();
 			}
 
+			double nextWeight = edgeWeights[edge];
+			edge++;
 			return nextWeight;
 		}	// end next
 
@@ -207,26 +291,23 @@ class Vertex<T> implements VertexInterface<T> {
 	}
 
 	private class NeighborIterator implements Iterator<VertexInterface<T>> {
-		private Iterator<Edge> edges;
+		private int edge;	// Position of the next edge
 
 		private NeighborIterator() {
-			edges = edgeList.iterator();	// edgeList is a 'LinkedList' which has a private iterator class
+			edge = 0;
 		}	// end default constructor
 
 		public boolean hasNext() {
-			return edges.hasNext();
+			return edge < edgeCount;
 		}	// end hasNext
 
 		public VertexInterface<T> next() {
-			VertexInterface<T> nextNeighbor = null;
-
-			if (edges.hasNext()) {
-				Edge edgeToNextNeighbor = edges.next();
-				nextNeighbor = edgeToNextNeighbor.getEndVertex();	// Updates the vertex to return with each call
-			} else {
+			if (!hasNext()) {
 				throw new NoSuchElementException();
 			}
 
+			VertexInterface<T> nextNeighbor = graphVertices.get(edgeTargets[edge]);
+			edge++;
 			return nextNeighbor;
 		}	// end next
 
@@ -234,27 +315,4 @@ class Vertex<T> implements VertexInterface<T> {
 			throw new UnsupportedOperationException("remove() is not implemented by this iterator.");
 		}	// end remove
 	}
-
-	protected class Edge {
-		private VertexInterface<T> vertex;	// Vertex at end of edge
-		private double weight;
-		
-		protected Edge(VertexInterface<T> endVertex, double edgeWeight) {
-			vertex = endVertex;
-			weight = edgeWeight;
-		}	// end constructor
-
-		protected Edge(VertexInterface<T> endVertex) {
-			vertex = endVertex;
-			weight = 0;
-		}	// end constructor
-
-		protected VertexInterface<T> getEndVertex() {
-			return vertex;
-		}	// end getEndVertex
-
-		protected double getWeight() {
-			return weight;
-		}	// end getWeight
-	}	// end Edge
-}	// end Vertex
+}	// end Vertex
\ No newline at end of file
@@ -7,17 +7,10 @@ public interface VertexInterface<T> {
 	 */
 	public T getLabel();
 
-	/** Marks this vertex as visited. */
-	public void visit();
-
-	/** Removes this vertex's visited mark. */
-	public void unvisit();
-
-	/** Sees whether the vertex is marked as visited.
-	 * @return True if the vertex is visited.
+	/** Gets this vertex's index within its graph.
+	 * @return The integer that identifies the vertex in its graph.
 	 */
-	public boolean isVisited();
-
+	public int getIndex();
 
 	/** Connects this vertex and a given vertex with a weighted edge.
 	 * The two vertices cannot be the same, and must not already have 
@@ -55,35 +48,25 @@ public interface VertexInterface<T> {
 	 */
 	public boolean hasNeighbor();
 
-	/** Gets an unvisited neighbor, if any, of this vertex.
-	 * @return Either a vertex that is an unvisted neighbor or null if no such
-	 * neighbor exists.
-	 */
-	public VertexInterface<T> getUnvistedNeighbor();
-
-	/** Records the previous vertex on a path to this vertex.
-	 * @param predecessor The vertex previous to this one along a path.
-	 */
-	public void setPredecessor(VertexInterface<T> predecessor);
-
-	/** Gets the recorded predecessor of this vertex.
-	 * @return Either this vertex's predecessor or null if no predecessor was recorded.
+	/** Records the geographic location of this vertex.
+	 * @param newLatitude The latitude in degrees.
+	 * @param newLongitude The longitude in degrees.
 	 */
-	public VertexInterface<T> getPredecessor();
+	public void setLocation(double newLatitude, double newLongitude);
 
-	/** Sees whether a predecessor was recorded for this vertex.
-	 * @return True if a predecessor was recorded.
+	/** Sees whether a location was recorded for this vertex.
+	 * @return True if the vertex has a latitude and longitude.
 	 */
-	public boolean hasPredecessor();
+	public boolean hasLocation();
 
-	/** Records the cost of a path to this vertex.
-	 * @param newCost The cost of the path.
+	/** Gets the recorded latitude of this vertex.
+	 * @return The latitude in degrees, or NaN if no location was recorded.
 	 */
-	public void setCost(double newCost);
+	public double getLatitude();
 
-	/** Gets the recorded cost of the path to this vertex.
-	 * @return The cost of the path.
+	/** Gets the recorded longitude of this vertex.
+	 * @return The longitude in degrees, or NaN if no location was recorded.
 	 */
-	public double getCost(); 
+	public double getLongitude();
 
 }	// end VertexInterface
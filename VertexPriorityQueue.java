@@ -0,0 +1,48 @@
+/** A priority queue of vertex indices from 0 to capacity - 1, each with a real priority, as used by
+ * the searches of a CompressedGraph. An index may be in the queue at most once, and its priority can
+ * be lowered in place with decreaseKey.
+ */
+public interface VertexPriorityQueue {
+
+	/** Adds an index that is not already in this queue.
+	 * @param id The index to add.
+	 * @param newPriority The index's priority; smaller values leave the queue first.
+	 */
+	public void add(int id, double newPriority);
+
+	/** Lowers the priority of an index that is in this queue.
+	 * @param id The index whose priority changes.
+	 * @param newPriority The new priority, which must not exceed the current one.
+	 */
+	public void decreaseKey(int id, double newPriority);
+
+	/** Removes and returns the index with the smallest priority.
+	 * @return Either the index with the smallest priority or, if the queue is empty, -1. */
+	public int removeMin();
+
+	/** Retrieves the index with the smallest priority.
+	 * @return Either the index with the smallest priority or, if the queue is empty, -1. */
+	public int getMin();
+
+	/** Gets the current priority of an index in this queue.
+	 * @param id An index in the queue.
+	 * @return The index's priority. */
+	public double getPriority(int id);
+
+	/** Sees whether an index is in this queue.
+	 * @param id The index to look for.
+	 * @return True if the index is in the queue. */
+	public boolean contains(int id);
+
+	/** Detects whether this queue is empty.
+	 * @return True if the queue is empty, or false otherwise. */
+	public boolean isEmpty();
+
+	/** Gets the size of this queue.
+	 * @return The number of indices currently in the queue. */
+	public int getSize();
+
+	/** Removes all indices from this queue. */
+	public void clear();
+
+}	// end VertexPriorityQueue
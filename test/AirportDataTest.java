@@ -0,0 +1,153 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+/** Checks AirportMetadata, which reads a file of airports on demand, and RouteLoader, which is
+ * checked against loading the same files one line at a time with addEdge.
+ * Run with: java AirportDataTest [seed]
+ */
+public final class AirportDataTest {
+
+	public static void main(String[] args) throws IOException {
+		Random generator = new Random((args.length > 0) ? Long.parseLong(args[0]) : 1);
+
+		testMetadata();
+		testLoader(generator);
+
+		System.out.println("AirportDataTest passed");
+	}	// end main
+
+	private static void testMetadata() throws IOException {
+		Path file = Files.createTempFile("airports", ".csv");
+		file.toFile().deleteOnExit();
+		Files.write(file, "LAX,\"Los Angeles, CA\",33.94,-118.40\r\n\nJFK,Kennedy\nx1,Other,\"1.5\",2\nJFK,Kennedy again\n".getBytes(StandardCharsets.UTF_8));
+
+		AirportMetadata airports = AirportMetadata.open(file.toString());
+		check(airports.getNumberOfAirports() == 4, "four airports, the blank line skipped");
+		check(airports.getName("LAX").equals("Los Angeles, CA") && airports.getName("x1").equals("Other"), "names are unquoted");
+		check((airports.getDouble(0, 3) == -118.40) && (airports.getDouble(2, 2) == 1.5), "locations");
+		check(airports.getField(1, 1).equals("Kennedy") && (airports.getNumberOfFields(1) == 2) && (airports.getNumberOfFields(0) == 4), "fields");
+		check(airports.getName("JFK").equals("Kennedy again") && (airports.getId("JFK") == 3), "the last line of a code repeated");
+		check(airports.getCode(2).equals("x1") && airports.contains("JFK") && !airports.contains("ZZZ"), "codes");
+		check((airports.getId("ZZZ") == -1) && (airports.getName("zz") == null) && (airports.getField(1, 2) == null), "unknown codes and fields");
+
+		CsvReader record = new CsvReader(bytes("JFK,\"LAX\",x1,ZZZ\n"));
+		record.nextRecord();
+		check((airports.getId(record, 0) == 3) && (airports.getId(record, 1) == 0), "ids of packed codes, quoted or not");
+		check((airports.getId(record, 2) == 2) && (airports.getId(record, 3) == -1), "ids of other codes");
+		check(AirportMetadata.empty().getNumberOfAirports() == 0, "an empty store");
+	}	// end testMetadata
+
+	/** Loads random airports and routes split into shards, some repeating routes of other shards or
+	 * naming airports that do not exist, and compares the graph with one built line by line. */
+	private static void testLoader(Random generator) throws IOException {
+		Path directory = Files.createTempDirectory("shards");
+		directory.toFile().deleteOnExit();	// After its files, which are registered later
+		int airportCount = 300;
+		String[] codes = new String[airportCount];
+		Set<String> used = new HashSet<>();
+		for (int airport = 0; airport < airportCount; airport++) {
+			do {
+				codes[airport] = (airport % 37 == 0) ? ("X" + airport)
+					: ("" + (char) ('A' + generator.nextInt(26)) + (char) ('A' + generator.nextInt(26)) + (char) ('A' + generator.nextInt(26)));
+			} while (!used.add(codes[airport]));
+		}
+
+		StringBuilder airportText = new StringBuilder();
+		for (int airport = 0; airport < airportCount; airport++) {
+			airportText.append(codes[airport]).append(",\"Airport, ").append(airport).append("\",");
+			if (airport % 10 == 0) {
+				airportText.append("Springfield,USA\n");	// Not a location
+			} else {
+				airportText.append(50 * generator.nextDouble()).append(',').append(-100 * generator.nextDouble()).append('\n');
+			}
+		}
+		Path airportFile = write(directory.resolve("airports.csv"), airportText.toString());
+
+		List<String> lines = new ArrayList<>();
+		for (int shard = 0; shard < 12; shard++) {
+			StringBuilder shardText = new StringBuilder();
+			for (int route = 0; route < 3000; route++) {
+				String origin = codes[generator.nextInt(airportCount)];
+				String destination = (route % 11 == 0) ? "ZZ9" : codes[generator.nextInt(airportCount)];
+				String line = ((route % 7 == 0) ? "\"" + origin + "\"" : origin) + "," + destination + "," + generator.nextInt(2000);
+				shardText.append(line).append((route % 5 == 0) ? "\r\n" : "\n");
+				lines.add(line);
+			}
+			write(directory.resolve(String.format("routes_%02d.csv", shard)), shardText.toString());
+		}
+		write(directory.resolve("routes_notes.txt"), "not a shard\n");
+
+		DirectedGraph<String> expected = new DirectedGraph<>(new AirportCodeDictionary<>());
+		for (String nextCode : codes) {
+			expected.addVertex(nextCode);
+		}
+		for (String nextLine : lines) {
+			String[] fields = nextLine.split(",");
+			expected.addEdge(fields[0].replace("\"", ""), fields[1], Double.parseDouble(fields[2]));
+		}
+
+		List<String> shards = RouteLoader.findShards(directory.toString(), "routes_");
+		check(shards.size() == 12, "every shard and nothing else is found");
+		for (int trial = 0; trial < 3; trial++) {	// The threads may finish in any order
+			DirectedGraph<String> graph = new DirectedGraph<>(new AirportCodeDictionary<>());
+			RouteLoader loader = new RouteLoader(graph, new ForkJoinPool(4));
+			int added = loader.load(airportFile.toString(), shards);
+			check((added == expected.getNumberOfEdges()) && (graph.getNumberOfEdges() == added), "loads " + added + " routes");
+			check(graph.getNumberOfVertices() == airportCount, "loads every airport");
+			CompressedGraph<String> expectedSnapshot = expected.freeze();
+			CompressedGraph<String> snapshot = graph.freeze();
+			for (int airport = 0; airport < airportCount; airport++) {
+				check(snapshot.getLabel(airport).equals(expectedSnapshot.getLabel(airport)), "airports in file order");
+			}
+			check(snapshot.getFingerprint() == expectedSnapshot.getFingerprint(), "the same routes, the first of each repeat kept");
+			check(!graph.hasLocations(), "airports whose further fields are not numbers have no location");
+			check(loader.getAirports().getName(codes[5]).equals("Airport, 5"), "airport names");
+		}
+
+		DirectedGraph<String> partial = new DirectedGraph<>();
+		RouteLoader partialLoader = new RouteLoader(partial);
+		try {
+			partialLoader.load(airportFile.toString(), Arrays.asList(directory.resolve("missing.csv").toString()));
+			check(false, "a missing shard is reported");
+		} catch (IOException e) {
+			// Expected
+		}
+		check((partial.getNumberOfVertices() == airportCount) && (partial.getNumberOfEdges() == 0), "airports but no routes without every shard");
+
+		DirectedGraph<String> empty = new DirectedGraph<>();
+		try {
+			new RouteLoader(empty).load(directory.resolve("missing.csv").toString(), shards);
+			check(false, "a missing airport file is reported");
+		} catch (IOException e) {
+			// Expected
+		}
+		check(empty.isEmpty(), "nothing is added without the airport file");
+	}	// end testLoader
+
+	private static Path write(Path file, String text) throws IOException {
+		Files.write(file, text.getBytes(StandardCharsets.UTF_8));
+		file.toFile().deleteOnExit();
+		return file;
+	}
+
+	private static ByteBuffer bytes(String text) {
+		return ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static void check(boolean condition, String message) {
+		if (!condition) {
+			throw new AssertionError(message);
+		}
+	}
+
+}	// end AirportDataTest
@@ -0,0 +1,16 @@
+/** Runs every test program in this directory, stopping at the first that fails.
+ * Run from the project directory with:
+ * javac -d out *.java test/*.java
+ * java -cp out AllTests [seed]
+ */
+public final class AllTests {
+
+	public static void main(String[] args) throws Exception {
+		DictionaryTest.main(args);
+		PriorityQueueTest.main(args);
+		CsvReaderTest.main(args);
+		AirportDataTest.main(args);
+		GraphQueryTest.main(args);
+	}	// end main
+
+}	// end AllTests
@@ -0,0 +1,117 @@
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/** Checks CsvReader's splitting of records and unquoting of fields, and its reading of numbers
+ * against Double.parseDouble.
+ * Run with: java CsvReaderTest [seed]
+ */
+public final class CsvReaderTest {
+
+	public static void main(String[] args) {
+		Random generator = new Random((args.length > 0) ? Long.parseLong(args[0]) : 1);
+
+		testRecords();
+		testNumbers(generator);
+
+		System.out.println("CsvReaderTest passed");
+	}	// end main
+
+	private static void testRecords() {
+		CsvReader reader = new CsvReader(bytes("a,b,c\r\n\r\n\n\"x,y\",\"he said \"\"hi\"\"\",\r\n\"multi\nline\",2.5e3\n,\n\"\"\nlast"));
+		List<List<String>> records = new ArrayList<>();
+		while (reader.nextRecord()) {
+			List<String> fields = new ArrayList<>();
+			for (int field = 0; field < reader.getNumberOfFields(); field++) {
+				fields.add(reader.getString(field));
+			}
+			records.add(fields);
+		}
+		List<List<String>> expected = Arrays.asList(
+			Arrays.asList("a", "b", "c"),
+			Arrays.asList("x,y", "he said \"hi\"", ""),
+			Arrays.asList("multi\nline", "2.5e3"),
+			Arrays.asList("", ""),
+			Arrays.asList(""),
+			Arrays.asList("last"));
+		check(records.equals(expected), "records are " + records);
+		check(!reader.nextRecord() && (reader.getNumberOfFields() == 0), "no record after the last");
+
+		reader = new CsvReader(bytes("\"LAX\",7\r\n"));
+		check(reader.nextRecord(), "a record");
+		check((reader.getFieldStart(0) == 0) && (reader.getFieldEnd(0) == 5), "a field's bounds count its quotes");
+		check(reader.getDouble(1) == 7, "a number before a CRLF");
+		try {
+			reader.getString(2);
+			check(false, "a field past the end is refused");
+		} catch (IndexOutOfBoundsException e) {
+			// Expected
+		}
+		check(!new CsvReader(bytes("")).nextRecord() && !new CsvReader(bytes("\r\n\n")).nextRecord(), "blank text has no records");
+	}	// end testRecords
+
+	/** Reads numbers of many forms, on and off the fast path, and compares every bit with
+	 * Double.parseDouble; text that is not a number must be refused. */
+	private static void testNumbers(Random generator) {
+		for (int trial = 0; trial < 200000; trial++) {
+			String text;
+			switch (trial % 6) {
+				case 0:
+					text = Integer.toString(generator.nextInt(100000) - 50000);
+					break;
+				case 1:
+					text = Double.toString(generator.nextDouble() * 1000);
+					break;
+				case 2:
+					text = String.format("%.6f", (generator.nextDouble() - 0.5) * 360);
+					break;
+				case 3:
+					text = Double.toString(Math.abs(Double.longBitsToDouble(generator.nextLong())));
+					break;
+				case 4:
+					text = generator.nextInt(1000) + "." + generator.nextInt(1000) + "e" + (generator.nextInt(60) - 30);
+					break;
+				default:
+					text = "0.000" + generator.nextInt(100000);
+					break;
+			}
+			if (text.contains("NaN") || text.contains("Infinity")) {
+				continue;
+			}
+			check(Double.doubleToLongBits(parse(text)) == Double.doubleToLongBits(Double.parseDouble(text)), "parseDouble of " + text);
+		}	// end for
+
+		String[] texts = {"-0", "+5", " 12 ", "\"3.5\"", "1e400", "1e-400", "NaN", "12345678901234567890123", "0.1", "9007199254740993", "1E22", "1e23"};
+		for (String text : texts) {
+			double expected = Double.parseDouble(text.replace("\"", "").trim());
+			check(Double.compare(parse(text), expected) == 0, "parseDouble of " + text);
+		}
+		for (String text : new String[] {"", "abc", "1.2.3", "1e", "--1", ".", "1,5", "5x"}) {
+			try {
+				parse(text);
+				check(false, "parseDouble accepts " + text);
+			} catch (NumberFormatException e) {
+				// Expected
+			}
+		}
+	}	// end testNumbers
+
+	private static double parse(String text) {
+		ByteBuffer buffer = bytes(text);
+		return CsvReader.parseDouble(buffer, 0, buffer.limit());
+	}
+
+	private static ByteBuffer bytes(String text) {
+		return ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static void check(boolean condition, String message) {
+		if (!condition) {
+			throw new AssertionError(message);
+		}
+	}
+
+}	// end CsvReaderTest
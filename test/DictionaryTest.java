@@ -0,0 +1,212 @@
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/** Checks the dictionaries against java.util.HashMap with random adds, replacements and removals,
+ * including keys whose hash codes collide, so that long probe runs form and removals must shift
+ * the entries after them back.
+ * Run with: java DictionaryTest [seed]
+ */
+public final class DictionaryTest {
+
+	private static final int STEP_COUNT = 100000;
+
+	public static void main(String[] args) throws Exception {
+		Random generator = new Random((args.length > 0) ? Long.parseLong(args[0]) : 1);
+
+		testDictionary(new HashedDictionary<>(), key -> key, generator);
+		testDictionary(new HashedDictionary<>(2), key -> key, generator);
+		testDictionary(new HashedDictionary<>(), key -> new Colliding(key), generator);
+		testDictionary(new ConcurrentHashedDictionary<>(), key -> key, generator);
+		testDictionary(new AirportCodeDictionary<>(), DictionaryTest::airportCode, generator);
+		testNullKeys(new HashedDictionary<>(), "A");
+		testNullKeys(new ConcurrentHashedDictionary<>(), "A");
+		testNullKeys(new AirportCodeDictionary<>(), "LAX");
+		testPacking();
+		testConcurrentAdds();
+
+		System.out.println("DictionaryTest passed");
+	}	// end main
+
+	/** Runs random operations on a dictionary and a HashMap side by side, comparing every result,
+	 * then compares what the iterators give and empties the dictionary.
+	 * @param keys Makes a key from a number below 2000. */
+	private static <K> void testDictionary(DictionaryInterface<K, Integer> dictionary, Function<Integer, K> keys, Random generator) {
+		Map<K, Integer> reference = new HashMap<>();
+		for (int step = 0; step < STEP_COUNT; step++) {
+			K key = keys.apply(generator.nextInt((step < STEP_COUNT / 2) ? 2000 : 200));	// Then mostly removals
+			switch (generator.nextInt(3)) {
+				case 0:
+					Integer value = step;
+					check(equal(dictionary.add(key, value), reference.put(key, value)), "add " + key);
+					break;
+				case 1:
+					check(equal(dictionary.remove(key), reference.remove(key)), "remove " + key);
+					break;
+				default:
+					check(equal(dictionary.getValue(key), reference.get(key)), "getValue " + key);
+					check(dictionary.contains(key) == reference.containsKey(key), "contains " + key);
+					break;
+			}
+			check(dictionary.getSize() == reference.size(), "getSize is " + dictionary.getSize() + ", not " + reference.size());
+			check(dictionary.isEmpty() == reference.isEmpty(), "isEmpty");
+			if (step % 20000 == 0) {
+				checkIterators(dictionary, reference);
+			}
+		}	// end for
+
+		checkIterators(dictionary, reference);
+		for (K key : new ArrayList<>(reference.keySet())) {	// Every removal after the first shifts entries back
+			check(equal(dictionary.remove(key), reference.remove(key)), "remove " + key + " while emptying");
+			check(dictionary.getSize() == reference.size(), "getSize while emptying");
+		}
+		check(dictionary.isEmpty(), "emptied by removals");
+
+		for (int key = 0; key < 100; key++) {
+			dictionary.add(keys.apply(key), key);
+		}
+		dictionary.clear();
+		check(dictionary.isEmpty() && (dictionary.getSize() == 0) && !dictionary.contains(keys.apply(1)), "empty after clear");
+		check(!dictionary.getKeyIterator().hasNext() && !dictionary.getValueIterator().hasNext(), "no entries after clear");
+	}	// end testDictionary
+
+	private static <K> void checkIterators(DictionaryInterface<K, Integer> dictionary, Map<K, Integer> reference) {
+		Map<K, Integer> entries = new HashMap<>();
+		Iterator<K> keyIterator = dictionary.getKeyIterator();
+		Iterator<Integer> valueIterator = dictionary.getValueIterator();
+		while (keyIterator.hasNext()) {
+			check(valueIterator.hasNext(), "as many values as keys");
+			K key = keyIterator.next();
+			check(entries.put(key, valueIterator.next()) == null, "each key once");
+		}
+		check(!valueIterator.hasNext(), "as many keys as values");
+		check(entries.equals(reference), "the iterators give every entry, keys and values in the same order");
+	}	// end checkIterators
+
+	private static <K> void testNullKeys(DictionaryInterface<K, Integer> dictionary, K key) {
+		List<Runnable> operations = new ArrayList<>();
+		operations.add(() -> dictionary.add(null, 1));
+		operations.add(() -> dictionary.add(key, null));
+		operations.add(() -> dictionary.remove(null));
+		operations.add(() -> dictionary.getValue(null));
+		for (Runnable nextOperation : operations) {
+			try {
+				nextOperation.run();
+				check(false, dictionary.getClass().getName() + " accepts null");
+			} catch (IllegalArgumentException e) {
+				// Expected
+			}
+		}
+		check(dictionary.isEmpty(), "nothing is added when null is refused");
+	}	// end testNullKeys
+
+	/** Checks that every code of three capital letters packs to a distinct number that unpacks to it,
+	 * from a String and from bytes, and that other codes do not pack. */
+	private static void testPacking() {
+		boolean[] used = new boolean[1 << 15];	// Five bits a letter
+		for (char first = 'A'; first <= 'Z'; first++) {
+			for (char second = 'A'; second <= 'Z'; second++) {
+				for (char third = 'A'; third <= 'Z'; third++) {
+					String code = "" + first + second + third;
+					int packedCode = AirportCodeDictionary.pack(code);
+					check((packedCode >= 0) && (packedCode < used.length) && !used[packedCode], "distinct packed code for " + code);
+					used[packedCode] = true;
+					check(AirportCodeDictionary.unpack(packedCode).equals(code), "unpack " + code);
+					ByteBuffer bytes = ByteBuffer.wrap((" ," + code + ",").getBytes(StandardCharsets.US_ASCII));
+					check(AirportCodeDictionary.pack(bytes, 2, 5) == packedCode, "pack " + code + " from bytes");
+				}
+			}
+		}	// end for
+
+		for (String code : new String[] {"", "LA", "LAXX", "lax", "L1X", "L X", "[AB", "@AB", "\u00c4BC"}) {
+			check(AirportCodeDictionary.pack(code) < 0, code + " does not pack");
+			ByteBuffer bytes = ByteBuffer.wrap(code.getBytes(StandardCharsets.UTF_8));
+			check(AirportCodeDictionary.pack(bytes, 0, bytes.limit()) < 0, code + " does not pack from bytes");
+		}
+	}	// end testPacking
+
+	/** Adds disjoint keys from several threads at once, then checks that none was lost. */
+	private static void testConcurrentAdds() throws Exception {
+		ConcurrentHashedDictionary<Integer, Integer> dictionary = new ConcurrentHashedDictionary<>();
+		int threadCount = 4;
+		int keyCount = 20000;
+		ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+		try {
+			List<Future<?>> tasks = new ArrayList<>();
+			for (int thread = 0; thread < threadCount; thread++) {
+				int first = thread;
+				tasks.add(executor.submit(() -> {
+					for (int key = first; key < keyCount; key += threadCount) {
+						dictionary.add(key, key);
+						dictionary.getValue(key - threadCount);
+					}
+				}));
+			}
+			for (Future<?> nextTask : tasks) {
+				nextTask.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		check(dictionary.getSize() == keyCount, "every key added from every thread is kept");
+		for (int key = 0; key < keyCount; key++) {
+			check(equal(dictionary.getValue(key), key), "value of " + key);
+		}
+	}	// end testConcurrentAdds
+
+	/** Makes an airport code from a number: most are three capital letters, which the dictionary
+	 * packs, and the rest are other strings, which it keeps in a HashedDictionary. */
+	private static String airportCode(int number) {
+		if (number % 5 == 0) {
+			return "X" + number;
+		}
+
+		int code = number * 7919 % (26 * 26 * 26);
+		return "" + (char) ('A' + code / (26 * 26)) + (char) ('A' + code / 26 % 26) + (char) ('A' + code % 26);
+	}	// end airportCode
+
+	private static boolean equal(Object first, Object second) {
+		return (first == null) ? (second == null) : first.equals(second);
+	}
+
+	private static void check(boolean condition, String message) {
+		if (!condition) {
+			throw new AssertionError(message);
+		}
+	}
+
+	/** A key whose hash code is shared with many others, so that entries cluster. */
+	private static final class Colliding {
+		private final int number;
+
+		private Colliding(int number) {
+			this.number = number;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			return (other instanceof Colliding) && (((Colliding) other).number == number);
+		}
+
+		@Override
+		public int hashCode() {
+			return number % 16;
+		}
+
+		@Override
+		public String toString() {
+			return "Colliding " + number;
+		}
+	}	// end Colliding
+
+}	// end DictionaryTest
@@ -0,0 +1,912 @@
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.IntFunction;
+
+/** Checks every way of querying a DirectedGraph against a plain Dijkstra search, or a plain
+ * breadth-first search for fewest edges, of the same edges kept in lists. The graphs are random,
+ * and built so that many pairs of vertices have no path between them.
+ * Run with: java GraphQueryTest [seed]
+ */
+public final class GraphQueryTest {
+
+	private static final int VERTEX_COUNT = 300;
+	private static final int EDGE_COUNT = 1200;
+	private static final int QUERY_COUNT = 150;
+	private static final String MISSING = "missing";	// A label that is in no graph
+
+	public static void main(String[] args) throws Exception {
+		long seed = (args.length > 0) ? Long.parseLong(args[0]) : 1;
+		Random generator = new Random(seed);
+
+		testQueues(generator);
+		testLandmarks(generator);
+		testContractionHierarchy(generator);
+		testHeavyShortcuts(generator);
+		testAllPairs(seed);
+		testRouteCache(generator);
+		testAlternativePaths(generator);
+		testChanges(generator);
+		testAddEdges(generator);
+		testSnapshot(generator);
+		testConcurrentChanges();
+		testAirportCodes(generator);
+		testGreatCircle(generator);
+		testQueryEngine(generator);
+		testManyComponents();
+
+		System.out.println("GraphQueryTest passed");
+	}	// end main
+
+	/** Runs every search with each kind of priority queue, on whole and on fractional weights. */
+	private static void testQueues(Random generator) {
+		int maxWeight = 100;
+		List<IntFunction<? extends VertexPriorityQueue>> factories = Arrays.asList(
+			null,
+			size -> new IndexedMinHeap(size, 2),
+			size -> new IndexedMinHeap(size, 8),
+			RadixHeap::new,
+			size -> new BucketQueue(size, maxWeight));
+		TestGraph integral = TestGraph.create(generator, VERTEX_COUNT, EDGE_COUNT, maxWeight, true);
+		int[][] queries = createQueries(generator, VERTEX_COUNT);
+		for (IntFunction<? extends VertexPriorityQueue> nextFactory : factories) {
+			integral.graph.setVertexQueue(nextFactory);
+			checkSearches(integral, queries, generator);
+		}
+
+		TestGraph large = TestGraph.create(generator, VERTEX_COUNT, EDGE_COUNT, 1000000, true);	// Too wide for buckets
+		checkSearches(large, queries, generator);
+
+		TestGraph fractional = TestGraph.create(generator, VERTEX_COUNT, EDGE_COUNT, maxWeight, false);
+		fractional.graph.setVertexQueue(null);
+		checkSearches(fractional, queries, generator);
+		fractional.graph.setVertexQueue(size -> new IndexedMinHeap(size, 2));
+		checkSearches(fractional, queries, generator);
+	}	// end testQueues
+
+	/** Checks landmark searches as computed, as loaded from a file, and after the graph changes. */
+	private static void testLandmarks(Random generator) throws IOException {
+		for (boolean integral : new boolean[] {true, false}) {
+			TestGraph graph = TestGraph.create(generator, VERTEX_COUNT, EDGE_COUNT, 100, integral);
+			int[][] queries = createQueries(generator, VERTEX_COUNT);
+			graph.graph.preprocessLandmarks(4);
+			check(graph.graph.isPreprocessed(), "landmarks are kept");
+			checkCheapestPaths(graph, queries);
+
+			File file = File.createTempFile("landmarks", ".bin");
+			file.deleteOnExit();
+			graph.graph.saveLandmarks(file.getPath());
+			graph.graph.setVertexQueue(null);	// Drops the landmarks
+			check(!graph.graph.isPreprocessed(), "a new queue drops the landmarks");
+			graph.graph.loadLandmarks(file.getPath());
+			checkCheapestPaths(graph, queries);
+			try {
+				TestGraph.create(generator, VERTEX_COUNT, EDGE_COUNT, 100, integral).graph.loadLandmarks(file.getPath());
+				check(false, "landmarks of another graph are refused");
+			} catch (IOException e) {
+				// Expected
+			}
+
+			graph.addEdge(VERTEX_COUNT - 1, 0, 1);
+			check(!graph.graph.isPreprocessed(), "a change drops the landmarks");
+			checkCheapestPaths(graph, queries);
+			try {
+				graph.graph.saveLandmarks(file.getPath());
+				check(false, "landmarks of the graph before a change are not saved");
+			} catch (IllegalStateException e) {
+				// Expected
+			}
+		}	// end for
+	}	// end testLandmarks
+
+	/** Checks hierarchy searches, and that a change drops the hierarchy. */
+	private static void testContractionHierarchy(Random generator) {
+		for (boolean integral : new boolean[] {true, false}) {
+			TestGraph graph = TestGraph.create(generator, VERTEX_COUNT, EDGE_COUNT, 100, integral);
+			int[][] queries = createQueries(generator, VERTEX_COUNT);
+			checkCostTable(graph, generator);	// Builds the hierarchy on first use
+			graph.graph.buildContractionHierarchy();
+			checkCheapestPaths(graph, queries);
+			checkCostTable(graph, generator);
+			graph.addEdge(VERTEX_COUNT - 1, 0, 1);
+			checkCheapestPaths(graph, queries);
+			checkCostTable(graph, generator);
+		}
+	}	// end testContractionHierarchy
+
+	/** Preprocesses a graph of long chains of light edges, whose shortcuts and landmark bounds are far
+	 * heavier than the window of the bucket queue chosen for its plain searches. */
+	private static void testHeavyShortcuts(Random generator) {
+		int vertexCount = 400;
+		for (int kind = 0; kind < 2; kind++) {
+			TestGraph graph = new TestGraph(new DirectedGraph<>(), new ReferenceGraph(vertexCount));
+			for (int vertex = 0; vertex < vertexCount; vertex++) {
+				graph.graph.addVertex(label(vertex));
+			}
+			for (int vertex = 0; vertex + 1 < vertexCount; vertex++) {
+				graph.addEdge(vertex, vertex + 1, 1 + generator.nextInt(2));
+				graph.addEdge(vertex + 1, vertex, 1 + generator.nextInt(2));
+			}
+			for (int edge = 0; edge < 20; edge++) {
+				graph.addEdge(generator.nextInt(vertexCount), generator.nextInt(vertexCount), 2);
+			}
+
+			CompressedGraph<String> snapshot = graph.graph.freeze();
+			check(snapshot.newContext().getQueue() instanceof BucketQueue, "light whole-number weights are searched with a bucket queue");
+			check(snapshot.newUnboundedContext().getQueue() instanceof RadixHeap, "shortcuts and bounds are searched with a radix heap");
+			if (kind == 0) {
+				graph.graph.buildContractionHierarchy();
+				checkCostTable(graph, generator);
+			} else {
+				graph.graph.preprocessLandmarks(4);
+			}
+			checkCheapestPaths(graph, createQueries(generator, vertexCount));
+		}	// end for
+	}	// end testHeavyShortcuts
+
+	/** Checks the all-pairs tables, both as computed and as loaded into a copy of the graph. */
+	private static void testAllPairs(long seed) throws IOException {
+		File file = File.createTempFile("allpairs", ".bin");
+		file.deleteOnExit();
+		TestGraph graph = TestGraph.create(new Random(seed), VERTEX_COUNT, EDGE_COUNT, 100, true);
+		int[][] queries = createQueries(new Random(seed), VERTEX_COUNT);
+		graph.graph.precomputeAllPairs(file.getPath());
+		checkCheapestPaths(graph, queries);
+		checkCostTable(graph, new Random(seed));
+
+		TestGraph copy = TestGraph.create(new Random(seed), VERTEX_COUNT, EDGE_COUNT, 100, true);
+		copy.graph.loadAllPairs(file.getPath());
+		checkCheapestPaths(copy, queries);
+		checkCostTable(copy, new Random(seed));
+		copy.addEdge(VERTEX_COUNT - 1, 0, 1);	// Drops the tables
+		checkCheapestPaths(copy, queries);
+	}	// end testAllPairs
+
+	private static void testRouteCache(Random generator) {
+		TestGraph graph = TestGraph.create(generator, VERTEX_COUNT, EDGE_COUNT, 100, true);
+		int[][] queries = createQueries(generator, VERTEX_COUNT);
+		graph.graph.enableRouteCache(50);
+		RouteCache<String> cache = graph.graph.getRouteCache();
+		checkCheapestPaths(graph, queries);	// More pairs than the cache holds
+		check(cache.getSize() <= cache.getCapacity(), "the cache keeps no more than its capacity");
+		int[][] repeated = Arrays.copyOf(queries, 20);
+		checkCheapestPaths(graph, repeated);
+		long hitCount = cache.getHitCount();
+		checkCheapestPaths(graph, repeated);
+		check(cache.getHitCount() > hitCount, "repeated queries hit the cache");
+
+		graph.addEdge(0, VERTEX_COUNT - 1, 1);	// Reaches a vertex that had no edges
+		check(cache.getSize() == 0, "a change empties the cache");
+		checkCheapestPaths(graph, queries);
+		checkCheapestPaths(graph, new int[][] {{0, VERTEX_COUNT - 1}, {0, VERTEX_COUNT - 1}});
+	}	// end testRouteCache
+
+	/** Checks Yen's algorithm against every loopless path of small graphs. */
+	private static void testAlternativePaths(Random generator) {
+		int vertexCount = 9;
+		for (int trial = 0; trial < 40; trial++) {
+			TestGraph graph = TestGraph.create(generator, vertexCount, 30, 9, trial % 2 == 0);
+			for (int query = 0; query < 10; query++) {
+				int begin = generator.nextInt(vertexCount);
+				int end = generator.nextInt(vertexCount);
+				List<Double> expected = new ArrayList<>();
+				graph.reference.findLooplessPaths(begin, end, new boolean[vertexCount], 0, expected);
+				expected.sort(null);
+
+				int pathCount = 1 + generator.nextInt(6);
+				AlternativeRoutes<String> routes = graph.graph.getAlternativePaths(label(begin), label(end), pathCount);
+				check(routes.getNumberOfRoutes() == Math.min(pathCount, expected.size()),
+					"found " + routes.getNumberOfRoutes() + " of " + expected.size() + " paths");
+				for (int route = 0; route < routes.getNumberOfRoutes(); route++) {
+					StackInterface<String> path = new ArrayStack<>();
+					double cost = routes.getPath(route, path);
+					check(isNear(cost, expected.get(route)), "path " + route + " costs " + cost + ", not " + expected.get(route));
+					check(isNear(routes.getCost(route), cost), "getCost agrees with getPath");
+					Set<String> visited = new HashSet<>();
+					check(isNear(walk(graph, begin, end, path, visited), cost), "alternative path cost");
+				}
+			}	// end for
+		}	// end for
+
+		TestGraph graph = TestGraph.create(generator, vertexCount, 30, 9, true);
+		check(graph.graph.getAlternativePaths(label(0), MISSING, 3).getNumberOfRoutes() == 0, "no paths to a missing vertex");
+		try {
+			graph.graph.getAlternativePaths(label(0), label(1), 0);
+			check(false, "asking for no paths is refused");
+		} catch (IllegalArgumentException e) {
+			// Expected
+		}
+	}	// end testAlternativePaths
+
+	/** Changes the graph after each kind of preprocessing and after reachability has been indexed,
+	 * including an edge that joins two vertices with no path between them. */
+	private static void testChanges(Random generator) throws IOException {
+		File file = File.createTempFile("allpairs", ".bin");
+		file.deleteOnExit();
+		for (int kind = 0; kind < 4; kind++) {
+			TestGraph graph = TestGraph.create(generator, VERTEX_COUNT, EDGE_COUNT, 100, true);
+			int[][] queries = createQueries(generator, VERTEX_COUNT);
+			switch (kind) {
+				case 0:
+					graph.graph.preprocessLandmarks(4);
+					break;
+				case 1:
+					graph.graph.buildContractionHierarchy();
+					break;
+				case 2:
+					graph.graph.precomputeAllPairs(file.getPath());
+					break;
+				default:
+					break;	// Only the reachability index
+			}
+			checkCheapestPaths(graph, queries);
+
+			int isolated = VERTEX_COUNT - 1;
+			check(graph.graph.getCheapestPath(label(0), label(isolated), new ArrayStack<>()) == -1, "no path yet");
+			graph.addEdge(isolated, 0, 2);
+			graph.addEdge(0, isolated, 3);
+			for (int edge = 0; edge < 20; edge++) {
+				graph.addEdge(generator.nextInt(VERTEX_COUNT), generator.nextInt(VERTEX_COUNT), generator.nextInt(100));
+			}
+			checkCheapestPaths(graph, queries);
+			checkCheapestPaths(graph, new int[][] {{0, isolated}, {isolated, 1}, {1, isolated}});
+			checkCostTable(graph, generator);
+		}	// end for
+	}	// end testChanges
+
+	/** Checks that adding edges in one call builds the same graph as adding them one at a time,
+	 * including repeated edges, loops and a vertex with many edges. */
+	private static void testAddEdges(Random generator) {
+		int vertexCount = 60;
+		List<String> begins = new ArrayList<>();
+		List<String> ends = new ArrayList<>();
+		List<Double> weights = new ArrayList<>();
+		for (int edge = 0; edge < 600; edge++) {
+			int begin = (edge % 3 == 0) ? 0 : generator.nextInt(vertexCount);	// Vertex 0 gets many edges
+			begins.add(label(begin));
+			ends.add(label(generator.nextInt(vertexCount)));
+			weights.add((double) generator.nextInt(50));
+		}
+		begins.add(label(5));
+		ends.add(MISSING);
+		weights.add(1.0);
+
+		DirectedGraph<String> oneByOne = new DirectedGraph<>();
+		DirectedGraph<String> together = new DirectedGraph<>();
+		ReferenceGraph reference = new ReferenceGraph(vertexCount);
+		for (int vertex = 0; vertex < vertexCount; vertex++) {
+			oneByOne.addVertex(label(vertex));
+			together.addVertex(label(vertex));
+		}
+		int added = 0;
+		for (int edge = 0; edge < begins.size(); edge++) {
+			if (oneByOne.addEdge(begins.get(edge), ends.get(edge), weights.get(edge))) {
+				reference.addEdge(index(begins.get(edge)), index(ends.get(edge)), weights.get(edge));
+				added++;
+			}
+		}
+		double[] weightArray = new double[weights.size()];
+		for (int edge = 0; edge < weightArray.length; edge++) {
+			weightArray[edge] = weights.get(edge);
+		}
+
+		check(together.addEdges(begins, ends, weightArray) == added, "addEdges counts the edges added");
+		check(together.getNumberOfEdges() == oneByOne.getNumberOfEdges(), "same number of edges");
+		for (int begin = 0; begin < vertexCount; begin++) {
+			for (int end = 0; end < vertexCount; end++) {
+				check(together.hasEdge(label(begin), label(end)) == oneByOne.hasEdge(label(begin), label(end)),
+					"same edge " + begin + " to " + end);
+			}
+		}
+		check(!together.hasEdge(label(5), MISSING), "no edge to a missing vertex");
+		checkSearches(new TestGraph(together, reference), createQueries(generator, vertexCount), generator);
+	}	// end testAddEdges
+
+	/** Checks that a snapshot numbers the vertices in the order they were added, answers as the
+	 * graph does, and keeps answering for the graph as it was once the graph changes. */
+	private static void testSnapshot(Random generator) {
+		for (boolean integral : new boolean[] {true, false}) {
+			TestGraph graph = TestGraph.create(generator, VERTEX_COUNT, EDGE_COUNT, 100, integral);
+			int[][] queries = createQueries(generator, VERTEX_COUNT);
+			CompressedGraph<String> snapshot = graph.graph.freeze();
+			check(snapshot.getNumberOfVertices() == VERTEX_COUNT, "the snapshot has every vertex");
+			check(snapshot.getNumberOfEdges() == graph.graph.getNumberOfEdges(), "the snapshot has every edge");
+			for (int vertex = 0; vertex < VERTEX_COUNT; vertex++) {
+				check((snapshot.getIndex(label(vertex)) == vertex) && snapshot.getLabel(vertex).equals(label(vertex)), "vertices numbered in order");
+			}
+			check(snapshot.getIndex(MISSING) == -1, "a missing vertex has no index");
+			check(snapshot.getCheapestPath(MISSING, label(0), new ArrayStack<>()) == -1, "no path from a missing vertex");
+			checkCheapestPaths(graph, queries);
+
+			TestGraph before = new TestGraph(graph.graph, graph.reference.copy());
+			graph.addEdge(0, VERTEX_COUNT - 1, 1);
+			graph.addEdge(VERTEX_COUNT - 1, 1, 1);
+			for (int[] nextQuery : queries) {
+				StackInterface<String> path = new ArrayStack<>();
+				double cost = snapshot.getCheapestPath(label(nextQuery[0]), label(nextQuery[1]), path);
+				checkPath(before, nextQuery[0], nextQuery[1], cost, path, "an old snapshot");
+			}
+			checkCheapestPaths(graph, queries);
+		}	// end for
+	}	// end testSnapshot
+
+	/** Adds the edges of a chain one at a time while other threads take snapshots and search them.
+	 * Each snapshot must hold the first edges of the chain and nothing else, and hold no fewer edges
+	 * than the snapshot its thread took before. */
+	private static void testConcurrentChanges() throws Exception {
+		int vertexCount = 2000;
+		int readerCount = 3;
+		DirectedGraph<String> graph = new DirectedGraph<>(new ConcurrentHashedDictionary<>());
+		for (int vertex = 0; vertex < vertexCount; vertex++) {
+			graph.addVertex(label(vertex));
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(readerCount + 1);
+		try {
+			Future<?> writer = executor.submit(() -> {
+				for (int vertex = 0; vertex + 1 < vertexCount; vertex++) {
+					graph.addEdge(label(vertex), label(vertex + 1), 1);
+				}
+			});
+			List<Future<?>> readers = new ArrayList<>();
+			for (int reader = 0; reader < readerCount; reader++) {
+				readers.add(executor.submit(() -> {
+					int lastCount = 0;
+					while (lastCount < vertexCount - 1) {
+						CompressedGraph<String> snapshot = graph.freeze();
+						int edgeCount = snapshot.getNumberOfEdges();
+						check(edgeCount >= lastCount, "a later snapshot has " + edgeCount + " edges, fewer than " + lastCount);
+						check(snapshot.getCheapestPath(label(0), label(edgeCount), new ArrayStack<>()) == edgeCount,
+							"a snapshot of " + edgeCount + " edges holds the start of the chain");
+						check((edgeCount == vertexCount - 1) || (snapshot.getCheapestPath(label(0), label(edgeCount + 1), new ArrayStack<>()) == -1),
+							"a snapshot of " + edgeCount + " edges holds no more of the chain");
+						lastCount = edgeCount;
+					}
+				}));
+			}
+			writer.get();
+			for (Future<?> nextReader : readers) {
+				nextReader.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+		check(graph.freeze().getNumberOfEdges() == vertexCount - 1, "the last snapshot has every edge");
+	}	// end testConcurrentChanges
+
+	/** Checks that a snapshot of a graph of airport codes finds each code by its packed number, and
+	 * other labels by hashing, both before and after the graph is cleared and filled again. */
+	private static void testAirportCodes(Random generator) {
+		int vertexCount = 60;
+		String[] codes = new String[vertexCount];
+		for (int vertex = 0; vertex < vertexCount; vertex++) {
+			codes[vertex] = (vertex % 10 == 0) ? label(vertex) : "" + (char) ('A' + vertex / 26) + (char) ('A' + vertex % 26) + 'Q';
+		}
+		check(!new DirectedGraph<String>().freeze().isIndexedByCode(), "other labels are hashed");
+
+		DirectedGraph<String> graph = new DirectedGraph<>(new AirportCodeDictionary<>());
+		for (int round = 0; round < 2; round++) {
+			ReferenceGraph reference = new ReferenceGraph(vertexCount);
+			graph.clear();
+			for (int vertex = 0; vertex < vertexCount; vertex++) {
+				graph.addVertex(codes[(round == 0) ? vertex : vertexCount - 1 - vertex]);
+			}
+			for (int edge = 0; edge < 4 * vertexCount; edge++) {
+				int begin = generator.nextInt(vertexCount);
+				int end = generator.nextInt(vertexCount);
+				double weight = generator.nextInt(50);
+				if (graph.addEdge(codes[begin], codes[end], weight)) {
+					reference.addEdge(begin, end, weight);
+				}
+			}
+
+			CompressedGraph<String> snapshot = graph.freeze();
+			check(snapshot.isIndexedByCode(), "airport codes are found by packed code");
+			for (int vertex = 0; vertex < vertexCount; vertex++) {
+				int index = (round == 0) ? vertex : vertexCount - 1 - vertex;
+				check(snapshot.getIndex(codes[vertex]) == index, "the index of " + codes[vertex]);
+			}
+			check((snapshot.getIndex("ZZZ") == -1) && (snapshot.getIndex(MISSING) == -1), "no index for a code not in the graph");
+			for (int query = 0; query < 50; query++) {
+				int begin = generator.nextInt(vertexCount);
+				int end = generator.nextInt(vertexCount);
+				double expected = reference.getCosts(begin)[end];
+				double cost = snapshot.getCheapestPath(codes[begin], codes[end], new ArrayStack<>());
+				check((expected == Double.POSITIVE_INFINITY) ? (cost == -1) : isNear(cost, expected), "the cost from " + codes[begin] + " to " + codes[end]);
+			}
+		}	// end for
+	}	// end testAirportCodes
+
+	/** Gives every vertex a location, so that getCheapestPath and getCheapestPathAStar are steered
+	 * by great-circle distance; some routes are listed as shorter than that distance. */
+	private static void testGreatCircle(Random generator) {
+		DirectedGraph<String> graph = new DirectedGraph<>();
+		ReferenceGraph reference = new ReferenceGraph(VERTEX_COUNT);
+		double[] latitudes = new double[VERTEX_COUNT];
+		double[] longitudes = new double[VERTEX_COUNT];
+		for (int vertex = 0; vertex < VERTEX_COUNT; vertex++) {
+			graph.addVertex(label(vertex));
+			latitudes[vertex] = 25 + 24 * generator.nextDouble();
+			longitudes[vertex] = -124 + 57 * generator.nextDouble();
+			graph.setLocation(label(vertex), latitudes[vertex], longitudes[vertex]);
+		}
+		for (int edge = 0; edge < EDGE_COUNT; edge++) {
+			int begin = generator.nextInt(VERTEX_COUNT * 2 / 3);
+			int end = generator.nextInt(VERTEX_COUNT * 2 / 3);
+			double miles = miles(latitudes[begin], longitudes[begin], latitudes[end], longitudes[end]);
+			double weight = Math.rint(miles * (0.8 + 0.5 * generator.nextDouble()));
+			if (graph.addEdge(label(begin), label(end), weight)) {
+				reference.addEdge(begin, end, weight);
+			}
+		}	// end for
+
+		TestGraph located = new TestGraph(graph, reference);
+		check(graph.hasLocations(), "every vertex has a location");
+		int[][] queries = createQueries(generator, VERTEX_COUNT);
+		checkCheapestPaths(located, queries);
+		for (int[] nextQuery : queries) {
+			StackInterface<String> path = new ArrayStack<>();
+			double cost = graph.getCheapestPathAStar(label(nextQuery[0]), label(nextQuery[1]), path);
+			checkPath(located, nextQuery[0], nextQuery[1], cost, path, "getCheapestPathAStar");
+		}
+	}	// end testGreatCircle
+
+	/** Runs queries on several threads at once, each of which keeps its own search state. */
+	private static void testQueryEngine(Random generator) throws Exception {
+		TestGraph graph = TestGraph.create(generator, VERTEX_COUNT, EDGE_COUNT, 100, true);
+		int[][] queries = createQueries(generator, VERTEX_COUNT);
+		RouteQueryEngine<String> engine = new RouteQueryEngine<>(graph.graph, 4);
+		try {
+			List<Future<Double>> costs = new ArrayList<>();
+			List<StackInterface<String>> paths = new ArrayList<>();
+			for (int[] nextQuery : queries) {
+				StackInterface<String> path = new ArrayStack<>();
+				paths.add(path);
+				costs.add(engine.submitCheapestPath(label(nextQuery[0]), label(nextQuery[1]), path));
+			}
+			for (int query = 0; query < queries.length; query++) {
+				checkPath(graph, queries[query][0], queries[query][1], costs.get(query).get(), paths.get(query), "submitCheapestPath");
+			}
+		} finally {
+			engine.shutdown();
+		}
+	}	// end testQueryEngine
+
+	/** Searches with landmarks and a bucket queue in a graph of many components, where the landmarks
+	 * bound most vertices by an infinite cost; such searches once never finished. */
+	private static void testManyComponents() throws Exception {
+		int vertexCount = 20000;
+		int connectedCount = 200;
+		Random generator = new Random(27);
+		DirectedGraph<String> graph = new DirectedGraph<>();
+		ReferenceGraph reference = new ReferenceGraph(vertexCount);
+		for (int vertex = 0; vertex < vertexCount; vertex++) {
+			graph.addVertex(label(vertex));
+		}
+		for (int edge = 0; edge < 300; edge++) {
+			int begin = generator.nextInt(connectedCount);
+			int end = generator.nextInt(connectedCount);
+			double weight = 1 + generator.nextInt(50);
+			if (graph.addEdge(label(begin), label(end), weight)) {
+				reference.addEdge(begin, end, weight);
+			}
+		}
+		TestGraph sparse = new TestGraph(graph, reference);
+
+		ExecutorService executor = Executors.newSingleThreadExecutor(task -> {
+			Thread thread = new Thread(task);
+			thread.setDaemon(true);	// So a search that never ends cannot keep the test running
+			return thread;
+		});
+		Future<?> searches = executor.submit(() -> {
+			graph.preprocessLandmarks(4);
+			int[][] queries = new int[200][];
+			for (int query = 0; query < queries.length; query++) {
+				queries[query] = new int[] {generator.nextInt(connectedCount), generator.nextInt(connectedCount)};
+			}
+			checkCheapestPaths(sparse, queries);
+		});
+		try {
+			searches.get(60, TimeUnit.SECONDS);
+		} catch (TimeoutException e) {
+			check(false, "searches among many components did not finish");
+		} finally {
+			executor.shutdownNow();
+		}
+	}	// end testManyComponents
+
+	/** Runs every search that works without preprocessing. */
+	private static void checkSearches(TestGraph graph, int[][] queries, Random generator) {
+		checkCheapestPaths(graph, queries);
+		for (int[] nextQuery : queries) {
+			int begin = nextQuery[0];
+			int end = nextQuery[1];
+			StackInterface<String> path = new ArrayStack<>();
+			checkPath(graph, begin, end, graph.graph.getCheapestPathBidirectional(label(begin), label(end), path), path, "getCheapestPathBidirectional");
+			checkPath(graph, begin, end, graph.graph.getCheapestPathAStar(label(begin), label(end), path), path, "getCheapestPathAStar");
+			checkShortestPath(graph, begin, end);
+		}
+
+		for (int origin = 0; origin < graph.reference.getNumberOfVertices(); origin += 7) {
+			checkTraversals(graph, origin);
+			checkOneToMany(graph, origin, generator);
+		}
+		check(graph.graph.getCheapestPath(MISSING, label(0), new ArrayStack<>()) == -1, "no path from a missing vertex");
+		check(graph.graph.getCheapestPathBidirectional(label(0), MISSING, new ArrayStack<>()) == -1, "no path to a missing vertex");
+		check(graph.graph.getShortestPath(label(0), MISSING, new ArrayStack<>()) == -1, "no shortest path to a missing vertex");
+		check(graph.graph.getBreadthFirstTraversal(MISSING).isEmpty(), "no traversal from a missing vertex");
+	}	// end checkSearches
+
+	private static void checkShortestPath(TestGraph graph, int begin, int end) {
+		int expected = graph.reference.getEdgeCounts(begin)[end];
+		StackInterface<String> path = new ArrayStack<>();
+		int edgeCount = graph.graph.getShortestPath(label(begin), label(end), path);
+		check(edgeCount == expected, "getShortestPath from " + begin + " to " + end + " has " + edgeCount + " edges, not " + expected);
+		int vertexCount = 0;
+		String previous = null;
+		while (!path.isEmpty()) {
+			String next = path.pop();
+			check((previous == null) ? next.equals(label(begin)) : (graph.reference.getWeight(index(previous), index(next)) != null),
+				"getShortestPath follows edges");
+			previous = next;
+			vertexCount++;
+		}
+		check((expected < 0) ? (vertexCount == 0) : ((vertexCount == expected + 1) && previous.equals(label(end))), "getShortestPath length");
+
+		PathResult<String> result = new PathResult<>();
+		check(graph.graph.getShortestPath(label(begin), label(end), result) == expected, "getShortestPath into a PathResult");
+		check(result.getNumberOfVertices() == ((expected < 0) ? 0 : expected + 1), "PathResult holds the shortest path");
+	}	// end checkShortestPath
+
+	private static void checkTraversals(TestGraph graph, int origin) {
+		double[] costs = graph.reference.getCosts(origin);
+		Set<String> reachable = new HashSet<>();
+		for (int vertex = 0; vertex < costs.length; vertex++) {
+			if (costs[vertex] < Double.POSITIVE_INFINITY) {
+				reachable.add(label(vertex));
+			}
+		}
+
+		for (int order = 0; order < 2; order++) {
+			QueueInterface<String> traversal = (order == 0) ? graph.graph.getBreadthFirstTraversal(label(origin))
+				: graph.graph.getDepthFirstTraversal(label(origin));
+			check(traversal.getFront().equals(label(origin)), "a traversal starts at its origin");
+			Set<String> visited = new HashSet<>();
+			while (!traversal.isEmpty()) {
+				check(visited.add(traversal.dequeue()), "a traversal visits each vertex once");
+			}
+			check(visited.equals(reachable), "a traversal visits every reachable vertex");
+		}
+	}	// end checkTraversals
+
+	private static void checkOneToMany(TestGraph graph, int origin, Random generator) {
+		int vertexCount = graph.reference.getNumberOfVertices();
+		List<String> destinations = new ArrayList<>();
+		for (int destination = 0; destination < 20; destination++) {
+			destinations.add(label(generator.nextInt(vertexCount)));
+		}
+		destinations.add(label(origin));
+		destinations.add(label(vertexCount - 1));	// Has no edges
+		destinations.add(MISSING);
+
+		double[] costs = graph.reference.getCosts(origin);
+		OneToManyResult<String> result = graph.graph.getCheapestPaths(label(origin), destinations);
+		check(result.getNumberOfDestinations() == destinations.size(), "one result per destination");
+		for (int destination = 0; destination < destinations.size(); destination++) {
+			String label = destinations.get(destination);
+			check(result.getDestination(destination).equals(label), "destinations keep their order");
+			StackInterface<String> path = new ArrayStack<>();
+			double cost = result.getPath(destination, path);
+			if (label.equals(MISSING)) {
+				check(!result.isReachable(destination) && (cost == -1) && path.isEmpty(), "a missing destination cannot be reached");
+				continue;
+			}
+
+			int end = index(label);
+			check(isNear(result.getCost(destination), cost), "getCost agrees with getPath");
+			check(result.isReachable(destination) == (costs[end] < Double.POSITIVE_INFINITY), "isReachable to " + end);
+			if (result.isReachable(destination) && (end != origin)) {
+				check(graph.reference.getWeight(index(result.getPredecessor(destination)), end) != null, "the predecessor has an edge to the destination");
+			} else {
+				check(result.getPredecessor(destination) == null, "no predecessor of the origin or of a vertex not reached");
+			}
+			checkPath(graph, origin, end, cost, path, "getCheapestPaths");
+		}	// end for
+
+		OneToManyResult<String> fromMissing = graph.graph.getCheapestPaths(MISSING, destinations);
+		for (int destination = 0; destination < destinations.size(); destination++) {
+			check(!fromMissing.isReachable(destination), "nothing is reachable from a missing vertex");
+		}
+	}	// end checkOneToMany
+
+	private static void checkCostTable(TestGraph graph, Random generator) {
+		int vertexCount = graph.reference.getNumberOfVertices();
+		List<String> begins = new ArrayList<>();
+		List<String> ends = new ArrayList<>();
+		for (int index = 0; index < 12; index++) {
+			begins.add(label(generator.nextInt(vertexCount)));
+			ends.add(label(generator.nextInt(vertexCount)));
+		}
+		begins.add(label(vertexCount - 1));
+		ends.add(label(vertexCount - 1));
+		begins.add(MISSING);
+		ends.add(MISSING);
+
+		double[][] table = graph.graph.getCheapestPathCosts(begins, ends);
+		check(table.length == begins.size(), "one row per origin");
+		for (int row = 0; row < begins.size(); row++) {
+			check(table[row].length == ends.size(), "one column per destination");
+			double[] costs = begins.get(row).equals(MISSING) ? null : graph.reference.getCosts(index(begins.get(row)));
+			for (int column = 0; column < ends.size(); column++) {
+				double expected = ((costs == null) || ends.get(column).equals(MISSING)) ? Double.POSITIVE_INFINITY : costs[index(ends.get(column))];
+				check((expected == Double.POSITIVE_INFINITY) ? (table[row][column] == -1) : isNear(table[row][column], expected),
+					"cost table entry from " + begins.get(row) + " to " + ends.get(column));
+			}
+		}	// end for
+	}	// end checkCostTable
+
+	/** Runs getCheapestPath on the graph and on its snapshot, and on the graph with a PathResult
+	 * reused from query to query. */
+	private static void checkCheapestPaths(TestGraph graph, int[][] queries) {
+		CompressedGraph<String> snapshot = graph.graph.freeze();
+		PathResult<String> result = new PathResult<>();
+		for (int[] nextQuery : queries) {
+			int begin = nextQuery[0];
+			int end = nextQuery[1];
+			StackInterface<String> path = new ArrayStack<>();
+			double cost = graph.graph.getCheapestPath(label(begin), label(end), path);
+			checkPath(graph, begin, end, cost, path, "getCheapestPath");
+			cost = snapshot.getCheapestPath(label(begin), label(end), path);
+			checkPath(graph, begin, end, cost, path, "CompressedGraph.getCheapestPath");
+
+			cost = graph.graph.getCheapestPath(label(begin), label(end), result);
+			double expected = graph.reference.getCosts(begin)[end];
+			if (expected == Double.POSITIVE_INFINITY) {
+				check((cost == -1) && !result.isFound() && (result.getCost() == -1), "PathResult found no path from " + begin + " to " + end);
+			} else {
+				check(isNear(cost, expected) && isNear(result.getCost(), expected), "PathResult cost from " + begin + " to " + end);
+				check(result.getLabel(0).equals(label(begin)), "PathResult starts at the origin");
+				check(result.getLabel(result.getNumberOfVertices() - 1).equals(label(end)), "PathResult ends at the destination");
+				double sum = 0;
+				for (int leg = 0; leg + 1 < result.getNumberOfVertices(); leg++) {
+					Double weight = graph.reference.getWeight(index(result.getLabel(leg)), index(result.getLabel(leg + 1)));
+					check((weight != null) && (weight == result.getLegCost(leg)), "PathResult leg " + leg + " is an edge");
+					sum += weight;
+				}
+				check(isNear(sum, expected), "PathResult legs add up to the cost");
+			}	// end if
+		}	// end for
+	}	// end checkCheapestPaths
+
+	/** Checks a path given as a stack of labels, which the check empties. */
+	private static void checkPath(TestGraph graph, int begin, int end, double cost, StackInterface<String> path, String method) {
+		double expected = graph.reference.getCosts(begin)[end];
+		String query = method + " from " + begin + " to " + end;
+		if (expected == Double.POSITIVE_INFINITY) {
+			check((cost == -1) && path.isEmpty(), query + " should find no path");
+			return;
+		}
+
+		check(isNear(cost, expected), query + " costs " + cost + ", not " + expected);
+		check(isNear(walk(graph, begin, end, path, null), expected), query + " has a path that does not add up");
+	}	// end checkPath
+
+	/** Follows a path given as a stack of labels, checking that it joins the given vertices by edges.
+	 * @param visited Receives the labels, to check that none repeats, or is null.
+	 * @return The sum of the edge weights. */
+	private static double walk(TestGraph graph, int begin, int end, StackInterface<String> path, Set<String> visited) {
+		check(!path.isEmpty() && path.peek().equals(label(begin)), "a path starts at its origin");
+		String previous = path.pop();
+		check((visited == null) || visited.add(previous), "a path does not repeat a vertex");
+		double cost = 0;
+		while (!path.isEmpty()) {
+			String next = path.pop();
+			check((visited == null) || visited.add(next), "a path does not repeat a vertex");
+			Double weight = graph.reference.getWeight(index(previous), index(next));
+			check(weight != null, "a path uses an edge from " + previous + " to " + next + " that does not exist");
+			cost += weight;
+			previous = next;
+		}
+		check(previous.equals(label(end)), "a path ends at its destination");
+
+		return cost;
+	}	// end walk
+
+	/** Picks random pairs of vertices, along with pairs from a vertex to itself and pairs involving
+	 * the last vertices, which TestGraph.create leaves without edges. */
+	private static int[][] createQueries(Random generator, int vertexCount) {
+		int[][] queries = new int[QUERY_COUNT][];
+		for (int query = 0; query < QUERY_COUNT; query++) {
+			int begin = generator.nextInt(vertexCount);
+			int end = generator.nextInt(vertexCount);
+			switch (query % 10) {
+				case 0:
+					end = begin;
+					break;
+				case 1:
+					end = vertexCount - 1;
+					break;
+				case 2:
+					begin = vertexCount - 1;
+					break;
+				default:
+					break;
+			}
+			queries[query] = new int[] {begin, end};
+		}
+
+		return queries;
+	}	// end createQueries
+
+	private static double miles(double latitude1, double longitude1, double latitude2, double longitude2) {
+		double sinHalfLatitude = Math.sin(Math.toRadians(latitude2 - latitude1) / 2);
+		double sinHalfLongitude = Math.sin(Math.toRadians(longitude2 - longitude1) / 2);
+		double chord = sinHalfLatitude * sinHalfLatitude
+			+ Math.cos(Math.toRadians(latitude1)) * Math.cos(Math.toRadians(latitude2)) * sinHalfLongitude * sinHalfLongitude;
+		return 2 * 3958.8 * Math.asin(Math.min(1.0, Math.sqrt(chord)));
+	}	// end miles
+
+	private static String label(int vertex) {
+		return "V" + vertex;
+	}
+
+	private static int index(String label) {
+		return Integer.parseInt(label.substring(1));
+	}
+
+	private static boolean isNear(double actual, double expected) {
+		return Math.abs(actual - expected) <= 1e-9 * Math.max(1.0, Math.abs(expected));
+	}
+
+	private static void check(boolean condition, String message) {
+		if (!condition) {
+			throw new AssertionError(message);
+		}
+	}
+
+	/** A DirectedGraph together with the same edges in a ReferenceGraph. */
+	private static final class TestGraph {
+		private final DirectedGraph<String> graph;
+		private final ReferenceGraph reference;
+
+		private TestGraph(DirectedGraph<String> graph, ReferenceGraph reference) {
+			this.graph = graph;
+			this.reference = reference;
+		}
+
+		/** Builds a random graph whose vertices are labelled V0, V1 and so on. Most edges join
+		 * vertices of the first two thirds; the rest lead from there into the last third, so no path
+		 * leads back, and the last few vertices have no edges at all.
+		 * @param integral True for whole-number weights from 0 to maxWeight, false for fractional ones. */
+		private static TestGraph create(Random generator, int vertexCount, int edgeCount, int maxWeight, boolean integral) {
+			TestGraph result = new TestGraph(new DirectedGraph<>(), new ReferenceGraph(vertexCount));
+			for (int vertex = 0; vertex < vertexCount; vertex++) {
+				result.graph.addVertex(label(vertex));
+			}
+
+			int core = Math.max(1, vertexCount * 2 / 3);
+			int connected = Math.max(core, vertexCount - Math.max(1, vertexCount / 20));
+			for (int edge = 0; edge < edgeCount; edge++) {
+				int begin = generator.nextInt(core);
+				int end = (edge % 8 == 0) ? generator.nextInt(connected) : generator.nextInt(core);
+				result.addEdge(begin, end, integral ? generator.nextInt(maxWeight + 1) : maxWeight * generator.nextDouble());
+			}
+
+			return result;
+		}	// end create
+
+		/** Adds an edge to the graph, and to the reference if the graph takes it. */
+		private void addEdge(int begin, int end, double weight) {
+			if (graph.addEdge(label(begin), label(end), weight)) {
+				reference.addEdge(begin, end, weight);
+			}
+		}
+	}	// end TestGraph
+
+	/** The edges of a graph kept in a map per vertex, searched the textbook way. */
+	private static final class ReferenceGraph {
+		private final List<Map<Integer, Double>> edges = new ArrayList<>();
+
+		private ReferenceGraph(int vertexCount) {
+			for (int vertex = 0; vertex < vertexCount; vertex++) {
+				edges.add(new LinkedHashMap<>());
+			}
+		}
+
+		private ReferenceGraph copy() {
+			ReferenceGraph result = new ReferenceGraph(0);
+			for (Map<Integer, Double> nextEdges : edges) {
+				result.edges.add(new LinkedHashMap<>(nextEdges));
+			}
+			return result;
+		}
+
+		private int getNumberOfVertices() {
+			return edges.size();
+		}
+
+		private void addEdge(int begin, int end, double weight) {
+			edges.get(begin).put(end, weight);
+		}
+
+		private Double getWeight(int begin, int end) {
+			return edges.get(begin).get(end);
+		}
+
+		/** Runs Dijkstra's algorithm with a priority queue that may hold a vertex more than once.
+		 * @return The cost of the cheapest path to each vertex, or infinity if there is none. */
+		private double[] getCosts(int origin) {
+			double[] costs = new double[edges.size()];
+			Arrays.fill(costs, Double.POSITIVE_INFINITY);
+			costs[origin] = 0;
+			PriorityQueue<double[]> queue = new PriorityQueue<>((first, second) -> Double.compare(first[0], second[0]));
+			queue.add(new double[] {0, origin});
+			while (!queue.isEmpty()) {
+				double[] next = queue.poll();
+				int vertex = (int) next[1];
+				if (next[0] > costs[vertex]) {
+					continue;
+				}
+				for (Map.Entry<Integer, Double> edge : edges.get(vertex).entrySet()) {
+					double cost = costs[vertex] + edge.getValue();
+					if (cost < costs[edge.getKey()]) {
+						costs[edge.getKey()] = cost;
+						queue.add(new double[] {cost, edge.getKey()});
+					}
+				}
+			}	// end while
+
+			return costs;
+		}	// end getCosts
+
+		/** Runs a breadth-first search.
+		 * @return The fewest edges on a path to each vertex, or -1 if there is none. */
+		private int[] getEdgeCounts(int origin) {
+			int[] counts = new int[edges.size()];
+			Arrays.fill(counts, -1);
+			counts[origin] = 0;
+			int[] queue = new int[edges.size()];
+			int size = 0;
+			queue[size++] = origin;
+			for (int front = 0; front < size; front++) {
+				for (int next : edges.get(queue[front]).keySet()) {
+					if (counts[next] < 0) {
+						counts[next] = counts[queue[front]] + 1;
+						queue[size++] = next;
+					}
+				}
+			}
+
+			return counts;
+		}	// end getEdgeCounts
+
+		/** Adds the cost of every loopless path from a vertex to a destination to a list. */
+		private void findLooplessPaths(int vertex, int end, boolean[] onPath, double cost, List<Double> costs) {
+			if (vertex == end) {
+				costs.add(cost);
+				return;
+			}
+			onPath[vertex] = true;
+			for (Map.Entry<Integer, Double> edge : edges.get(vertex).entrySet()) {
+				if (!onPath[edge.getKey()]) {
+					findLooplessPaths(edge.getKey(), end, onPath, cost + edge.getValue(), costs);
+				}
+			}
+			onPath[vertex] = false;
+		}	// end findLooplessPaths
+	}	// end ReferenceGraph
+
+}	// end GraphQueryTest
@@ -0,0 +1,302 @@
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.function.IntFunction;
+
+/** Checks the priority queues against an array scanned for its smallest entry, or against
+ * java.util.PriorityQueue. The queues of vertices are driven the way Dijkstra's algorithm drives
+ * them, with no priority below the last one removed, since the bucket queue and radix heap
+ * depend on that; the IndexedMinHeap is also given priorities in any order.
+ * Run with: java PriorityQueueTest [seed]
+ */
+public final class PriorityQueueTest {
+
+	private static final int CAPACITY = 300;
+	private static final int MAX_WEIGHT = 100;
+	private static final int STEP_COUNT = 40000;
+
+	public static void main(String[] args) {
+		Random generator = new Random((args.length > 0) ? Long.parseLong(args[0]) : 1);
+
+		testMonotone(size -> new BucketQueue(size, MAX_WEIGHT), "BucketQueue", generator);
+		testMonotone(size -> new BucketQueue(size, 1), "BucketQueue of width 1", generator);
+		testMonotone(RadixHeap::new, "RadixHeap", generator);
+		for (int arity = 2; arity <= 8; arity *= 2) {
+			int heapArity = arity;
+			testMonotone(size -> new IndexedMinHeap(size, heapArity), "IndexedMinHeap of arity " + arity, generator);
+			testAnyOrder(new IndexedMinHeap(CAPACITY, heapArity), generator);
+		}
+		testAnyOrder(new IndexedMinHeap(CAPACITY), generator);
+		testInfinitePriorities(size -> new BucketQueue(size, MAX_WEIGHT), "BucketQueue");
+		testInfinitePriorities(RadixHeap::new, "RadixHeap");
+		testInfinitePriorities(IndexedMinHeap::new, "IndexedMinHeap");
+
+		for (int arity = 2; arity <= 5; arity++) {
+			testHeap(new DaryHeap<>(arity, 4), generator);
+		}
+		testHeap(new DaryHeap<>(), generator);
+		testHeap(new MinHeap<>(4), generator);
+		testHeapConstruction(generator);
+		testBulkAdds(generator);
+		testPriorityQueue(new MinHeapPriorityQueue<>(), generator);
+		testPriorityQueue(new MinHeapPriorityQueue<>(new DaryHeap<Integer>(4, 4)), generator);
+
+		System.out.println("PriorityQueueTest passed");
+	}	// end main
+
+	/** Adds, lowers and removes entries whose whole-number priorities never fall below the last one
+	 * removed, as Dijkstra's algorithm does; a few priorities lie far past the last edge weight.
+	 * The queue is then cleared and used again. */
+	private static void testMonotone(IntFunction<? extends VertexPriorityQueue> factory, String name, Random generator) {
+		VertexPriorityQueue queue = factory.apply(CAPACITY);
+		for (int round = 0; round < 2; round++) {
+			double[] priorities = new double[CAPACITY];	// NaN for an entry not in the queue
+			Arrays.fill(priorities, Double.NaN);
+			double lastRemoved = 0;
+			for (int step = 0; step < STEP_COUNT; step++) {
+				int id = generator.nextInt(CAPACITY);
+				int operation = generator.nextInt(10);
+				if ((operation < 4) && Double.isNaN(priorities[id])) {
+					int range = (generator.nextInt(20) == 0) ? 10 * MAX_WEIGHT : MAX_WEIGHT;
+					priorities[id] = lastRemoved + generator.nextInt(range + 1);
+					queue.add(id, priorities[id]);
+				} else if ((operation < 7) && !Double.isNaN(priorities[id]) && (priorities[id] > lastRemoved)) {
+					priorities[id] = lastRemoved + generator.nextInt((int) (priorities[id] - lastRemoved));
+					queue.decreaseKey(id, priorities[id]);
+				} else if (operation >= 7) {
+					lastRemoved = checkRemoveMin(queue, priorities, lastRemoved, name);
+				}
+				checkContents(queue, priorities, generator.nextInt(CAPACITY), name);
+			}	// end for
+
+			while (!queue.isEmpty()) {
+				lastRemoved = checkRemoveMin(queue, priorities, lastRemoved, name);
+			}
+			checkContents(queue, priorities, 0, name);
+
+			for (int id = 0; id < CAPACITY; id += 3) {	// Leave entries behind for clear
+				queue.add(id, lastRemoved + id);
+			}
+			queue.clear();
+			check(queue.isEmpty() && (queue.getSize() == 0) && !queue.contains(0), name + " is empty after clear");
+		}	// end for
+	}	// end testMonotone
+
+	/** Gives an IndexedMinHeap fractional priorities in any order, some of them negative. */
+	private static void testAnyOrder(IndexedMinHeap queue, Random generator) {
+		double[] priorities = new double[CAPACITY];
+		Arrays.fill(priorities, Double.NaN);
+		for (int step = 0; step < STEP_COUNT; step++) {
+			int id = generator.nextInt(CAPACITY);
+			int operation = generator.nextInt(10);
+			if ((operation < 4) && Double.isNaN(priorities[id])) {
+				priorities[id] = 1000 * generator.nextDouble() - 100;
+				queue.add(id, priorities[id]);
+			} else if ((operation < 7) && !Double.isNaN(priorities[id])) {
+				priorities[id] -= 50 * generator.nextDouble();
+				queue.decreaseKey(id, priorities[id]);
+			} else if (operation >= 7) {
+				checkRemoveMin(queue, priorities, Double.NEGATIVE_INFINITY, "IndexedMinHeap");
+			}
+			checkContents(queue, priorities, generator.nextInt(CAPACITY), "IndexedMinHeap");
+		}	// end for
+	}	// end testAnyOrder
+
+	/** Mixes infinite priorities, such as an A* search gives vertices that cannot reach the destination,
+	 * with finite ones; the infinite entries must come out last, and none may be lost. */
+	private static void testInfinitePriorities(IntFunction<? extends VertexPriorityQueue> factory, String name) {
+		VertexPriorityQueue queue = factory.apply(CAPACITY);
+		double[] priorities = new double[CAPACITY];
+		Arrays.fill(priorities, Double.NaN);
+		for (int id = 0; id < CAPACITY; id++) {
+			priorities[id] = (id % 3 == 0) ? Double.POSITIVE_INFINITY : id;
+			queue.add(id, priorities[id]);
+		}
+		for (int id = 0; id < CAPACITY; id += 6) {	// Some infinite priorities become finite again
+			priorities[id] = CAPACITY + id;
+			queue.decreaseKey(id, priorities[id]);
+		}
+		checkContents(queue, priorities, 3, name);
+
+		double lastRemoved = 0;
+		while (!queue.isEmpty()) {
+			lastRemoved = checkRemoveMin(queue, priorities, lastRemoved, name);
+		}
+		check(lastRemoved == Double.POSITIVE_INFINITY, name + " gives up its entries of infinite priority");
+
+		queue.clear();
+		queue.add(1, Double.POSITIVE_INFINITY);
+		queue.add(2, 5);
+		check(queue.removeMin() == 2, name + " puts a finite priority first");
+		check(queue.removeMin() == 1 && queue.isEmpty(), name + " holds an infinite priority alone");
+	}	// end testInfinitePriorities
+
+	/** Removes the smallest entry and checks it against the reference.
+	 * @return The priority removed. */
+	private static double checkRemoveMin(VertexPriorityQueue queue, double[] priorities, double lastRemoved, String name) {
+		double smallest = Double.NaN;
+		for (double next : priorities) {
+			if (!Double.isNaN(next) && (Double.isNaN(smallest) || (next < smallest))) {
+				smallest = next;
+			}
+		}
+		if (Double.isNaN(smallest)) {
+			check(queue.isEmpty(), name + " should be empty");
+			return lastRemoved;
+		}
+
+		int first = queue.getMin();
+		check(priorities[first] == smallest, name + " getMin gives priority " + priorities[first] + ", not " + smallest);
+		int removed = queue.removeMin();
+		check(priorities[removed] == smallest, name + " removeMin gives priority " + priorities[removed] + ", not " + smallest);
+		check(!queue.contains(removed), name + " no longer contains an entry removed");
+		priorities[removed] = Double.NaN;
+
+		return smallest;
+	}	// end checkRemoveMin
+
+	private static void checkContents(VertexPriorityQueue queue, double[] priorities, int id, String name) {
+		int size = 0;
+		for (double next : priorities) {
+			size += Double.isNaN(next) ? 0 : 1;
+		}
+		check(queue.getSize() == size, name + " has " + queue.getSize() + " entries, not " + size);
+		check(queue.isEmpty() == (size == 0), name + " isEmpty");
+		check(queue.contains(id) == !Double.isNaN(priorities[id]), name + " contains " + id);
+		if (queue.contains(id)) {
+			check(queue.getPriority(id) == priorities[id], name + " getPriority of " + id);
+		}
+	}	// end checkContents
+
+	private static void testHeap(MinHeapInterface<Integer> heap, Random generator) {
+		PriorityQueue<Integer> reference = new PriorityQueue<>();
+		for (int step = 0; step < STEP_COUNT; step++) {
+			if (generator.nextInt(5) < 3) {
+				Integer entry = generator.nextInt(1000);
+				heap.add(entry);
+				reference.add(entry);
+			} else {
+				check(Objects.equals(heap.getMin(), reference.peek()), "getMin");
+				check(Objects.equals(heap.removeMin(), reference.poll()), "removeMin");
+			}
+			check(heap.getSize() == reference.size() && heap.isEmpty() == reference.isEmpty(), "heap size");
+			if (step % 10000 == 0) {
+				heap.clear();
+				reference.clear();
+			}
+		}	// end for
+
+		while (!reference.isEmpty()) {
+			check(heap.removeMin().equals(reference.poll()), "removeMin while emptying");
+		}
+		check((heap.removeMin() == null) && (heap.getMin() == null), "an empty heap gives null");
+		try {
+			heap.add(null);
+			check(false, "a heap refuses null");
+		} catch (IllegalArgumentException e) {
+			// Expected
+		}
+	}	// end testHeap
+
+	/** Builds DaryHeaps from arrays, and adds arrays to them, which heapify rather than add one at a time. */
+	private static void testHeapConstruction(Random generator) {
+		for (int arity = 2; arity <= 5; arity++) {
+			Integer[] entries = new Integer[500];
+			for (int index = 0; index < entries.length; index++) {
+				entries[index] = generator.nextInt(100);
+			}
+			DaryHeap<Integer> heap = new DaryHeap<>(arity, entries);
+			heap.addAll(Arrays.copyOf(entries, 100));
+			heap.add(-1);
+			Integer[] sorted = Arrays.copyOf(entries, entries.length + 101);
+			System.arraycopy(entries, 0, sorted, entries.length, 100);
+			sorted[sorted.length - 1] = -1;
+			Arrays.sort(sorted);
+			for (Integer next : sorted) {
+				check(heap.removeMin().equals(next), "DaryHeap of arity " + arity + " built from an array");
+			}
+			check(heap.isEmpty(), "DaryHeap built from an array is emptied");
+		}	// end for
+
+		try {
+			new DaryHeap<Integer>(1, 10);
+			check(false, "a heap of arity 1 is refused");
+		} catch (IllegalArgumentException e) {
+			// Expected
+		}
+		try {
+			new DaryHeap<Integer>(2, 4).addAll(new Integer[] {1, null});
+			check(false, "addAll refuses null");
+		} catch (IllegalArgumentException e) {
+			// Expected
+		}
+	}	// end testHeapConstruction
+
+	/** Adds arrays of entries to a MinHeap and to priority queues, through PriorityQueueInterface, mixed
+	 * with single adds, and checks that the entries come out in order. */
+	private static void testBulkAdds(Random generator) {
+		for (int kind = 0; kind < 3; kind++) {
+			Integer[] first = randomEntries(generator, 300);
+			Integer[] second = randomEntries(generator, 40);
+			PriorityQueue<Integer> reference = new PriorityQueue<>(Arrays.asList(first));
+			reference.addAll(Arrays.asList(second));
+			reference.add(-1);
+
+			PriorityQueueInterface<Integer> queue;
+			if (kind == 0) {
+				queue = new MinHeapPriorityQueue<>(first);
+			} else {
+				queue = new MinHeapPriorityQueue<>((kind == 1) ? new MinHeap<>(4) : new DaryHeap<Integer>(2, 4));
+				queue.add(first[0]);
+				queue.addAll(Arrays.copyOfRange(first, 1, first.length));	// Grows the heap
+			}
+			queue.addAll(second);
+			queue.add(-1);
+			check(queue.getSize() == reference.size(), "every entry added in bulk is counted");
+			while (!reference.isEmpty()) {
+				check(queue.remove().equals(reference.poll()), "entries added in bulk come out in order");
+			}
+			check(queue.isEmpty(), "a priority queue filled in bulk is emptied");
+		}	// end for
+
+		try {
+			new MinHeap<Integer>(4).addAll(new Integer[] {1, null});
+			check(false, "MinHeap addAll refuses null");
+		} catch (IllegalArgumentException e) {
+			// Expected
+		}
+	}	// end testBulkAdds
+
+	private static Integer[] randomEntries(Random generator, int count) {
+		Integer[] entries = new Integer[count];
+		for (int index = 0; index < count; index++) {
+			entries[index] = generator.nextInt(100);
+		}
+		return entries;
+	}
+
+	private static void testPriorityQueue(PriorityQueueInterface<Integer> queue, Random generator) {
+		PriorityQueue<Integer> reference = new PriorityQueue<>();
+		for (int step = 0; step < STEP_COUNT; step++) {
+			if (generator.nextBoolean()) {
+				Integer entry = generator.nextInt(1000);
+				queue.add(entry);
+				reference.add(entry);
+			} else {
+				check(Objects.equals(queue.peek(), reference.peek()), "peek");
+				check(Objects.equals(queue.remove(), reference.poll()), "remove");
+			}
+			check(queue.getSize() == reference.size() && queue.isEmpty() == reference.isEmpty(), "priority queue size");
+		}
+		queue.clear();
+		check(queue.isEmpty() && (queue.remove() == null), "an empty priority queue gives null");
+	}	// end testPriorityQueue
+
+	private static void check(boolean condition, String message) {
+		if (!condition) {
+			throw new AssertionError(message);
+		}
+	}
+
+}	// end PriorityQueueTest